@@ -0,0 +1,50 @@
+package com.shop.benchmark;
+
+import com.shop.domain.order.OrderNumberGenerator;
+import com.shop.domain.payment.TossOrderIdCodec;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 주문 번호 생성, 토스 orderId 디코딩 기존 방식과 비교
+ * ./gradlew jmh (build.gradle의 jmh.includes로 대상 지정, profilers = ["gc"]로 할당량 확인)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderIdentifierBenchmark {
+
+    private final OrderNumberGenerator generator = new OrderNumberGenerator(1);
+    private final String tossOrderId = TossOrderIdCodec.encode(123_456_789L);
+
+    @Benchmark
+    public String legacyOrderNumber() {
+        return "ORD-" + LocalDate.now() + "-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    }
+
+    @Benchmark
+    public String snowflakeOrderNumber() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    public long legacyDecode() {
+        String cleaned = tossOrderId.replaceAll("-", "");
+        byte[] decode = Base64.getDecoder().decode(cleaned);
+        String rawOrderId = new String(decode);
+        return Long.parseLong(rawOrderId);
+    }
+
+    @Benchmark
+    public long codecDecode() {
+        return TossOrderIdCodec.decode(tossOrderId);
+    }
+}
@@ -0,0 +1,121 @@
+package com.shop.benchmark;
+
+import com.shop.domain.member.Member;
+import com.shop.domain.member.MemberRole;
+import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderProduct;
+import com.shop.domain.order.OrderStats;
+import com.shop.domain.payment.Payment;
+import com.shop.domain.product.Product;
+import com.shop.domain.product.ProductSellStatus;
+import com.shop.domain.product.ProductStockShard;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 주문 저장 처리량 (한 트랜잭션에 주문 10건, 주문당 상품 3개)
+ * idStrategy=IDENTITY, batchSize=1이 기존 설정(IDENTITY, 배치 없음)이다.
+ * IDENTITY는 INSERT마다 생성된 ID를 받아야 해서 batchSize를 올려도 Hibernate가 INSERT를 배치하지 않는다.
+ * ./gradlew jmh (build.gradle의 jmh.includes로 대상 지정)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderInsertBenchmark {
+
+    private static final int ORDERS_PER_TRANSACTION = 10;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    private String idStrategy;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private SessionFactory sessionFactory;
+    private Member member;
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        if ("IDENTITY".equals(idStrategy)) {  //엔티티의 SEQUENCE 매핑을 덮어쓴다.
+            configuration.addResource("benchmark/identity-orm.xml");
+        }
+        sessionFactory = configuration
+                .setProperty("hibernate.connection.url",
+                        "jdbc:h2:mem:bench" + idStrategy + batchSize + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .addAnnotatedClass(Member.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(ProductStockShard.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderProduct.class)
+                .addAnnotatedClass(OrderStats.class)
+                .addAnnotatedClass(Payment.class)
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            member = Member.builder()
+                    .email("bench@example.com")
+                    .name("bench")
+                    .password("password")
+                    .role(MemberRole.USER)
+                    .build();
+            session.persist(member);
+
+            products = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Product product = Product.builder()
+                        .name("상품" + i)
+                        .price(1_000)
+                        .stockQuantity(Integer.MAX_VALUE)
+                        .description("벤치마크")
+                        .sellStatus(ProductSellStatus.SELL)
+                        .build();
+                session.persist(product);
+                products.add(product);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_TRANSACTION)
+    public void insertOrders() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Member managedMember = session.getReference(Member.class, member.getId());
+            for (int i = 0; i < ORDERS_PER_TRANSACTION; i++) {
+                List<OrderProduct> orderProducts = new ArrayList<>();
+                for (Product product : products) {
+                    orderProducts.add(new OrderProduct(session.get(Product.class, product.getId()), 1));
+                }
+                session.persist(new Order(managedMember, orderProducts));
+            }
+            session.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.shop.benchmark;
+
+import com.shop.repository.product.TrigramIndex;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 상품명 부분 검색 (상품 100만 건, 한 페이지 20건)
+ * like는 기존 getList처럼 LOWER(name) LIKE '%query%'로 한 페이지와 전체 개수를 조회하고,
+ * index는 트라이그램 색인에서 ID 목록(전체 개수 포함)을 얻은 뒤 한 페이지만 ID로 가져온다.
+ * ./gradlew jmh (build.gradle의 jmh.includes로 대상 지정)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] WORDS = {
+            "무선", "유선", "게이밍", "기계식", "키보드", "마우스", "모니터", "노트북", "태블릿", "스피커",
+            "헤드폰", "이어폰", "충전기", "케이블", "거치대", "웹캠", "마이크", "공유기", "허브", "외장하드",
+            "wireless", "gaming", "keyboard", "mouse", "monitor", "laptop", "speaker", "charger", "cable", "stand"
+    };
+
+    //흔한 단어, 드문 조합
+    @Param({"키보드", "gaming mouse 7"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private PreparedStatement countStatement;
+    private PreparedStatement idStatement;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:search;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE product (product_id BIGINT PRIMARY KEY, name VARCHAR(255), price INT)");
+        }
+
+        index = new TrigramIndex();
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO product (product_id, name, price) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= PRODUCT_COUNT; id++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " " + random.nextInt(1_000);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setInt(3, 1_000);
+                insert.addBatch();
+                index.add(id, name);
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        likeStatement = connection.prepareStatement("SELECT product_id, name, price FROM product "
+                + "WHERE LOWER(name) LIKE ? ORDER BY product_id DESC LIMIT " + PAGE_SIZE);
+        countStatement = connection.prepareStatement("SELECT COUNT(*) FROM product WHERE LOWER(name) LIKE ?");
+        idStatement = connection.prepareStatement(
+                "SELECT product_id, name, price FROM product WHERE product_id = ANY(?) ORDER BY product_id DESC");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long like() throws SQLException {
+        String pattern = "%" + TrigramIndex.normalize(query) + "%";
+        likeStatement.setString(1, pattern);
+        countStatement.setString(1, pattern);
+        try (ResultSet resultSet = countStatement.executeQuery()) {
+            resultSet.next();
+            return read(likeStatement) + resultSet.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public long index() throws SQLException {
+        long[] ids = index.search(query);
+        int size = Math.min(ids.length, PAGE_SIZE);
+        Long[] page = new Long[size];
+        for (int i = 0; i < size; i++) {
+            page[i] = ids[i];
+        }
+        idStatement.setObject(1, page);
+        return read(idStatement) + ids.length;
+    }
+
+    private int read(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,6 +1,7 @@
 package com.shop.client;
 
 import com.shop.global.feign.TossPaymentsFeignConfig;
+import com.shop.dto.request.PaymentCancelRequest;
 import com.shop.dto.request.PaymentRequest;
 import com.shop.dto.response.PaymentResponse;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -24,4 +25,8 @@ public interface TossPaymentsClient {
 
     @GetMapping("/{paymentKey}")
     PaymentResponse getPaymentByPaymentKey(@PathVariable("paymentKey") String paymentKey);
+
+    @PostMapping("/{paymentKey}/cancel")
+    PaymentResponse cancelPayment(@PathVariable("paymentKey") String paymentKey,
+                                  @RequestBody PaymentCancelRequest request);
 }
@@ -4,8 +4,11 @@ import com.shop.dto.response.ErrorResponse;
 import com.shop.exception.ErrorCode;
 import com.shop.exception.CustomException;
 import com.shop.exception.CustomFeignException;
+import com.shop.exception.TooManyRequests;
 import com.shop.exception.Unauthorized;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -23,7 +26,7 @@ public class ExceptionController {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(CustomException.class)
     public ErrorResponse exceptionHandler(CustomException e) {
-        return new ErrorResponse(e.getErrorCode());
+        return new ErrorResponse(e.getErrorCode(), e.getValidation());
     }
 
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
@@ -32,6 +35,14 @@ public class ExceptionController {
         return new ErrorResponse(e.getErrorCode());
     }
 
+    //동시 처리 한도 초과, 대기 없이 바로 거절
+    @ExceptionHandler(TooManyRequests.class)
+    public ResponseEntity<ErrorResponse> exceptionHandler(TooManyRequests e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getErrorCode()));
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(CustomFeignException.class)
     public ErrorResponse exceptionHandler(CustomFeignException e) {
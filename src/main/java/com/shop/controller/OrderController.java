@@ -1,5 +1,7 @@
 package com.shop.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.shop.dto.request.CartOrderRequest;
 import com.shop.dto.request.OrderCreateRequest;
 import com.shop.dto.request.OrderSearchRequest;
 import com.shop.dto.response.CommonResponse;
@@ -7,8 +9,14 @@ import com.shop.dto.response.OrderResponse;
 import com.shop.dto.response.OrderStatisticsResponse;
 import com.shop.facade.OrderFacade;
 import com.shop.global.auth.Login;
+import com.shop.global.idempotency.IdempotencyStore;
+import com.shop.global.limit.AdaptiveConcurrencyLimiter;
 import com.shop.service.OrderService;
-import lombok.RequiredArgsConstructor;
+import com.shop.service.WaitingRoomService;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
@@ -17,22 +25,61 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@RequiredArgsConstructor
 @RequestMapping("/api/order")
 public class OrderController {
 
+    private static final TypeReference<CommonResponse<OrderResponse>> ORDER_RESPONSE = new TypeReference<>() {
+    };
+
     private final OrderService orderService;
     private final OrderFacade orderFacade;
+    private final WaitingRoomService waitingRoomService;
+    private final AdaptiveConcurrencyLimiter orderConcurrencyLimiter;
+    private final IdempotencyStore idempotencyStore;
+
+    public OrderController(OrderService orderService,
+                           OrderFacade orderFacade,
+                           WaitingRoomService waitingRoomService,
+                           @Qualifier("orderConcurrencyLimiter") AdaptiveConcurrencyLimiter orderConcurrencyLimiter,
+                           IdempotencyStore idempotencyStore) {
+        this.orderService = orderService;
+        this.orderFacade = orderFacade;
+        this.waitingRoomService = waitingRoomService;
+        this.orderConcurrencyLimiter = orderConcurrencyLimiter;
+        this.idempotencyStore = idempotencyStore;
+    }
 
     @PostMapping
-    public CommonResponse<OrderResponse> order(@Login String email,
-                                               @RequestBody @Validated OrderCreateRequest request) {
-        return orderFacade.orderWithRedisson(email, request);
+    public CompletableFuture<CommonResponse<OrderResponse>> order(
+            @Login String email,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody @Validated OrderCreateRequest request) {
+        //재시도 요청은 처리 결과를 재사용(같은 키에 다른 상품/수량이면 거절), 한도 초과로 거절되면 입장권은 사용하지 않는다.
+        //주문이 실패하면 입장권을 되돌린다.
+        String key = idempotencyKey == null ? null : email + ":" + idempotencyKey;
+        String fingerprint = request.getProductId() + ":" + request.getQuantity();
+        return idempotencyStore.executeAsync("order", key, fingerprint, ORDER_RESPONSE, response -> true,
+                () -> orderConcurrencyLimiter.executeAsync(() -> waitingRoomService.admitted(
+                        email, List.of(request.getProductId()), () -> orderFacade.orderAsync(email, request))));
+    }
+
+    @PostMapping("/cart")
+    public CompletableFuture<CommonResponse<OrderResponse>> orderCart(
+            @Login String email,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody @Validated CartOrderRequest request) {
+        String key = idempotencyKey == null ? null : email + ":" + idempotencyKey;
+        String fingerprint = new TreeMap<>(request.getQuantitiesByProduct()).toString();  //상품 ID 순, 줄 순서와 무관
+        return idempotencyStore.executeAsync("cart", key, fingerprint, ORDER_RESPONSE, response -> true,
+                () -> orderConcurrencyLimiter.executeAsync(() -> waitingRoomService.admitted(
+                        email, request.getQuantitiesByProduct().keySet(),
+                        () -> orderFacade.orderCartAsync(email, request))));
     }
 
     @PostMapping("/{orderId}/cancel")
@@ -1,29 +1,48 @@
 package com.shop.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.shop.client.TossPaymentsClient;
 import com.shop.dto.request.PaymentRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.OrderPaymentInfo;
 import com.shop.dto.response.PaymentResponse;
+import com.shop.global.idempotency.IdempotencyStore;
+import com.shop.global.limit.AdaptiveConcurrencyLimiter;
 import com.shop.service.PaymentService;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
-@RequiredArgsConstructor
 public class PaymentController {
 
+    private static final TypeReference<CommonResponse<PaymentResponse>> PAYMENT_RESPONSE = new TypeReference<>() {
+    };
+    private static final String SUCCESS_CODE = "200";
+
     private final PaymentService paymentService;
     private final TossPaymentsClient tossPaymentsClient;
+    private final AdaptiveConcurrencyLimiter paymentConcurrencyLimiter;
+    private final IdempotencyStore idempotencyStore;
+
+    public PaymentController(PaymentService paymentService,
+                             TossPaymentsClient tossPaymentsClient,
+                             @Qualifier("paymentConcurrencyLimiter") AdaptiveConcurrencyLimiter paymentConcurrencyLimiter,
+                             IdempotencyStore idempotencyStore) {
+        this.paymentService = paymentService;
+        this.tossPaymentsClient = tossPaymentsClient;
+        this.paymentConcurrencyLimiter = paymentConcurrencyLimiter;
+        this.idempotencyStore = idempotencyStore;
+    }
 
     @GetMapping("/payment/widget/{orderId}")
     public String getPaymentWidget(@PathVariable Long orderId, Model model) {
@@ -48,8 +67,16 @@ public class PaymentController {
 
     @ResponseBody
     @PostMapping("/api/payment/confirm")
-    public CommonResponse<PaymentResponse> confirmPayment(@RequestBody PaymentRequest request) {
-        return paymentService.confirmPayment(request);
+    public CommonResponse<PaymentResponse> confirmPayment(
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody PaymentRequest request) {
+        //같은 키의 재시도는 토스페이먼츠 승인 API를 다시 호출하지 않는다.
+        //키는 주문별로 나누고, 같은 키에 결제 내용이 다르면 거절한다. 승인 실패 응답은 저장하지 않는다.
+        String key = idempotencyKey == null ? null : request.getOrderId() + ":" + idempotencyKey;
+        String fingerprint = request.getOrderId() + ":" + request.getAmount() + ":" + request.getPaymentKey();
+        return idempotencyStore.execute("payment", key, fingerprint, PAYMENT_RESPONSE,
+                response -> SUCCESS_CODE.equals(response.getCode()),
+                () -> paymentConcurrencyLimiter.execute(() -> paymentService.confirmPayment(request)));
     }
 
     @GetMapping("/payment/success")
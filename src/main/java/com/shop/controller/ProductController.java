@@ -1,9 +1,12 @@
 package com.shop.controller;
 
 import com.shop.dto.request.ProductCreate;
+import com.shop.dto.request.ProductScrollSearch;
 import com.shop.dto.request.ProductSearch;
+import com.shop.dto.request.StockSplitRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.ProductResponse;
+import com.shop.dto.response.ProductSliceResponse;
 import com.shop.service.ProductService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +43,16 @@ public class ProductController {
         return productService.getList(request);
     }
 
+    @GetMapping("/product/scroll")
+    public CommonResponse<ProductSliceResponse> getSlice(@ModelAttribute ProductScrollSearch request) {
+        return productService.getSlice(request);
+    }
+
+    @PostMapping("/product/{productId}/stock/split")
+    public void splitStock(@PathVariable Long productId, @RequestBody @Validated StockSplitRequest request) {
+        productService.splitStock(productId, request.getShardCount());
+    }
+
     @DeleteMapping("/product/{productId}")
     public void delete(@PathVariable Long productId) {
         productService.delete(productId);
@@ -0,0 +1,31 @@
+package com.shop.controller;
+
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.WaitingRoomResponse;
+import com.shop.global.auth.Login;
+import com.shop.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/waiting-room")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @PostMapping("/{productId}")
+    public CommonResponse<WaitingRoomResponse> enter(@Login String email, @PathVariable Long productId) {
+        return waitingRoomService.enter(email, productId);
+    }
+
+    //대기 순번과 예상 대기 시간, 입장 여부 조회 (클라이언트 폴링용)
+    @GetMapping("/{productId}")
+    public CommonResponse<WaitingRoomResponse> getStatus(@Login String email, @PathVariable Long productId) {
+        return waitingRoomService.getStatus(email, productId);
+    }
+}
@@ -1,9 +1,5 @@
 package com.shop.domain.order;
 
-import static com.shop.domain.order.OrderStatus.CANCELED;
-import static com.shop.domain.order.OrderStatus.COMPLETED;
-import static com.shop.domain.order.OrderStatus.PAYMENT_PENDING;
-
 import com.shop.domain.member.Member;
 import com.shop.domain.payment.Payment;
 import com.shop.global.BaseTimeEntity;
@@ -16,29 +12,33 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.TreeMap;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_status_reserved_until",
+        columnList = "status, stock_reserved_until"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
@@ -67,6 +67,9 @@ public class Order extends BaseTimeEntity {
 
     private LocalDateTime orderDate;
 
+    //재고 선점 만료 시각, 그때까지 결제 승인이 시작되지 않으면 주문을 취소하고 재고를 돌려놓는다.
+    private LocalDateTime stockReservedUntil;
+
     private int totalAmount;
 
     private int totalQuantity;
@@ -85,8 +88,9 @@ public class Order extends BaseTimeEntity {
         this.totalQuantity = orderProducts.size();
     }
 
+    //시간 순 + 노드별로 겹치지 않는 번호
     private String generateOrderNumber() {
-        return "ORD-" + LocalDate.now() + "-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        return OrderNumberGenerator.getDefault().nextOrderNumber();
     }
 
     public void addOrderProduct(OrderProduct orderProduct) {
@@ -94,19 +98,21 @@ public class Order extends BaseTimeEntity {
         orderProduct.setOrder(this);
     }
 
-    public void cancel() {
-        this.status = OrderStatus.CANCELED;
-        orderProducts.forEach(OrderProduct::cancel);
+    //상품 ID 순서의 상품별 주문 수량 (재고 복구 시 행 잠금 순서를 맞춘다)
+    public Map<Long, Integer> getOrderedQuantities() {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        orderProducts.forEach(orderProduct ->
+                quantities.merge(orderProduct.getProduct().getId(), orderProduct.getQuantity(), Integer::sum));
+        return quantities;
     }
 
-    public void processPayment() {
-        this.status = PAYMENT_PENDING;
+    public void reserveStockUntil(LocalDateTime stockReservedUntil) {
+        this.stockReservedUntil = stockReservedUntil;
     }
 
+    //상태는 OrderRepository의 조건부 UPDATE로만 바꾼다. (연관관계만 설정)
     public void setPayment(Payment payment) {
         this.payment = payment;
-        this.status = COMPLETED;
-        this.paymentKey = payment.getPaymentKey();
     }
 
     //public String getOrderName() {
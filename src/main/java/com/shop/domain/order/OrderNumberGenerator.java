@@ -0,0 +1,81 @@
+package com.shop.domain.order;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 주문 번호 생성기 (Snowflake)
+ * 41비트 밀리초 타임스탬프 + 10비트 노드 ID + 12비트 시퀀스로 인스턴스 간 충돌 없이 시간 순으로 증가하는 번호를 만든다.
+ * 시계가 뒤로 가거나 같은 밀리초에 시퀀스를 다 쓰면 마지막 시각을 1ms 앞당겨 계속 증가시킨다.
+ * 노드 ID가 겹치면 같은 번호가 나오므로 애플리케이션은 order.node-id를 인스턴스마다 지정해야 시작한다. (OrderConfig)
+ * 스프링 밖(단위 테스트, 벤치마크)에서는 노드 0을 쓴다.
+ */
+public final class OrderNumberGenerator {
+
+    private static final long EPOCH = 1_735_657_200_000L;  //2025-01-01T00:00:00+09:00
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    //Crockford Base32, 사전 순 정렬이 생성 순서와 같다.
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final String PREFIX = "ORD-";
+    private static final int ENCODED_LENGTH = 13;
+
+    private static volatile OrderNumberGenerator defaultGenerator = new OrderNumberGenerator(0);
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public OrderNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("노드 ID는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public static OrderNumberGenerator getDefault() {
+        return defaultGenerator;
+    }
+
+    //애플리케이션 시작 시 설정된 노드 ID로 교체
+    public static void configure(int nodeId) {
+        defaultGenerator = new OrderNumberGenerator(nodeId);
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else {  //같은 밀리초 또는 시계 역행
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                lastTimestamp++;
+            }
+        }
+        return (lastTimestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    //ORD- + 13자리 Base32 (고정 길이)
+    public static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,7 +22,8 @@ import lombok.Setter;
 public class OrderProduct extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_product_seq")
+    @SequenceGenerator(name = "order_product_seq", sequenceName = "order_product_seq", allocationSize = 50)
     @Column(name = "orderProduct_id")
     private Long id;
 
@@ -43,10 +45,6 @@ public class OrderProduct extends BaseTimeEntity {
         this.quantity = quantity;
     }
 
-    public void cancel() {
-        getProduct().addStock(quantity);
-    }
-
     public int getTotalPrice() {
         return getOrderPrice() * getQuantity();
     }
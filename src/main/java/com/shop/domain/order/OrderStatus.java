@@ -1,5 +1,7 @@
 package com.shop.domain.order;
 
+import java.util.List;
+
 public enum OrderStatus {
 
     NEW,
@@ -7,4 +9,9 @@ public enum OrderStatus {
     COMPLETED,
     FAILED,
     CANCELED,
+    ;
+
+    //상태 전이의 출발 상태 (UPDATE ... WHERE status IN (...) 조건)
+    public static final List<OrderStatus> UNPAID = List.of(NEW, PAYMENT_PENDING);
+    public static final List<OrderStatus> CANCELABLE = List.of(NEW, PAYMENT_PENDING, COMPLETED);
 }
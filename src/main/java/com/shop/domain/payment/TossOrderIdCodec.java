@@ -0,0 +1,105 @@
+package com.shop.domain.payment;
+
+import java.util.Arrays;
+
+/**
+ * 토스페이먼츠 orderId 변환
+ * 주문 ID(10진수 문자열)를 Base64로 인코딩하고, 6자 미만이면 앞을 '-'로 채운다. (토스 orderId 최소 길이)
+ * 디코딩은 정규식, 중간 배열, 문자열 생성 없이 한 번 순회로 주문 ID를 계산한다.
+ */
+public final class TossOrderIdCodec {
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final byte[] DECODE_TABLE = new byte[128];
+    private static final int MIN_LENGTH = 6;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private TossOrderIdCodec() {
+    }
+
+    public static String encode(long orderId) {
+        if (orderId < 0) {
+            throw new IllegalArgumentException("주문 ID는 음수일 수 없습니다: " + orderId);
+        }
+        int digitCount = digitCount(orderId);
+        int encodedLength = (digitCount + 2) / 3 * 4;
+        int padding = Math.max(0, MIN_LENGTH - encodedLength);
+        char[] chars = new char[padding + encodedLength];
+        Arrays.fill(chars, 0, padding, '-');
+
+        int position = padding;
+        for (int i = 0; i < digitCount; i += 3) {
+            int remaining = digitCount - i;
+            int b0 = digitAt(orderId, digitCount, i);
+            int b1 = remaining > 1 ? digitAt(orderId, digitCount, i + 1) : 0;
+            int b2 = remaining > 2 ? digitAt(orderId, digitCount, i + 2) : 0;
+            int group = (b0 << 16) | (b1 << 8) | b2;
+            chars[position++] = ALPHABET[(group >>> 18) & 63];
+            chars[position++] = ALPHABET[(group >>> 12) & 63];
+            chars[position++] = remaining > 1 ? ALPHABET[(group >>> 6) & 63] : '=';
+            chars[position++] = remaining > 2 ? ALPHABET[group & 63] : '=';
+        }
+        return new String(chars);
+    }
+
+    public static long decode(CharSequence tossOrderId) {
+        long orderId = 0;
+        int buffer = 0;
+        int bits = 0;
+        int digits = 0;
+        for (int i = 0; i < tossOrderId.length(); i++) {
+            char c = tossOrderId.charAt(i);
+            if (c == '-') {  //길이 맞춤용 패딩
+                continue;
+            }
+            if (c == '=') {
+                break;
+            }
+            int value = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("잘못된 주문 번호입니다: " + tossOrderId);
+            }
+
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                int digit = ((buffer >>> bits) & 0xFF) - '0';
+                if (digit < 0 || digit > 9 || orderId > (Long.MAX_VALUE - digit) / 10) {
+                    throw new IllegalArgumentException("잘못된 주문 번호입니다: " + tossOrderId);
+                }
+                orderId = orderId * 10 + digit;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("잘못된 주문 번호입니다: " + tossOrderId);
+        }
+        return orderId;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (count < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    //index번째 자리 숫자의 ASCII 코드
+    private static int digitAt(long value, int digitCount, int index) {
+        return (int) (value / POWERS_OF_TEN[digitCount - 1 - index] % 10) + '0';
+    }
+}
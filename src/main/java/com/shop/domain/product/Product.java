@@ -10,10 +10,12 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
@@ -21,7 +23,8 @@ import lombok.NoArgsConstructor;
 public class Product extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     @Column(name = "product_id")
     private Long id;
 
@@ -36,6 +39,19 @@ public class Product extends BaseTimeEntity {
     @Enumerated(EnumType.STRING)
     private ProductSellStatus sellStatus;
 
+    //재고가 바뀔 때마다 증가 (낙관적 재고 갱신에서 비교)
+    @ColumnDefault("0")
+    private long version;
+
+    //0이면 단일 행 재고, 1 이상이면 재고를 ProductStockShard 행들로 분할
+    @ColumnDefault("0")
+    private int stockShardCount;
+
+    //마지막으로 재고를 쓴 락 보유자의 펜싱 토큰, 엔티티 갱신으로 덮어쓰지 않고 조건부 UPDATE로만 올린다.
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private long fencingToken;
+
     @Builder
     public Product(String name, int price, int stockQuantity, String description, ProductSellStatus sellStatus) {
         this.name = name;
@@ -53,8 +69,28 @@ public class Product extends BaseTimeEntity {
         this.sellStatus = ProductSellStatus.SELL;
     }
 
+    public boolean isSplitInventory() {
+        return stockShardCount > 0;
+    }
+
+    //분할 재고로 전환, 상품 행의 재고는 샤드로 옮겨진다.
+    public void splitInventory(int shardCount) {
+        this.stockShardCount = shardCount;
+        this.stockQuantity = 0;
+        this.version++;
+    }
+
+    //단일 행 재고로 복귀
+    public void mergeInventory(int shardStock) {
+        this.stockShardCount = 0;
+        this.stockQuantity += shardStock;
+        this.version++;
+    }
+
+    //분할 재고 상품은 상품 행이 반품/취소 재고를 받는 보조 샤드 역할을 한다.
     public void addStock(int quantity) {
         this.stockQuantity += quantity;
+        this.version++;
     }
 
     public void removeStock(int quantity) {
@@ -63,5 +99,6 @@ public class Product extends BaseTimeEntity {
             throw new NotEnoughStock();
         }
         this.stockQuantity = restStock;
+        this.version++;
     }
 }
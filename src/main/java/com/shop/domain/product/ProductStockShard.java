@@ -0,0 +1,50 @@
+package com.shop.domain.product;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 분할 재고
+ * 주문이 몰리는 상품의 재고를 여러 행으로 나눠 한 행에 갱신이 집중되지 않도록 한다.
+ */
+@Entity
+@Getter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_product_stock_shard", columnNames = {"product_id", "shard_no"}))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductStockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_stock_shard_seq")
+    @SequenceGenerator(name = "product_stock_shard_seq", sequenceName = "product_stock_shard_seq", allocationSize = 50)
+    @Column(name = "product_stock_shard_id")
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    private int stockQuantity;
+
+    public ProductStockShard(Long productId, int shardNo, int stockQuantity) {
+        this.productId = productId;
+        this.shardNo = shardNo;
+        this.stockQuantity = stockQuantity;
+    }
+
+    public int take(int quantity) {
+        int taken = Math.min(stockQuantity, quantity);
+        this.stockQuantity -= taken;
+        return taken;
+    }
+}
@@ -0,0 +1,31 @@
+package com.shop.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOrderRequest {
+
+    @Valid
+    @NotEmpty(message = "주문할 상품을 1개 이상 담아주세요.")
+    private List<OrderCreateRequest> items;
+
+    //같은 상품이 여러 줄이면 수량을 합친다.
+    public Map<Long, Integer> getQuantitiesByProduct() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        items.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return quantities;
+    }
+}
@@ -0,0 +1,11 @@
+package com.shop.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PaymentCancelRequest {
+
+    private final String cancelReason;
+}
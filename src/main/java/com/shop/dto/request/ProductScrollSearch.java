@@ -0,0 +1,51 @@
+package com.shop.dto.request;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.shop.exception.InvalidCursor;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 커서 기반 상품 목록 조회
+ * after는 이전 응답의 nextCursor를 그대로 넘긴다. (마지막 상품 ID를 인코딩한 값, 첫 페이지는 생략)
+ */
+@Getter
+@Setter
+public class ProductScrollSearch {
+
+    private static final int MAX_SIZE = 2_000;
+    private static final String CURSOR_PREFIX = "p:";
+
+    private String query = "";
+    private String after;
+    private Integer size = 10;
+
+    public int getLimit() {
+        return max(1, min(size, MAX_SIZE));
+    }
+
+    //이 ID보다 작은 상품부터 조회, null이면 처음부터
+    public Long getAfterId() {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursor();
+            }
+            return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {  //Base64/숫자 형식 오류
+            throw new InvalidCursor();
+        }
+    }
+
+    public static String encodeCursor(Long productId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + productId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package com.shop.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSplitRequest {
+
+    //0이면 분할 해제
+    @Min(value = 0, message = "샤드 수는 0 이상이어야 합니다.")
+    @Max(value = 64, message = "샤드 수는 64 이하여야 합니다.")
+    private int shardCount;
+}
@@ -1,5 +1,7 @@
 package com.shop.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 
 @Getter
@@ -9,7 +11,10 @@ public class CommonResponse<T> {
     private final String message;
     private final T body;
 
-    public CommonResponse(String code, String message, T body) {
+    @JsonCreator
+    public CommonResponse(@JsonProperty("code") String code,
+                          @JsonProperty("message") String message,
+                          @JsonProperty("body") T body) {
         this.code = code;
         this.message = message;
         this.body = body;
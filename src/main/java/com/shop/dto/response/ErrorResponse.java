@@ -27,6 +27,12 @@ public class ErrorResponse {
         this.message = errorCode.getMessage();
     }
 
+    public ErrorResponse(ErrorCode errorCode, ObjectNode validation) {
+        this.code = errorCode.getCode();
+        this.message = errorCode.getMessage();
+        this.body.setAll(validation);
+    }
+
     public ErrorResponse(String code, String message) {
         this.code = code;
         this.message = message;
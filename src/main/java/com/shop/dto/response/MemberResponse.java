@@ -10,6 +10,12 @@ public class MemberResponse {
     private final String email;
     private final String name;
 
+    //목록 조회 프로젝션
+    public MemberResponse(String email, String name) {
+        this.email = email;
+        this.name = name;
+    }
+
     @JsonCreator
     public MemberResponse(Member member) {
         this.email = member.getEmail();
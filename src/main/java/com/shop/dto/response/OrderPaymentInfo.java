@@ -2,12 +2,14 @@ package com.shop.dto.response;
 
 import com.shop.domain.member.Member;
 import com.shop.domain.order.Order;
+import com.shop.domain.payment.TossOrderIdCodec;
 import lombok.Getter;
 
 @Getter
 public class OrderPaymentInfo {
 
     private final String orderId;
+    private final String tossOrderId;  //결제 위젯에 전달할 orderId
     private final String orderName;
     private final Integer totalAmount;
     private final String customerEmail;
@@ -15,6 +17,7 @@ public class OrderPaymentInfo {
 
     public OrderPaymentInfo(Order order, Member member) {
         this.orderId = String.valueOf(order.getId());
+        this.tossOrderId = TossOrderIdCodec.encode(order.getId());
         this.orderName = order.getOrderName();
         this.totalAmount = order.getTotalAmount();
         this.customerEmail = member.getEmail();
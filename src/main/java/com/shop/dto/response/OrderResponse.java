@@ -4,9 +4,11 @@ import com.shop.domain.order.OrderStatus;
 import java.time.LocalDateTime;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 @Getter
 @Builder
+@Jacksonized  //멱등성 저장소에서 역직렬화
 public class OrderResponse {
 
     private Long orderId;
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.shop.domain.payment.Payment;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import lombok.Getter;
 
 @Getter
@@ -39,7 +40,7 @@ public class PaymentResponse {
         this.method = method;
         this.totalAmount = totalAmount;
         this.status = status;
-        this.requestedAt = parse(requestedAt, ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX"));
+        this.requestedAt = parseRequestedAt(requestedAt);
     }
 
     public PaymentResponse(Payment payment) {
@@ -52,4 +53,11 @@ public class PaymentResponse {
         this.requestedAt = payment.getRequestedAt();
     }
 
+    private static LocalDateTime parseRequestedAt(String requestedAt) {
+        try {
+            return parse(requestedAt, ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX"));
+        } catch (DateTimeParseException e) {  //직접 직렬화한 값 (오프셋 없음)
+            return parse(requestedAt);
+        }
+    }
 }
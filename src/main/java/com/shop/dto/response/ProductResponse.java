@@ -29,10 +29,14 @@ public class ProductResponse {
     }
 
     public ProductResponse(Product product) {
+        this(product, product.getStockQuantity());
+    }
+
+    public ProductResponse(Product product, int stockQuantity) {
         this.productId = product.getId();
         this.name = product.getName();
         this.price = product.getPrice();
-        this.stockQuantity = product.getStockQuantity();
+        this.stockQuantity = stockQuantity;
         this.description = product.getDescription();
         this.sellStatus = product.getSellStatus();
     }
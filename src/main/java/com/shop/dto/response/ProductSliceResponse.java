@@ -0,0 +1,22 @@
+package com.shop.dto.response;
+
+import com.shop.dto.request.ProductScrollSearch;
+import java.util.List;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+@Getter
+public class ProductSliceResponse {
+
+    private final List<ProductResponse> content;
+    private final boolean hasNext;
+    private final String nextCursor;  //다음 요청의 after, 마지막 페이지면 null
+
+    public ProductSliceResponse(Slice<ProductResponse> slice) {
+        this.content = slice.getContent();
+        this.hasNext = slice.hasNext();
+        this.nextCursor = hasNext
+                ? ProductScrollSearch.encodeCursor(content.get(content.size() - 1).getProductId())
+                : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.shop.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class WaitingRoomResponse {
+
+    private Long productId;
+    private Status status;
+    private boolean admitted;  //입장권 보유 여부
+    private long position;  //대기 순번 (1부터), 대기 중이 아니면 0
+    private long etaSeconds;  //예상 대기 시간
+    private long admissionExpiresInMs;  //입장권 남은 유효 시간
+
+    public enum Status {
+
+        ADMITTED,  //입장권 보유, 주문 가능
+        WAITING,  //대기 중
+        NOT_QUEUED,  //대기열에 없음 (입장하지 않았거나 입장권 만료), 다시 입장해야 한다.
+    }
+}
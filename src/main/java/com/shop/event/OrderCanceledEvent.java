@@ -0,0 +1,17 @@
+package com.shop.event;
+
+import com.shop.domain.order.Order;
+import java.util.Map;
+import lombok.Getter;
+
+@Getter
+public class OrderCanceledEvent {
+
+    private final Long orderId;
+    private final Map<Long, Integer> canceledQuantities;  //상품 ID -> 복구된 수량
+
+    public OrderCanceledEvent(Order order) {
+        this.orderId = order.getId();
+        this.canceledQuantities = order.getOrderedQuantities();
+    }
+}
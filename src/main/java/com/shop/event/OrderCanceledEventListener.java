@@ -0,0 +1,34 @@
+package com.shop.event;
+
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import com.shop.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class OrderCanceledEventListener {
+
+    private final OrderProperties orderProperties;
+    private final StockReservationService stockReservationService;
+
+    //DB 재고 복구가 커밋된 뒤 Redis 재고 카운터에도 반영
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleOrderCanceledEvent(OrderCanceledEvent event) {
+        if (orderProperties.getStockMode() != StockMode.REDIS_RESERVATION) {
+            return;
+        }
+        event.getCanceledQuantities().forEach(stockReservationService::restore);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleReservationExpiredEvent(ReservationExpiredEvent event) {
+        if (orderProperties.getStockMode() != StockMode.REDIS_RESERVATION) {
+            return;
+        }
+        event.getRestoredQuantities().forEach(stockReservationService::restore);
+    }
+}
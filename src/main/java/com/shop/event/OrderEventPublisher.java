@@ -1,6 +1,8 @@
 package com.shop.event;
 
 import com.shop.domain.order.Order;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
@@ -11,7 +13,19 @@ public class OrderEventPublisher {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    public void publishOrderPlaced(Order order) {
+        eventPublisher.publishEvent(new OrderPlacedEvent(order));
+    }
+
     public void publishOrderCompleted(Order order) {
         eventPublisher.publishEvent(new OrderCompletedEvent(order.getMember(), order));
     }
+
+    public void publishOrderCanceled(Order order) {
+        eventPublisher.publishEvent(new OrderCanceledEvent(order));
+    }
+
+    public void publishReservationExpired(List<Long> orderIds, Map<Long, Integer> restoredQuantities) {
+        eventPublisher.publishEvent(new ReservationExpiredEvent(orderIds, restoredQuantities));
+    }
 }
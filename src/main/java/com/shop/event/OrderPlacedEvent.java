@@ -0,0 +1,17 @@
+package com.shop.event;
+
+import com.shop.domain.order.Order;
+import java.util.Map;
+import lombok.Getter;
+
+@Getter
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+    private final Map<Long, Integer> orderedQuantities;  //상품 ID -> 차감된 수량
+
+    public OrderPlacedEvent(Order order) {
+        this.orderId = order.getId();
+        this.orderedQuantities = order.getOrderedQuantities();
+    }
+}
@@ -0,0 +1,30 @@
+package com.shop.event;
+
+import com.shop.service.ProductStockCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductStockEventListener {
+
+    private final ProductStockCache productStockCache;
+
+    //커밋된 재고 차감/복구를 상품 상세의 재고 캐시에 반영 (롤백된 주문은 반영하지 않는다)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleOrderPlacedEvent(OrderPlacedEvent event) {
+        event.getOrderedQuantities().forEach((productId, quantity) -> productStockCache.adjust(productId, -quantity));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleOrderCanceledEvent(OrderCanceledEvent event) {
+        event.getCanceledQuantities().forEach(productStockCache::adjust);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleReservationExpiredEvent(ReservationExpiredEvent event) {
+        event.getRestoredQuantities().forEach(productStockCache::adjust);
+    }
+}
@@ -0,0 +1,14 @@
+package com.shop.event;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ReservationExpiredEvent {
+
+    private final List<Long> orderIds;
+    private final Map<Long, Integer> restoredQuantities;  //상품 ID -> 복구된 수량
+}
@@ -0,0 +1,10 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.ADMISSION_REQUIRED;
+
+public class AdmissionRequired extends CustomException {
+
+    public AdmissionRequired() {
+        super(ADMISSION_REQUIRED);
+    }
+}
@@ -14,4 +14,8 @@ public abstract class CustomException extends RuntimeException {
         super();
         this.errorCode = errorCode;
     }
+
+    public void addValidation(String fieldName, String message) {
+        validation.put(fieldName, message);
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ public enum ErrorCode {
 
     FORBIDDEN("403", "접근 권한이 없습니다"),
     BAD_REQUEST("400", "잘못된 요청입니다."),
+    INVALID_CURSOR("400", "잘못된 페이지 커서입니다."),
     EMAIL_ALREADY_EXISTS("409", "이미 가입된 이메일입니다."),
     PRODUCT_ALREADY_EXISTS("409", "이미 등록된 상품입니다."),
     EMAIL_SEND_FAILURE("500", "이메일 전송에 실패했습니다."),
@@ -20,7 +21,12 @@ public enum ErrorCode {
     UNAUTHORIZED("401", "로그인 해주세요."),
     NOT_ENOUGH_STOCK("409", "재고가 부족합니다."),
     ORDER_LOCK_FAILED("503", "상품 주문이 지연되고 있습니다. 잠시 후 다시 시도해주세요."),
+    STALE_FENCING_TOKEN("503", "상품 주문이 지연되고 있습니다. 잠시 후 다시 시도해주세요."),
     ORDER_ERROR("500", "주문 과정에서 오류가 발생했습니다."),
+    ORDER_STATUS_CONFLICT("409", "이미 처리된 주문입니다."),
+    IDEMPOTENCY_CONFLICT("409", "같은 요청이 처리 중입니다. 잠시 후 다시 시도해주세요."),
+    TOO_MANY_REQUESTS("429", "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."),
+    ADMISSION_REQUIRED("403", "대기열 입장 순서가 아닙니다. 잠시 후 다시 시도해주세요."),
     PRODUCT_NOT_FOUND("404", "존재하지 않는 상품입니다.");
 
     private final String code;
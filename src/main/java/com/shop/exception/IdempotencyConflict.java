@@ -0,0 +1,10 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.IDEMPOTENCY_CONFLICT;
+
+public class IdempotencyConflict extends CustomException {
+
+    public IdempotencyConflict() {
+        super(IDEMPOTENCY_CONFLICT);
+    }
+}
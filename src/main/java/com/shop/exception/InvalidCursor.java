@@ -0,0 +1,10 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.INVALID_CURSOR;
+
+public class InvalidCursor extends CustomException {
+
+    public InvalidCursor() {
+        super(INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,10 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.ORDER_STATUS_CONFLICT;
+
+public class OrderStatusConflict extends CustomException {
+
+    public OrderStatusConflict() {
+        super(ORDER_STATUS_CONFLICT);
+    }
+}
@@ -0,0 +1,10 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.STALE_FENCING_TOKEN;
+
+public class StaleFencingToken extends CustomException {
+
+    public StaleFencingToken() {
+        super(STALE_FENCING_TOKEN);
+    }
+}
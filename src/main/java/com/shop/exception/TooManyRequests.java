@@ -0,0 +1,16 @@
+package com.shop.exception;
+
+import static com.shop.exception.ErrorCode.TOO_MANY_REQUESTS;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequests extends CustomException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequests(long retryAfterSeconds) {
+        super(TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.shop.facade;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ConditionalUpdateStockStrategy implements StockStrategy {
+
+    private final OrderService orderService;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.CONDITIONAL_UPDATE;
+    }
+
+    //분산락 없이 DB의 조건부 UPDATE 한 번으로 재고 차감
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        return orderService.orderWithConditionalUpdate(email, request);
+    }
+
+    //상품 ID 순서로 조건부 UPDATE, 부족한 줄이 있으면 전체 롤백
+    @Override
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        return orderService.orderCart(email, request);
+    }
+}
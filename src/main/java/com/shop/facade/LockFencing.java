@@ -0,0 +1,164 @@
+package com.shop.facade;
+
+import com.shop.exception.StaleFencingToken;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 펜싱 토큰
+ * 상품 락을 얻을 때마다 Redis INCR로 단조 증가 토큰을 발급한다. 재고 쓰기는 상품 행에 기록된 토큰보다 큰 토큰만 허용되므로,
+ * GC 중단이나 느린 커밋으로 임대시간을 넘긴 보유자의 늦은 쓰기는 다음 보유자 이후에 거부된다.
+ * 카운터는 인스턴스에서 처음 쓸 때 상품 행의 토큰 이상으로 올리고(max(DB, Redis)), 쓰기가 거부됐는데 카운터가 DB 토큰보다
+ * 뒤처져 있으면(Redis 데이터 유실) 카운터를 DB 토큰으로 옮기고 한 번 다시 실행한다. 카운터가 앞서 있으면 실제로 늦은 쓰기다.
+ * 락 대기/보유 시간과 임대 만료 근접/초과 횟수를 기록해 대기 기한과 임대시간을 실측으로 정할 수 있게 한다.
+ */
+@Component
+public class LockFencing {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private static final String TOKEN_KEY_PREFIX = "fence:product:";
+
+    private final RedissonClient redissonClient;
+    private final ProductRepository productRepository;
+    private final OrderProperties.Lock properties;
+    private final Set<Long> seededProductIds = ConcurrentHashMap.newKeySet();
+
+    private final Timer acquiredWaitTimer;
+    private final Timer failedWaitTimer;
+    private final Counter lockFailedCounter;
+    private final Timer holdTimer;
+    private final Counter nearMissCounter;
+    private final Counter expiredCounter;
+
+    public LockFencing(RedissonClient redissonClient, ProductRepository productRepository,
+                       OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.productRepository = productRepository;
+        this.properties = orderProperties.getLock();
+
+        this.acquiredWaitTimer = Timer.builder("order.lock.wait")
+                .description("락 요청부터 획득/포기까지 걸린 시간")
+                .tag("result", "acquired")
+                .register(meterRegistry);
+        this.failedWaitTimer = Timer.builder("order.lock.wait")
+                .description("락 요청부터 획득/포기까지 걸린 시간")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.lockFailedCounter = Counter.builder("order.lock.failed")
+                .description("락을 얻지 못해 거절한 요청 수")
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("order.lock.hold")
+                .description("락 획득부터 작업 종료까지 걸린 시간")
+                .register(meterRegistry);
+        this.nearMissCounter = Counter.builder("order.lock.lease.near-miss")
+                .description("임대시간 만료 직전에 끝난 락 구간 수")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("order.lock.lease.expired")
+                .description("임대시간을 넘긴 락 구간 수")
+                .register(meterRegistry);
+    }
+
+    //락을 얻은 뒤에 호출해야 발급 순서가 락 획득 순서와 같다.
+    public long nextToken(Long productId) {
+        RAtomicLong counter = counter(productId);
+        if (!seededProductIds.contains(productId)) {
+            advancePastStoredToken(productId, counter);
+            seededProductIds.add(productId);
+        }
+        return counter.incrementAndGet();
+    }
+
+    //토큰을 발급받아 작업 실행, Redis 카운터 유실로 거부되면 카운터를 복구하고 한 번 다시 실행
+    public <T> T withToken(Long productId, LongFunction<T> task) {
+        try {
+            return task.apply(nextToken(productId));
+        } catch (StaleFencingToken e) {
+            if (!advancePastStoredToken(productId, counter(productId))) {
+                throw e;
+            }
+            return task.apply(nextToken(productId));
+        }
+    }
+
+    public <T> T withTokens(Collection<Long> productIds, Function<Map<Long, Long>, T> task) {
+        try {
+            return task.apply(nextTokens(productIds));
+        } catch (StaleFencingToken e) {
+            boolean recovered = false;
+            for (Long productId : productIds) {
+                recovered |= advancePastStoredToken(productId, counter(productId));
+            }
+            if (!recovered) {
+                throw e;
+            }
+            return task.apply(nextTokens(productIds));
+        }
+    }
+
+    //여러 상품 락은 상품 ID 순서로 발급
+    public Map<Long, Long> nextTokens(Collection<Long> productIds) {
+        Map<Long, Long> tokens = new TreeMap<>();
+        productIds.stream()
+                .sorted()
+                .forEach(productId -> tokens.put(productId, nextToken(productId)));
+        return tokens;
+    }
+
+    /**
+     * 카운터를 상품 행에 기록된 토큰까지 올린다. (max(DB, Redis), 동시에 올려도 CAS로 줄어들지 않는다)
+     * @return 카운터가 뒤처져 있어 옮겼는지
+     */
+    private boolean advancePastStoredToken(Long productId, RAtomicLong counter) {
+        long storedToken = productRepository.findFencingToken(productId).orElse(0L);
+        long current = counter.get();
+        while (current < storedToken) {
+            if (counter.compareAndSet(current, storedToken)) {
+                orderLogger.warn("펜싱 토큰 카운터 복구 productId={}, {} -> {}", productId, current, storedToken);
+                return true;
+            }
+            current = counter.get();
+        }
+        return false;
+    }
+
+    private RAtomicLong counter(Long productId) {
+        return redissonClient.getAtomicLong(TOKEN_KEY_PREFIX + productId);
+    }
+
+    public void recordWait(boolean acquired, long waitedNanos) {
+        (acquired ? acquiredWaitTimer : failedWaitTimer).record(waitedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockFailed() {
+        lockFailedCounter.increment();
+    }
+
+    public void recordHold(String name, long heldNanos) {
+        holdTimer.record(heldNanos, TimeUnit.NANOSECONDS);
+
+        long leaseNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLeaseMs());
+        if (heldNanos >= leaseNanos) {
+            expiredCounter.increment();
+            orderLogger.warn("락 임대시간 초과 key={}, held={}ms", name, TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        } else if (heldNanos >= leaseNanos * properties.getNearMissRatio()) {
+            nearMissCounter.increment();
+        }
+    }
+}
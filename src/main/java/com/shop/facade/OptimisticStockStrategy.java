@@ -0,0 +1,55 @@
+package com.shop.facade;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.OrderError;
+import com.shop.exception.OrderLockFailed;
+import com.shop.service.OrderService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OptimisticStockStrategy implements StockStrategy {
+
+    private final OrderService orderService;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.OPTIMISTIC;
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        return retryOnConflict(() -> orderService.orderWithOptimisticLock(email, request));
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        return retryOnConflict(() -> orderService.orderCartWithOptimisticLock(email, request));
+    }
+
+    private CommonResponse<OrderResponse> retryOnConflict(Supplier<CommonResponse<OrderResponse>> order) {
+        int maxAttempts = 30;                 //최대 재시도 횟수
+        long maxBackoffMs = 20;               //충돌 시 재시도 간격 상한 (jitter)
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return order.get();
+            } catch (ObjectOptimisticLockingFailureException e) {  //버전 충돌 -> 재시도
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(1, maxBackoffMs));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new OrderError();
+                }
+            }
+        }
+
+        throw new OrderLockFailed();
+    }
+}
@@ -0,0 +1,218 @@
+package com.shop.facade;
+
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.OrderError;
+import com.shop.exception.OrderLockFailed;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.config.OrderProperties.Combining;
+import com.shop.service.OrderService;
+import com.shop.service.dto.BatchOrder;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flat Combining
+ * 같은 상품에 대한 동시 주문을 짧은 시간 동안 모아 락 획득, 재고 차감, 커밋을 한 번만 수행한다.
+ * 제한 시간 안에 처리가 시작되지 않은 요청은 배치에서 빼고 실패로 응답한다.
+ * 락을 얻어 처리가 시작된 요청은 제한 시간이 지나도 결과(성공/재고 부족)를 그대로 돌려준다.
+ */
+@Component
+public class OrderCombiner implements StockStrategy {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private final RedissonClient redissonClient;
+    private final OrderService orderService;
+    private final Combining properties;
+    private final long leaseMs;
+    private final LockFencing lockFencing;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-combiner-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentHashMap<Long, Batch> batches = new ConcurrentHashMap<>();
+
+    public OrderCombiner(RedissonClient redissonClient,
+                         OrderService orderService,
+                         OrderProperties orderProperties,
+                         @Qualifier("orderCombinerExecutor") Executor executor,
+                         LockFencing lockFencing) {
+        this.redissonClient = redissonClient;
+        this.orderService = orderService;
+        this.properties = orderProperties.getCombining();
+        this.leaseMs = orderProperties.getLock().getLeaseMs();
+        this.lockFencing = lockFencing;
+        this.executor = executor;
+    }
+
+    @Override
+    public StockMode mode() {
+        return StockMode.COMBINING;
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        return await(orderAsync(email, request));
+    }
+
+    @Override
+    public CompletableFuture<CommonResponse<OrderResponse>> orderAsync(String email, OrderCreateRequest request) {
+        Long productId = request.getProductId();
+        PendingOrder pending = new PendingOrder(new BatchOrder(email, request.getQuantity()));
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            if (pending.withdraw()) {
+                pending.result.completeExceptionally(new OrderLockFailed());
+            }
+        }, properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        pending.result.whenComplete((response, error) -> timeout.cancel(false));
+
+        boolean[] full = new boolean[1];
+        Batch[] target = new Batch[1];
+        batches.compute(productId, (id, batch) -> {
+            if (batch == null) {
+                batch = new Batch();
+                Batch created = batch;
+                scheduler.schedule(() -> flush(productId, created), properties.getWindowMs(), TimeUnit.MILLISECONDS);
+            }
+            batch.pendingOrders.add(pending);
+            target[0] = batch;
+            full[0] = batch.pendingOrders.size() >= properties.getMaxBatchSize();
+            return full[0] ? null : batch;  //가득 찬 배치는 더 이상 받지 않는다.
+        });
+        if (full[0]) {
+            flush(productId, target[0]);
+        }
+
+        return pending.result;
+    }
+
+    private void flush(Long productId, Batch batch) {
+        batches.remove(productId, batch);
+        if (!batch.flushed.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> process(productId, batch.pendingOrders));
+    }
+
+    private void process(Long productId, List<PendingOrder> pendingOrders) {
+        String name = "lock:product:" + productId;
+        RLock lock = redissonClient.getFairLock(name);
+        boolean locked = false;
+        long acquiredAt = 0;
+        try {
+            long requestedAt = System.nanoTime();
+            locked = lock.tryLock(properties.getLockWaitMs(), leaseMs, TimeUnit.MILLISECONDS);
+            lockFencing.recordWait(locked, System.nanoTime() - requestedAt);
+            if (!locked) {
+                lockFencing.recordLockFailed();
+                pendingOrders.forEach(pending -> pending.result.completeExceptionally(new OrderLockFailed()));
+                return;
+            }
+            acquiredAt = System.nanoTime();
+
+            //락 대기 중 제한 시간이 지난 요청은 이미 실패로 응답했으므로 주문하지 않는다.
+            List<PendingOrder> claimed = pendingOrders.stream()
+                    .filter(PendingOrder::claim)
+                    .toList();
+            if (claimed.isEmpty()) {
+                return;
+            }
+            List<BatchOrder> batchOrders = claimed.stream()
+                    .map(PendingOrder::batchOrder)
+                    .toList();
+            lockFencing.withToken(productId, fencingToken -> {
+                orderService.orderBatch(productId, batchOrders, fencingToken);
+                return null;
+            });
+
+            for (PendingOrder pending : claimed) {
+                BatchOrder batchOrder = pending.batchOrder();
+                if (batchOrder.isFailed()) {
+                    pending.result.completeExceptionally(batchOrder.getFailure());
+                } else {
+                    pending.result.complete(batchOrder.getResponse());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingOrders.forEach(pending -> pending.result.completeExceptionally(new OrderError()));
+        } catch (RuntimeException e) {  //트랜잭션 전체 실패 -> 모든 요청 실패
+            orderLogger.error("일괄 주문 실패 productId={}, msg={}", productId, e.getMessage());
+            pendingOrders.forEach(pending -> pending.result.completeExceptionally(e));
+        } finally {
+            if (locked) {
+                lockFencing.recordHold(name, System.nanoTime() - acquiredAt);
+            }
+            if (locked && lock.isHeldByCurrentThread()) {
+                try {
+                    lock.unlock();
+                } catch (IllegalMonitorStateException ignore) {
+                }
+            }
+        }
+    }
+
+    //제한 시간은 배치에서 빼는 예약 작업이 처리한다. (처리가 시작된 요청은 결과가 나올 때까지 기다린다)
+    private CommonResponse<OrderResponse> await(CompletableFuture<CommonResponse<OrderResponse>> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new OrderError();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderError();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private record PendingOrder(BatchOrder batchOrder,
+                                CompletableFuture<CommonResponse<OrderResponse>> result,
+                                AtomicBoolean decided) {
+
+        PendingOrder(BatchOrder batchOrder) {
+            this(batchOrder, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        //처리와 제한 시간 중 먼저 온 쪽만 요청을 가져간다.
+        boolean claim() {
+            return decided.compareAndSet(false, true);
+        }
+
+        boolean withdraw() {
+            return decided.compareAndSet(false, true);
+        }
+    }
+
+    private static class Batch {
+
+        private final List<PendingOrder> pendingOrders = new ArrayList<>();
+        private final AtomicBoolean flushed = new AtomicBoolean();
+    }
+}
@@ -1,55 +1,151 @@
 package com.shop.facade;
 
+import com.shop.dto.request.CartOrderRequest;
 import com.shop.dto.request.OrderCreateRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.OrderResponse;
-import com.shop.exception.OrderError;
+import com.shop.exception.NotEnoughStock;
 import com.shop.exception.OrderLockFailed;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.redis.RedisHealthMonitor;
 import com.shop.service.OrderService;
-import java.util.concurrent.TimeUnit;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class OrderFacade {
 
+    private final Map<StockMode, StockStrategy> strategies = new EnumMap<>(StockMode.class);
+    private final OrderProperties orderProperties;
     private final RedissonClient redissonClient;
+    private final OrderLockQueue orderLockQueue;
+    private final LockFencing lockFencing;
     private final OrderService orderService;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final MeterRegistry meterRegistry;
 
-    public CommonResponse<OrderResponse> orderWithRedisson(String email, OrderCreateRequest request) {
-        String key = "lock:product:" + request.getProductId();
-        RLock lock = redissonClient.getLock(key);
-
-        int maxAttempts = 50;                 //최대 재시도 횟수
-        long backoffMs = 50;                  //재시도 간격
-        long waitMsPerTry = 500;              //tryLock 대기
-        long leaseMs = 5_000;                 //락 임대시간
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            boolean locked = false;
-            try {
-                locked = lock.tryLock(waitMsPerTry, leaseMs, TimeUnit.MILLISECONDS);
-                if (!locked) {
-                    Thread.sleep(backoffMs);
-                    continue;  //재시도
-                }
-                //락 구간 (DB 트랜잭션 내부 로직만)
-                return orderService.order(email, request);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new OrderError();
-            } finally {
-                if (locked && lock.isHeldByCurrentThread()) {
-                    try {
-                        lock.unlock();
-                    } catch (IllegalMonitorStateException ignore) {
+    public OrderFacade(List<StockStrategy> strategies,
+                       OrderProperties orderProperties,
+                       RedissonClient redissonClient,
+                       OrderLockQueue orderLockQueue,
+                       LockFencing lockFencing,
+                       OrderService orderService,
+                       RedisHealthMonitor redisHealthMonitor,
+                       MeterRegistry meterRegistry) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.mode(), strategy));
+        this.orderProperties = orderProperties;
+        this.redissonClient = redissonClient;
+        this.orderLockQueue = orderLockQueue;
+        this.lockFencing = lockFencing;
+        this.orderService = orderService;
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        StockStrategy strategy = currentStrategy();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return strategy.order(email, request);
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            throw e;
+        } finally {
+            sample.stop(latencyTimer(strategy.mode()));
+        }
+    }
+
+    public CompletableFuture<CommonResponse<OrderResponse>> orderAsync(String email, OrderCreateRequest request) {
+        StockStrategy strategy = currentStrategy();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return strategy.orderAsync(email, request)
+                .whenComplete((response, error) -> {
+                    sample.stop(latencyTimer(strategy.mode()));
+                    if (error != null) {
+                        recordFailure(error);
                     }
-                }
+                });
+    }
+
+    //상품 ID 오름차순으로 모든 상품 락을 MultiLock으로 한 번에 획득 (교착 상태 방지)
+    public CompletableFuture<CommonResponse<OrderResponse>> orderCartAsync(String email, CartOrderRequest request) {
+        StockStrategy strategy = currentStrategy();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return submitCart(strategy, email, request)
+                .whenComplete((response, error) -> {
+                    sample.stop(latencyTimer(strategy.mode()));
+                    if (error != null) {
+                        recordFailure(error);
+                    }
+                });
+    }
+
+    private CompletableFuture<CommonResponse<OrderResponse>> submitCart(StockStrategy strategy, String email,
+                                                                        CartOrderRequest request) {
+        //Redis 락 방식이 아니면 (Redis 장애 중의 대체 방식 포함) 방식별 장바구니 주문, 부족한 줄이 있으면 전체 롤백
+        if (!strategy.mode().usesRedisLock()) {
+            try {
+                return CompletableFuture.completedFuture(strategy.orderCart(email, request));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
         }
 
-        throw new OrderLockFailed();  //충분히 재시도했는데도 실패
+        List<Long> productIds = request.getQuantitiesByProduct().keySet().stream()
+                .sorted()
+                .toList();
+        RLock[] locks = productIds.stream()
+                .map(productId -> redissonClient.getFairLock("lock:product:" + productId))
+                .toArray(RLock[]::new);
+        RLock multiLock = redissonClient.getMultiLock(locks);
+
+        return orderLockQueue.submit("lock:product:" + productIds, multiLock,
+                () -> lockFencing.withTokens(productIds, tokens -> orderService.orderCart(email, request, tokens)));
+    }
+
+    public CommonResponse<OrderResponse> orderWithRedisson(String email, OrderCreateRequest request) {
+        return strategies.get(StockMode.REDISSON).order(email, request);
+    }
+
+    //Redis 장애 중에는 분산 락 대신 DB 락 방식으로 처리 (복구되면 다음 요청부터 원래 방식)
+    private StockStrategy currentStrategy() {
+        StockMode mode = orderProperties.getStockMode();
+        if (mode.usesRedisLock() && !redisHealthMonitor.isAvailable()) {
+            mode = orderProperties.getLock().getFallback().getMode();
+        }
+        return strategies.get(mode);
+    }
+
+    private Timer latencyTimer(StockMode mode) {
+        return Timer.builder("order.stock.latency")
+                .tag("mode", mode.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    //락 획득 실패, 재고 부족으로 거절된 주문 수
+    private void recordFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String reason;
+        if (cause instanceof OrderLockFailed) {
+            reason = "lock_failed";
+        } else if (cause instanceof NotEnoughStock) {
+            reason = "not_enough_stock";
+        } else {
+            return;
+        }
+        Counter.builder("order.failed")
+                .description("거절된 주문 수")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
     }
 }
@@ -0,0 +1,145 @@
+package com.shop.facade;
+
+import com.shop.exception.OrderError;
+import com.shop.exception.OrderLockFailed;
+import com.shop.global.config.OrderProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 상품 락 대기열
+ * Redisson 공정 락(FIFO, pub/sub 알림)을 비동기로 요청하고, 락을 얻으면 DB 작업을 전용 실행기에 넘긴다.
+ * 대기 중에는 어떤 스레드도 점유하지 않으며, 대기 시간은 order.lock.deadline-ms를 넘지 않는다.
+ */
+@Component
+public class OrderLockQueue {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    //비동기 락의 소유자 ID (실제 스레드 ID와 겹치지 않도록 음수 영역 사용)
+    private static final AtomicLong LOCK_OWNER_IDS = new AtomicLong(Long.MIN_VALUE);
+
+    private final RedissonClient redissonClient;
+    private final OrderProperties.Lock properties;
+    private final Executor executor;
+    private final LockFencing lockFencing;
+    private final Map<String, AtomicInteger> waitingCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger totalWaiting = new AtomicInteger();
+
+    private final DistributionSummary queuePosition;
+
+    public OrderLockQueue(RedissonClient redissonClient,
+                          OrderProperties orderProperties,
+                          @Qualifier("orderTaskExecutor") Executor executor,
+                          MeterRegistry meterRegistry,
+                          LockFencing lockFencing) {
+        this.redissonClient = redissonClient;
+        this.properties = orderProperties.getLock();
+        this.executor = executor;
+        this.lockFencing = lockFencing;
+
+        this.queuePosition = DistributionSummary.builder("order.lock.queue.position")
+                .description("락 요청 시점의 대기 순번")
+                .register(meterRegistry);
+        meterRegistry.gauge("order.lock.waiting", totalWaiting);
+    }
+
+    public <T> CompletableFuture<T> submit(Long productId, Supplier<T> task) {
+        String key = "lock:product:" + productId;
+        return submit(key, redissonClient.getFairLock(key), task);
+    }
+
+    //락을 얻으면 펜싱 토큰을 발급받아 작업에 넘긴다. (재고 쓰기 전에 상품 행의 토큰과 비교)
+    public <T> CompletableFuture<T> submitFenced(Long productId, LongFunction<T> task) {
+        return submit(productId, () -> lockFencing.withToken(productId, task));
+    }
+
+    public <T> CompletableFuture<T> submit(String name, RLock lock, Supplier<T> task) {
+        long ownerId = LOCK_OWNER_IDS.incrementAndGet();
+        long enqueuedAt = System.nanoTime();
+        long deadlineMs = properties.getDeadlineMs();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        AtomicInteger waiting = waitingCounts.computeIfAbsent(name, k -> new AtomicInteger());
+        queuePosition.record(waiting.incrementAndGet());
+        totalWaiting.incrementAndGet();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lock.tryLockAsync(deadlineMs, properties.getLeaseMs(), TimeUnit.MILLISECONDS, ownerId)
+                .whenComplete((acquired, error) -> {
+                    if (waiting.decrementAndGet() == 0) {
+                        waitingCounts.remove(name, waiting);
+                    }
+                    totalWaiting.decrementAndGet();
+                    long waitedNanos = System.nanoTime() - enqueuedAt;
+
+                    if (error != null) {
+                        lockFencing.recordWait(false, waitedNanos);
+                        orderLogger.error("락 요청 실패 key={}, msg={}", name, error.getMessage());
+                        result.completeExceptionally(new OrderError());
+                        return;
+                    }
+                    if (!acquired || waitedNanos >= TimeUnit.MILLISECONDS.toNanos(deadlineMs)) {  //기한 초과
+                        if (acquired) {
+                            lock.unlockAsync(ownerId);
+                        }
+                        lockFencing.recordWait(false, waitedNanos);
+                        lockFencing.recordLockFailed();
+                        result.completeExceptionally(new OrderLockFailed());
+                        return;
+                    }
+
+                    lockFencing.recordWait(true, waitedNanos);
+                    long acquiredAt = System.nanoTime();
+                    try {
+                        executor.execute(() -> runLocked(name, lock, ownerId, acquiredAt, mdc, task, result));
+                    } catch (RejectedExecutionException e) {  //DB 작업 대기열 포화
+                        lock.unlockAsync(ownerId);
+                        lockFencing.recordLockFailed();
+                        result.completeExceptionally(new OrderLockFailed());
+                    }
+                });
+        return result;
+    }
+
+    private <T> void runLocked(String name, RLock lock, long ownerId, long acquiredAt, Map<String, String> mdc,
+                               Supplier<T> task, CompletableFuture<T> result) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        T value = null;
+        Throwable failure = null;
+        try {
+            value = task.get();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            lock.unlockAsync(ownerId);  //결과 전달 전에 락부터 반환
+            lockFencing.recordHold(name, System.nanoTime() - acquiredAt);
+            MDC.clear();
+        }
+
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(value);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.shop.facade;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PessimisticStockStrategy implements StockStrategy {
+
+    private final OrderService orderService;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.PESSIMISTIC;
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        return orderService.orderWithPessimisticLock(email, request);
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        return orderService.orderCartWithPessimisticLock(email, request);
+    }
+}
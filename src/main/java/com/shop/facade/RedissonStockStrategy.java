@@ -0,0 +1,43 @@
+package com.shop.facade;
+
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.OrderError;
+import com.shop.service.OrderService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RedissonStockStrategy implements StockStrategy {
+
+    private final OrderLockQueue orderLockQueue;
+    private final OrderService orderService;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.REDISSON;
+    }
+
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        try {
+            return orderAsync(email, request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new OrderError();
+        }
+    }
+
+    //공정 락 대기열에 등록하고, 락을 얻으면 DB 트랜잭션만 락 구간에서 실행 (임대 만료 후의 늦은 쓰기는 펜싱 토큰으로 거부)
+    @Override
+    public CompletableFuture<CommonResponse<OrderResponse>> orderAsync(String email, OrderCreateRequest request) {
+        return orderLockQueue.submitFenced(request.getProductId(),
+                fencingToken -> orderService.order(email, request, fencingToken));
+    }
+}
@@ -0,0 +1,52 @@
+package com.shop.facade;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.service.OrderService;
+import com.shop.service.StockReservationService;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ReservationStockStrategy implements StockStrategy {
+
+    private final OrderService orderService;
+    private final StockReservationService stockReservationService;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.REDIS_RESERVATION;
+    }
+
+    //Redis에서 재고를 선점한 요청만 DB에 주문을 저장, 선점 실패 시 DB 접근 없이 거절
+    @Override
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
+        stockReservationService.reserve(request.getProductId(), request.getQuantity());
+        try {
+            return orderService.orderReserved(email, request);
+        } catch (RuntimeException e) {  //주문 저장 실패 -> 선점한 재고 반환
+            stockReservationService.release(request.getProductId(), request.getQuantity());
+            throw e;
+        }
+    }
+
+    /**
+     * 장바구니 주문도 Redis 카운터로 모든 상품을 한 번에 선점한다.
+     * DB를 직접 차감하면 카운터에는 그 재고가 남아 초과 판매되고, 취소 시 선점하지 않은 재고가 카운터에 더해진다.
+     */
+    @Override
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        Map<Long, Integer> quantities = request.getQuantitiesByProduct();
+        stockReservationService.reserveAll(quantities);
+        try {
+            return orderService.orderCartReserved(email, request);
+        } catch (RuntimeException e) {  //주문 저장 실패 -> 선점한 재고 반환
+            stockReservationService.releaseAll(quantities);
+            throw e;
+        }
+    }
+}
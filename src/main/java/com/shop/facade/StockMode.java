@@ -0,0 +1,22 @@
+package com.shop.facade;
+
+public enum StockMode {
+
+    REDISSON,  //상품별 분산락 + DB 재고 차감
+    REDIS_RESERVATION,  //Redis Lua 스크립트로 재고 선점 후 DB 후반영
+    COMBINING,  //같은 상품 주문을 모아 락/트랜잭션 1회로 처리
+    PESSIMISTIC,  //SELECT ... FOR UPDATE
+    OPTIMISTIC,  //버전 비교 후 갱신, 충돌 시 재시도
+    CONDITIONAL_UPDATE,  //UPDATE ... WHERE stock_quantity >= ? 단일 쿼리
+    ;
+
+    //Redis 분산 락으로 상품 재고를 보호하는 방식, Redis 장애 시 DB 락으로 전환할 수 있다.
+    public boolean usesRedisLock() {
+        return this == REDISSON || this == COMBINING;
+    }
+
+    //Redis 없이 DB만으로 재고를 보호하는 방식, Redis 장애 시 전환 대상
+    public boolean usesDatabaseOnly() {
+        return this == PESSIMISTIC || this == OPTIMISTIC || this == CONDITIONAL_UPDATE;
+    }
+}
@@ -0,0 +1,32 @@
+package com.shop.facade;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 주문 시 재고 동시성 제어 방식
+ * order.stock-mode 설정으로 구현체를 선택한다.
+ */
+public interface StockStrategy {
+
+    StockMode mode();
+
+    CommonResponse<OrderResponse> order(String email, OrderCreateRequest request);
+
+    //락 대기가 있는 구현은 요청 스레드를 점유하지 않도록 재정의
+    default CompletableFuture<CommonResponse<OrderResponse>> orderAsync(String email, OrderCreateRequest request) {
+        try {
+            return CompletableFuture.completedFuture(order(email, request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    //Redis 락 방식의 장바구니는 OrderFacade가 MultiLock으로 묶어 처리, 락 없이 처리하는 방식만 재정의
+    default CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        throw new UnsupportedOperationException(mode() + " 방식은 장바구니 주문을 직접 처리하지 않습니다.");
+    }
+}
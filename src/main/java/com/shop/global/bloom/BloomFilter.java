@@ -0,0 +1,103 @@
+package com.shop.global.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ID 블룸 필터 (인스턴스 로컬)
+ * 없다고 답한 ID는 등록된 적이 없다. 있다고 답한 ID는 fpp 확률로 틀릴 수 있다.
+ * 비트 위치는 Redis 비트맵(SETBIT/GETBIT 오프셋)과 같게 계산해 두 필터가 같은 배치를 공유한다.
+ */
+public class BloomFilter {
+
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;  //잠금 없이 동시 등록/조회
+
+    public BloomFilter(long expectedInsertions, double fpp) {
+        this.bitCount = bitCount(expectedInsertions, fpp);
+        this.hashCount = hashCount(expectedInsertions, bitCount);
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    public static long bitCount(long expectedInsertions, double fpp) {
+        double bits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        return Math.max(64, (long) Math.ceil(bits));
+    }
+
+    public static int hashCount(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round(bitCount / (double) expectedInsertions * Math.log(2)));
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long[] positions(long id) {
+        return positions(id, bitCount, hashCount);
+    }
+
+    //이중 해싱 (h1 + i * h2), 크기가 같은 필터는 비트 위치도 같다.
+    public static long[] positions(long id, long bitCount, int hashCount) {
+        long h1 = mix(id);
+        long h2 = mix(h1) | 1;
+        long[] positions = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            positions[i] = Math.floorMod(h1 + i * h2, bitCount);
+        }
+        return positions;
+    }
+
+    public void put(long id) {
+        set(positions(id));
+    }
+
+    public boolean mightContain(long id) {
+        return contains(positions(id));
+    }
+
+    public void set(long[] positions) {
+        for (long position : positions) {
+            int index = (int) (position >>> 6);
+            long mask = 1L << position;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    public boolean contains(long[] positions) {
+        for (long position : positions) {
+            if ((words.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Redis 비트맵 형식 (오프셋 0이 첫 바이트의 최상위 비트)
+    public byte[] toBitmap() {
+        byte[] bitmap = new byte[(int) ((bitCount + 7) >>> 3)];
+        for (int index = 0; index < words.length(); index++) {
+            long word = words.get(index);
+            while (word != 0) {
+                long position = ((long) index << 6) + Long.numberOfTrailingZeros(word);
+                bitmap[(int) (position >>> 3)] |= (byte) (0x80 >>> (position & 7));
+                word &= word - 1;
+            }
+        }
+        return bitmap;
+    }
+
+    //SplitMix64 마무리 단계, 연속된 ID도 고르게 흩어진다.
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,443 @@
+package com.shop.global.bloom;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shop.global.redis.RedisHealthMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands.BitOperation;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 존재하지 않는 ID 거르기
+ * 네임스페이스(상품, 주문)별로 로컬 블룸 필터와 같은 비트 배치의 Redis 비트맵을 두고, DB를 읽기 전에 확인한다.
+ * 로컬 필터에 없으면 다른 노드가 방금 등록한 ID일 수 있으므로 Redis 비트맵을 확인하고, 거기에도 없을 때만 없다고 답한다.
+ * 없다고 답한 ID와 DB에서 못 찾은 ID는 짧게 부재 캐시에 둔다.
+ *
+ * ID는 계속 늘어나므로 필터를 ID 구간(expected-insertions개씩)으로 나눠 구간마다 정해진 크기의 필터를 쓴다.
+ * 구간 하나에는 많아야 expected-insertions개가 들어가므로 오탐률이 fpp를 넘지 않고, 새 구간이 생기면 오래된 구간은
+ * retained-segments개만 남기고 로컬에서 버린다. 버린 구간의 ID는 필터로 거르지 않고 DB에서 확인한다.
+ * (버린 구간의 Redis 비트맵은 다른 노드가 아직 쓸 수 있어 지우지 않는다. 구간당 bit 수 / 8 바이트)
+ * 주문처럼 등록이 잦은 네임스페이스는 broadcast를 끄고, 다른 노드는 로컬에 없으면 Redis 비트맵으로 확인한다.
+ *
+ * Redis 비트맵은 DB 전체 ID를 담은 뒤에만(준비 키가 있을 때만) 믿는다. Redis 장애, 필터 생성 전에는 DB에서 확인한다.
+ * 블룸 필터는 삭제를 지원하지 않으므로 삭제된 ID는 부재 캐시로만 거르고, 비트는 다음 재생성까지 남는다.
+ */
+@Slf4j
+@Component
+public class IdFilter implements MessageListener {
+
+    public static final String PRODUCT = "product";
+    public static final String ORDER = "order";
+
+    //ID마다 구간 비트맵의 비트를 켜고, 채널이 있으면 같은 왕복에서 다른 노드에 알린다.
+    //KEYS: ID별 구간 비트맵 / ARGV: 채널(없으면 빈 문자열), 메시지, 해시 수, ID별 비트 위치...
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            local hashCount = tonumber(ARGV[3])
+            for i = 1, #KEYS do
+                for j = 1, hashCount do
+                    redis.call('SETBIT', KEYS[i], ARGV[3 + (i - 1) * hashCount + j], 1)
+                end
+            end
+            if ARGV[1] ~= '' then
+                redis.call('PUBLISH', ARGV[1], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    //준비 키가 없으면 -1 (비트맵을 믿을 수 없음), 꺼진 비트가 있으면 0
+    private static final RedisScript<Long> CONTAINS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return -1
+            end
+            for i = 1, #ARGV do
+                if redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then
+                    return 0
+                end
+            end
+            return 1
+            """, Long.class);
+
+    private static final Duration SEED_LOCK_TTL = Duration.ofMinutes(10);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdFilterProperties properties;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Filter> filters = new ConcurrentHashMap<>();
+
+    public IdFilter(StringRedisTemplate redisTemplate,
+                    IdFilterProperties properties,
+                    RedisHealthMonitor redisHealthMonitor,
+                    MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * DB의 ID를 ID 순서로 나눠 읽어 로컬 필터를 채우고 Redis 비트맵에 OR로 합친다.
+     * 생성 중 등록된 ID도 로컬/Redis에 바로 반영되므로 빠지지 않는다.
+     */
+    public void build(String namespace, IdPageReader reader) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Filter filter = filter(namespace);
+        filter.reader = reader;
+
+        long start = System.currentTimeMillis();
+        int count = load(filter);
+        seed(filter);
+        filter.ready = true;
+        log.info("ID 필터 생성 완료 namespace={}: {}건, 구간 {}개(구간당 {}bit), {}ms", namespace, count,
+                filter.segments.size(), filter.bitCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return false면 등록된 적 없거나 최근 DB에서 찾지 못한 ID (DB를 읽지 않고 없다고 답해도 된다)
+     */
+    public boolean mightExist(String namespace, Long id) {
+        if (!properties.isEnabled() || id == null) {
+            return true;
+        }
+        Filter filter = filter(namespace);
+        if (filter.missing.getIfPresent(id) != null) {
+            return false;
+        }
+        if (!filter.ready || filter.isRetired(id)) {
+            return true;
+        }
+
+        Segment segment = filter.segments.get(filter.segmentOf(id));  //조회만으로 구간을 만들지 않는다.
+        long[] positions = filter.positions(id);
+        if (segment != null && segment.bloom.contains(positions)) {
+            return true;
+        }
+        Long remote = containsRemote(filter, id, positions);  //다른 노드가 등록했는데 로컬에 없을 수 있다.
+        if (remote == null || remote < 0) {
+            return true;
+        }
+        if (remote == 1) {
+            Segment loaded = filter.segment(id);
+            if (loaded != null) {
+                loaded.bloom.set(positions);
+            }
+            return true;
+        }
+        filter.missing.put(id, Boolean.TRUE);
+        return false;
+    }
+
+    //롤백된 등록은 반영하지 않는다.
+    public void add(String namespace, Long id) {
+        addAll(namespace, List.of(id));
+    }
+
+    //일괄 주문처럼 한 트랜잭션에서 만든 ID는 Redis 왕복 한 번으로 등록한다.
+    public void addAll(String namespace, Collection<Long> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Filter filter = filter(namespace);
+            List<Long> added = new ArrayList<>(ids.size());
+            List<long[]> positions = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                filter.missing.invalidate(id);
+                Segment segment = filter.segment(id);
+                if (segment == null) {  //이미 버린 구간
+                    continue;
+                }
+                long[] idPositions = filter.positions(id);
+                segment.bloom.set(idPositions);
+                added.add(id);
+                positions.add(idPositions);
+            }
+            addRemote(filter, namespace, added, positions);
+        });
+    }
+
+    //DB에서 찾지 못했거나 삭제된 ID
+    public void markMissing(String namespace, Long id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        filter(namespace).missing.put(id, Boolean.TRUE);
+    }
+
+    //다른 노드가 등록한 ID (네임스페이스\nID,ID...)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\n", 2);
+        if (parts.length != 2) {
+            log.warn("잘못된 ID 등록 메시지: {}", body);
+            return;
+        }
+        Filter filter = filter(parts[0]);
+        try {
+            for (String rawId : parts[1].split(",")) {
+                long id = Long.parseLong(rawId);
+                Segment segment = filter.segment(id);
+                if (segment != null) {
+                    segment.bloom.put(id);
+                }
+                filter.missing.invalidate(id);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 ID 등록 메시지: {}", body);
+        }
+    }
+
+    //Redis가 초기화되어 준비 키가 사라졌으면 한 노드가 DB에서 다시 읽어 채운다. (그동안 조회는 DB에서 확인)
+    @Scheduled(fixedDelayString = "${id-filter.reseed-check-interval-ms:60000}")
+    public void reseed() {
+        if (!isAvailable()) {
+            return;
+        }
+        filters.values().forEach(filter -> {
+            if (!filter.ready || filter.reader == null) {
+                return;
+            }
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(filter.readyKey))) {
+                    return;
+                }
+                String lockKey = filter.readyKey + ":lock";
+                if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", SEED_LOCK_TTL))) {
+                    return;  //다른 노드가 채우는 중
+                }
+                int count = load(filter);
+                seed(filter);
+                redisTemplate.delete(lockKey);
+                log.info("ID 필터 Redis 비트맵 재생성 key={}: {}건", filter.keyPrefix, count);
+            } catch (RuntimeException e) {
+                log.warn("ID 필터 재생성 실패 key={}, msg={}", filter.keyPrefix, e.getMessage());
+            }
+        });
+    }
+
+    private int load(Filter filter) {
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = filter.reader.read(afterId, properties.getBuildPageSize());
+            if (ids.isEmpty()) {
+                return count;
+            }
+            for (Long id : ids) {
+                Segment segment = filter.segment(id);
+                if (segment != null) {
+                    segment.bloom.put(id);
+                }
+            }
+            count += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    //구간마다 임시 키에 로컬 비트맵을 올려 OR로 합친 뒤 준비 키를 남긴다.
+    private void seed(Filter filter) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                for (Segment segment : filter.segments.values()) {
+                    byte[] key = bytes(segment.key);
+                    byte[] seedKey = bytes(segment.key + ":seed:" + UUID.randomUUID());
+                    connection.stringCommands().set(seedKey, segment.bloom.toBitmap(), Expiration.from(SEED_LOCK_TTL),
+                            SetOption.upsert());
+                    connection.stringCommands().bitOp(BitOperation.OR, key, key, seedKey);
+                    connection.keyCommands().del(seedKey);
+                }
+                connection.stringCommands().set(bytes(filter.readyKey), bytes("1"));
+                return null;
+            });
+        } catch (RuntimeException e) {  //준비 키가 없으므로 Redis 비트맵은 쓰지 않는다.
+            log.warn("ID 필터 Redis 비트맵 저장 실패 key={}, msg={}", filter.keyPrefix, e.getMessage());
+        }
+    }
+
+    private Long containsRemote(Filter filter, long id, long[] positions) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            return redisTemplate.execute(CONTAINS_SCRIPT, List.of(filter.segmentKey(id), filter.readyKey),
+                    (Object[]) toArgs(positions));
+        } catch (RuntimeException e) {
+            log.warn("ID 필터 Redis 조회 실패 key={}, msg={}", filter.keyPrefix, e.getMessage());
+            return null;
+        }
+    }
+
+    private void addRemote(Filter filter, String namespace, List<Long> ids, List<long[]> positions) {
+        if (ids.isEmpty() || !isAvailable()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(ids.size());
+        List<String> args = new ArrayList<>(3 + ids.size() * filter.hashCount);
+        boolean broadcast = properties.spec(namespace).isBroadcast();
+        args.add(broadcast ? properties.getChannel() : "");
+        args.add(broadcast ? namespace + "\n" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")) : "");
+        args.add(String.valueOf(filter.hashCount));
+        for (int i = 0; i < ids.size(); i++) {
+            keys.add(filter.segmentKey(ids.get(i)));
+            for (long position : positions.get(i)) {
+                args.add(String.valueOf(position));
+            }
+        }
+        try {
+            redisTemplate.execute(ADD_SCRIPT, keys, args.toArray());
+        } catch (RuntimeException e) {  //다른 노드는 DB에서 확인하고, 재생성 때 비트맵에 들어간다.
+            log.warn("ID 필터 Redis 등록 실패 key={}, ids={}, msg={}", filter.keyPrefix, ids, e.getMessage());
+        }
+    }
+
+    private Filter filter(String namespace) {
+        return filters.computeIfAbsent(namespace, Filter::new);
+    }
+
+    private boolean isAvailable() {
+        return redisHealthMonitor.isAvailable();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String[] toArgs(long[] positions) {
+        String[] args = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            args[i] = String.valueOf(positions[i]);
+        }
+        return args;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * afterId보다 큰 ID를 오름차순으로 최대 pageSize개
+     */
+    @FunctionalInterface
+    public interface IdPageReader {
+
+        List<Long> read(long afterId, int pageSize);
+    }
+
+    private final class Filter {
+
+        private final IdFilterProperties.FilterSpec spec;
+        private final long bitCount;
+        private final int hashCount;
+        private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+        private volatile long oldestSegment;  //이보다 앞 구간은 버렸다.
+        private final Cache<Long, Boolean> missing;
+        private final String keyPrefix;
+        private final String readyKey;
+        private volatile IdPageReader reader;
+        private volatile boolean ready;
+
+        private Filter(String namespace) {
+            this.spec = properties.spec(namespace);
+            this.bitCount = BloomFilter.bitCount(spec.getExpectedInsertions(), spec.getFpp());
+            this.hashCount = BloomFilter.hashCount(spec.getExpectedInsertions(), bitCount);
+            this.missing = Caffeine.newBuilder()
+                    .expireAfterWrite(properties.getNegativeTtl())
+                    .maximumSize(properties.getNegativeMaximumSize())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, missing, namespace + "IdMissingCache");
+            //크기가 바뀌면 구간과 비트 배치가 달라지므로 다른 키를 쓴다. 해시 태그로 네임스페이스의 키를 한 슬롯에 둔다.
+            this.keyPrefix = properties.getKeyPrefix() + "{" + namespace + "}:" + spec.getExpectedInsertions()
+                    + ":" + bitCount + ":" + hashCount;
+            this.readyKey = keyPrefix + ":ready";
+        }
+
+        long segmentOf(long id) {
+            return Math.floorDiv(id, spec.getExpectedInsertions());
+        }
+
+        boolean isRetired(long id) {
+            return segmentOf(id) < oldestSegment;
+        }
+
+        long[] positions(long id) {
+            return BloomFilter.positions(id, bitCount, hashCount);
+        }
+
+        String segmentKey(long id) {
+            return keyPrefix + ":" + segmentOf(id);
+        }
+
+        //등록된 ID의 구간, 새 구간이 생기면 오래된 구간을 버린다. (이미 버린 구간이면 null)
+        Segment segment(long id) {
+            long index = segmentOf(id);
+            if (index < oldestSegment) {
+                return null;
+            }
+            Segment segment = segments.get(index);
+            if (segment != null) {
+                return segment;
+            }
+            segment = segments.computeIfAbsent(index,
+                    key -> new Segment(new BloomFilter(spec.getExpectedInsertions(), spec.getFpp()),
+                            keyPrefix + ":" + key));
+            retire();
+            return index < oldestSegment ? null : segment;
+        }
+
+        private synchronized void retire() {
+            long oldest = segments.lastKey() - spec.getRetainedSegments() + 1;
+            if (oldest <= oldestSegment) {
+                return;
+            }
+            oldestSegment = oldest;
+            Map<Long, Segment> retired = segments.headMap(oldest);
+            if (!retired.isEmpty()) {
+                log.info("ID 필터 구간 정리 key={}, 구간 {} 이전", keyPrefix, oldest);
+                retired.clear();
+            }
+        }
+    }
+
+    private record Segment(BloomFilter bloom, String key) {
+    }
+}
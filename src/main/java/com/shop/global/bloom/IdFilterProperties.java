@@ -0,0 +1,37 @@
+package com.shop.global.bloom;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "id-filter")
+public class IdFilterProperties {
+
+    private boolean enabled = true;  //false면 모든 ID를 DB에서 확인
+    private String keyPrefix = "bloom:";
+    private String channel = "bloom:add";  //새 ID 등록 채널 (다른 노드의 로컬 필터, 부재 캐시에 반영)
+    private int buildPageSize = 5000;
+    private Duration negativeTtl = Duration.ofSeconds(5);  //등록 메시지를 놓친 노드가 새 ID를 없다고 답하는 최대 시간
+    private long negativeMaximumSize = 100_000;
+    private long reseedCheckIntervalMs = 60_000;  //Redis 비트맵이 사라졌는지 확인하는 주기
+    private Map<String, FilterSpec> filters = new HashMap<>();  //네임스페이스별 크기
+
+    public FilterSpec spec(String namespace) {
+        return filters.getOrDefault(namespace, new FilterSpec());
+    }
+
+    @Getter
+    @Setter
+    public static class FilterSpec {
+
+        private long expectedInsertions = 1_000_000;  //구간 하나(ID expectedInsertions개 범위)의 필터 크기
+        private double fpp = 0.01;  //없는 ID를 있다고 답해 DB까지 가는 비율
+        private int retainedSegments = 4;  //로컬에 남길 최근 구간 수, 더 오래된 ID는 DB에서 확인
+        private boolean broadcast = true;  //등록을 pub/sub으로 다른 노드의 로컬 필터에 알릴지
+    }
+}
@@ -0,0 +1,12 @@
+package com.shop.global.cache;
+
+/**
+ * 캐시 값과 DB에서 읽은 시각
+ * L1, L2 모두 이 형태로 저장해 어느 노드에서 꺼내도 같은 기준으로 얼마나 오래된 값인지 판단한다.
+ */
+public record CacheEntry(Object value, long loadedAt) {
+
+    public long ageMillis(long now) {
+        return now - loadedAt;
+    }
+}
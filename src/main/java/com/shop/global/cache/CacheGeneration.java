@@ -0,0 +1,144 @@
+package com.shop.global.cache;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 캐시 세대 번호
+ * 목록 캐시 키 앞에 세대 번호를 붙이고, 데이터가 바뀌면 세대를 올려 이전 세대의 키를 한 번에 도달할 수 없게 만든다.
+ * (키를 찾아 지우지 않으므로 O(1), 이전 세대 항목은 TTL/용량 제한으로 사라진다.)
+ * 기준 값은 Redis 카운터이고, 올린 노드가 pub/sub으로 알려 다른 노드의 로컬 값도 바로 따라온다.
+ * 메시지를 놓쳐도 주기적으로 Redis 값을 읽어 맞추며, 로컬 값은 줄어들지 않는다.
+ */
+@Slf4j
+@Component
+public class CacheGeneration implements MessageListener {
+
+    public static final String CATALOG = "catalog";  //상품 목록
+
+    //Redis 장애 중 로컬에서만 올린 세대보다 작은 값을 다시 쓰지 않도록 로컬 값 이상으로 올린다.
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local generation = redis.call('INCR', KEYS[1])
+            local floor = tonumber(ARGV[1])
+            if generation <= floor then
+                generation = floor + 1
+                redis.call('SET', KEYS[1], generation)
+            end
+            return generation
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TwoLevelCacheProperties properties;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CacheGeneration(StringRedisTemplate redisTemplate,
+                           TwoLevelCacheProperties properties,
+                           RedisHealthMonitor redisHealthMonitor) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.redisHealthMonitor = redisHealthMonitor;
+    }
+
+    //캐시 키 SpEL에서 사용: @cacheGeneration.current('catalog')
+    public long current(String namespace) {
+        return generation(namespace).get();
+    }
+
+    //롤백된 변경으로 세대를 올리지 않고, 커밋 전 값을 새 세대로 캐시하지 않도록 커밋 후에 올린다.
+    public void bump(String namespace) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(namespace);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(namespace);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cache.generation-sync-interval-ms:1000}")
+    public void sync() {
+        generations.forEach((namespace, generation) -> {
+            Long remote = read(namespace);
+            if (remote != null) {
+                generation.accumulateAndGet(remote, Math::max);
+            }
+        });
+    }
+
+    //다른 노드가 올린 세대 (네임스페이스\n세대)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        if (parts.length < 2) {
+            return;
+        }
+        try {
+            generation(parts[0]).accumulateAndGet(Long.parseLong(parts[1]), Math::max);
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 캐시 세대 메시지 namespace={}, generation={}", parts[0], parts[1]);
+        }
+    }
+
+    private void increment(String namespace) {
+        AtomicLong generation = generation(namespace);
+        if (!isRedisAvailable()) {  //다른 노드에는 Redis 복구 후 다음 변경이나 동기화 때 전파
+            generation.incrementAndGet();
+            return;
+        }
+        try {
+            Long next = redisTemplate.execute(BUMP_SCRIPT, List.of(redisKey(namespace)),
+                    String.valueOf(generation.get()));
+            long bumped = generation.accumulateAndGet(next == null ? generation.get() + 1 : next, Math::max);
+            redisTemplate.convertAndSend(properties.getGenerationChannel(), namespace + "\n" + bumped);
+        } catch (RuntimeException e) {
+            generation.incrementAndGet();
+            log.warn("캐시 세대 갱신 실패 namespace={}, msg={}", namespace, e.getMessage());
+        }
+    }
+
+    private AtomicLong generation(String namespace) {
+        return generations.computeIfAbsent(namespace, key -> {
+            Long remote = read(key);
+            return new AtomicLong(remote == null ? 0 : remote);
+        });
+    }
+
+    private Long read(String namespace) {
+        if (!isRedisAvailable()) {
+            return null;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(redisKey(namespace));
+            return value == null ? null : Long.valueOf(value);
+        } catch (RuntimeException e) {
+            log.warn("캐시 세대 조회 실패 namespace={}, msg={}", namespace, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isRedisAvailable() {
+        return properties.isRedisEnabled() && redisHealthMonitor.isAvailable();
+    }
+
+    private String redisKey(String namespace) {
+        return properties.getKeyPrefix() + "generation:" + namespace;
+    }
+}
@@ -0,0 +1,34 @@
+package com.shop.global.cache;
+
+import com.shop.global.cache.RedisCacheStore.Invalidation;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+/**
+ * 다른 인스턴스가 보낸 캐시 무효화 메시지를 받아 L1에서 지운다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final RedisCacheStore remote;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = Invalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+        if (remote.isOwnMessage(invalidation)) {  //자기 L1은 삭제 시점에 이미 지웠다.
+            return;
+        }
+        cacheManager.evictLocal(invalidation.cacheName(), invalidation.key());
+    }
+}
@@ -0,0 +1,245 @@
+package com.shop.global.cache;
+
+import com.shop.domain.product.ProductSellStatus;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.ProductResponse;
+import com.shop.service.dto.ProductDetail;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 캐시 값 직렬화 (Redis L2)
+ * 타입 태그 1바이트 뒤에 필드 값만 가변 길이 정수/UTF-8로 기록한다. 클래스, 필드 이름을 매번 싣는 JSON, JDK 직렬화보다 작다.
+ * 등록되지 않은 타입은 Serializable이면 JDK 직렬화로 저장한다.
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte LIST = 5;
+    private static final byte PAGE = 6;
+    private static final byte COMMON_RESPONSE = 7;
+    private static final byte PRODUCT_RESPONSE = 8;
+    private static final byte CACHE_ENTRY = 9;
+    private static final byte PRODUCT_DETAIL = 10;
+    private static final byte JAVA = 127;
+
+    private static final ProductSellStatus[] SELL_STATUSES = ProductSellStatus.values();
+
+    @Override
+    public byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, value);
+        } catch (IOException e) {
+            throw new SerializationException("캐시 값 직렬화 실패", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    //NullValue도 null로 돌려준다. (값이 있는지는 호출자가 바이트 존재 여부로 판단)
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return read(in);
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            throw new SerializationException("캐시 값 역직렬화 실패", e);
+        }
+    }
+
+    private void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null || value instanceof NullValue) {
+            out.writeByte(NULL);
+        } else if (value instanceof CacheEntry entry) {
+            out.writeByte(CACHE_ENTRY);
+            writeVarLong(out, entry.loadedAt());
+            write(out, entry.value());
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INTEGER);
+            writeVarLong(out, number);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            writeVarLong(out, number);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof CommonResponse<?> response) {
+            out.writeByte(COMMON_RESPONSE);
+            writeString(out, response.getCode());
+            writeString(out, response.getMessage());
+            write(out, response.getBody());
+        } else if (value instanceof Page<?> page) {
+            out.writeByte(PAGE);
+            Pageable pageable = page.getPageable();
+            writeVarLong(out, pageable.isPaged() ? pageable.getPageNumber() : -1);
+            writeVarLong(out, pageable.isPaged() ? pageable.getPageSize() : -1);
+            writeVarLong(out, page.getTotalElements());
+            writeList(out, page.getContent());
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            writeList(out, list);
+        } else if (value instanceof ProductResponse product) {
+            out.writeByte(PRODUCT_RESPONSE);
+            writeVarLong(out, product.getProductId() == null ? -1 : product.getProductId());
+            writeString(out, product.getName());
+            writeVarLong(out, product.getPrice());
+            writeVarLong(out, product.getStockQuantity());
+            writeString(out, product.getDescription());
+            writeVarLong(out, product.getSellStatus() == null ? -1 : product.getSellStatus().ordinal());
+        } else if (value instanceof ProductDetail product) {
+            out.writeByte(PRODUCT_DETAIL);
+            writeVarLong(out, product.getProductId() == null ? -1 : product.getProductId());
+            writeString(out, product.getName());
+            writeVarLong(out, product.getPrice());
+            writeString(out, product.getDescription());
+            writeVarLong(out, product.getSellStatus() == null ? -1 : product.getSellStatus().ordinal());
+        } else if (value instanceof Serializable) {
+            out.writeByte(JAVA);
+            ObjectOutputStream objectOut = new ObjectOutputStream(out);
+            objectOut.writeObject(value);
+            objectOut.flush();
+        } else {
+            throw new SerializationException("캐시에 저장할 수 없는 타입: " + value.getClass().getName());
+        }
+    }
+
+    private Object read(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case CACHE_ENTRY: {
+                long loadedAt = readVarLong(in);
+                Object value = read(in);
+                return new CacheEntry(value == null ? NullValue.INSTANCE : value, loadedAt);
+            }
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return (int) readVarLong(in);
+            case LONG:
+                return readVarLong(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case COMMON_RESPONSE:
+                return new CommonResponse<>(readString(in), readString(in), read(in));
+            case PAGE: {
+                int pageNumber = (int) readVarLong(in);
+                int pageSize = (int) readVarLong(in);
+                long total = readVarLong(in);
+                List<Object> content = readList(in);
+                Pageable pageable = pageSize < 0 ? Pageable.unpaged() : PageRequest.of(pageNumber, pageSize);
+                return new PageImpl<>(content, pageable, total);
+            }
+            case LIST:
+                return readList(in);
+            case PRODUCT_RESPONSE: {
+                long productId = readVarLong(in);
+                String name = readString(in);
+                int price = (int) readVarLong(in);
+                int stockQuantity = (int) readVarLong(in);
+                String description = readString(in);
+                int sellStatus = (int) readVarLong(in);
+                return new ProductResponse(productId < 0 ? null : productId, name, price, stockQuantity, description,
+                        sellStatus < 0 ? null : SELL_STATUSES[sellStatus]);
+            }
+            case PRODUCT_DETAIL: {
+                long productId = readVarLong(in);
+                String name = readString(in);
+                int price = (int) readVarLong(in);
+                String description = readString(in);
+                int sellStatus = (int) readVarLong(in);
+                return new ProductDetail(productId < 0 ? null : productId, name, price, description,
+                        sellStatus < 0 ? null : SELL_STATUSES[sellStatus]);
+            }
+            case JAVA:
+                return new ObjectInputStream(in).readObject();
+            default:
+                throw new SerializationException("알 수 없는 캐시 값 태그: " + tag);
+        }
+    }
+
+    private void writeList(DataOutputStream out, List<?> list) throws IOException {
+        writeVarLong(out, list.size());
+        for (Object element : list) {
+            write(out, element);
+        }
+    }
+
+    private List<Object> readList(DataInputStream in) throws IOException, ClassNotFoundException {
+        int size = (int) readVarLong(in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(read(in));
+        }
+        return list;
+    }
+
+    //null은 길이 -1
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //ZigZag + 7비트 가변 길이 (작은 수는 1바이트)
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new SerializationException("잘못된 가변 길이 정수");
+    }
+}
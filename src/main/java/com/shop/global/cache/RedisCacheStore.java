@@ -0,0 +1,223 @@
+package com.shop.global.cache;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 2단계 캐시의 L2 (Redis)
+ * 값은 CacheValueSerializer로 저장하고, 삭제할 때는 다른 인스턴스가 L1에서도 지우도록 무효화 메시지를 보낸다.
+ * Redis 장애 중이거나 명령이 실패하면 캐시 미스로 취급해 L1과 DB만으로 동작한다.
+ */
+@Slf4j
+public class RedisCacheStore {
+
+    private static final int SCAN_COUNT = 500;
+
+    //자기가 잡은 로딩 임대만 해제
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheValueSerializer serializer = new CacheValueSerializer();
+    private final TwoLevelCacheProperties properties;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final String nodeId = UUID.randomUUID().toString();  //자기가 보낸 무효화 메시지 구분
+
+    public RedisCacheStore(RedisConnectionFactory connectionFactory,
+                           StringRedisTemplate stringRedisTemplate,
+                           TwoLevelCacheProperties properties,
+                           RedisHealthMonitor redisHealthMonitor) {
+        this.redisTemplate = new RedisTemplate<>();
+        this.redisTemplate.setConnectionFactory(connectionFactory);
+        this.redisTemplate.setKeySerializer(RedisSerializer.string());
+        this.redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        this.redisTemplate.afterPropertiesSet();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.redisHealthMonitor = redisHealthMonitor;
+    }
+
+    /**
+     * @return 없으면 null, null을 캐시했으면 NullValue
+     */
+    public Object get(String cacheName, String key) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(redisKey(cacheName, key));
+            if (bytes == null) {
+                return null;
+            }
+            Object value = serializer.deserialize(bytes);
+            return value == null ? NullValue.INSTANCE : value;
+        } catch (RuntimeException e) {  //손상된 값, 배포 중 형식 변경 포함 -> 미스
+            log.warn("L2 캐시 조회 실패 cache={}, key={}, msg={}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    public void put(String cacheName, String key, Object storeValue) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey(cacheName, key), serializer.serialize(storeValue),
+                    properties.redisTtl(cacheName));
+        } catch (RuntimeException e) {
+            log.warn("L2 캐시 저장 실패 cache={}, key={}, msg={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public void evict(String cacheName, String key) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(redisKey(cacheName, key));
+            publish(new Invalidation(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            log.warn("L2 캐시 삭제 실패 cache={}, key={}, msg={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public void clear(String cacheName) {
+        if (!isAvailable()) {
+            return;
+        }
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(properties.getKeyPrefix() + cacheName + "::*")
+                .count(SCAN_COUNT)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> keys = new ArrayList<>(SCAN_COUNT);
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() == SCAN_COUNT) {
+                    redisTemplate.unlink(keys);
+                    keys.clear();
+                }
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.unlink(keys);
+            }
+            publish(new Invalidation(nodeId, cacheName, null));
+        } catch (RuntimeException e) {
+            log.warn("L2 캐시 비우기 실패 cache={}, msg={}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * 같은 키를 DB에서 읽을 노드를 정한다.
+     * @return 임대를 얻었거나 Redis를 쓸 수 없으면 true (직접 읽는다)
+     */
+    public boolean tryLease(String cacheName, String key, String token) {
+        if (!isAvailable()) {
+            return true;
+        }
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey(cacheName, key), token, properties.getLoadLeaseTtl());
+            return !Boolean.FALSE.equals(acquired);
+        } catch (RuntimeException e) {
+            log.warn("캐시 로딩 임대 실패 cache={}, key={}, msg={}", cacheName, key, e.getMessage());
+            return true;
+        }
+    }
+
+    public void releaseLease(String cacheName, String key, String token) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey(cacheName, key)), token);
+        } catch (RuntimeException e) {  //임대 시간이 지나면 저절로 풀린다.
+            log.warn("캐시 로딩 임대 해제 실패 cache={}, key={}, msg={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드가 읽어 L2에 저장할 때까지 기다린다.
+     * @return 저장된 값, 임대가 풀렸는데 값이 없거나(로딩 실패) 임대 시간이 지나면 null
+     */
+    public Object awaitLoaded(String cacheName, String key) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getLoadLeaseTtl().toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(properties.getLoadPollInterval().toMillis());
+            Object value = get(cacheName, key);
+            if (value != null) {
+                return value;
+            }
+            if (!isLeased(cacheName, key)) {
+                return get(cacheName, key);  //해제 직전에 저장됐을 수 있다.
+            }
+        }
+        return null;
+    }
+
+    public boolean isOwnMessage(Invalidation invalidation) {
+        return nodeId.equals(invalidation.nodeId());
+    }
+
+    private void publish(Invalidation invalidation) {
+        stringRedisTemplate.convertAndSend(properties.getChannel(), invalidation.encode());
+    }
+
+    private boolean isAvailable() {
+        return properties.isRedisEnabled() && redisHealthMonitor.isAvailable();
+    }
+
+    private boolean isLeased(String cacheName, String key) {
+        if (!isAvailable()) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(leaseKey(cacheName, key)));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private String leaseKey(String cacheName, String key) {
+        return properties.getKeyPrefix() + "lease:" + cacheName + "::" + key;
+    }
+
+    private String redisKey(String cacheName, String key) {
+        return properties.getKeyPrefix() + cacheName + "::" + key;
+    }
+
+    /**
+     * 무효화 메시지 (노드ID\n캐시이름[\n키]), 키가 없으면 캐시 전체 비우기
+     */
+    public record Invalidation(String nodeId, String cacheName, String key) {
+
+        public String encode() {
+            return key == null ? nodeId + "\n" + cacheName : nodeId + "\n" + cacheName + "\n" + key;
+        }
+
+        public static Invalidation decode(String message) {
+            String[] parts = message.split("\n", 3);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("잘못된 캐시 무효화 메시지: " + message);
+            }
+            return new Invalidation(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.shop.global.cache;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.cache.annotation.CacheAnnotationParser;
+import org.springframework.cache.annotation.SpringCacheAnnotationParser;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.util.StringUtils;
+
+/**
+ * 모든 @Cacheable을 sync 모드로 읽는다.
+ * sync 모드의 미스는 Cache.get(key, loader)를 거치므로 TwoLevelCache가 같은 키의 동시 요청을 로딩 한 번으로 합친다.
+ * sync로 바꿀 수 없는 경우(unless 사용, 캐시 여러 개, 같은 메서드의 다른 캐시 애노테이션)는 그대로 둔다.
+ */
+public class SingleFlightCacheAnnotationParser implements CacheAnnotationParser {
+
+    private final SpringCacheAnnotationParser delegate = new SpringCacheAnnotationParser();
+
+    @Override
+    public boolean isCandidateClass(Class<?> targetClass) {
+        return delegate.isCandidateClass(targetClass);
+    }
+
+    @Override
+    public Collection<CacheOperation> parseCacheAnnotations(Class<?> type) {
+        return toSync(delegate.parseCacheAnnotations(type));
+    }
+
+    @Override
+    public Collection<CacheOperation> parseCacheAnnotations(Method method) {
+        return toSync(delegate.parseCacheAnnotations(method));
+    }
+
+    private static Collection<CacheOperation> toSync(Collection<CacheOperation> operations) {
+        if (operations == null || operations.size() != 1
+                || !(operations.iterator().next() instanceof CacheableOperation operation)
+                || operation.isSync()
+                || operation.getCacheNames().size() != 1
+                || StringUtils.hasText(operation.getUnless())) {
+            return operations;
+        }
+
+        CacheableOperation.Builder builder = new CacheableOperation.Builder();
+        builder.setName(operation.getName());
+        builder.setCacheNames(operation.getCacheNames().toArray(String[]::new));
+        builder.setKey(operation.getKey());
+        builder.setKeyGenerator(operation.getKeyGenerator());
+        builder.setCacheManager(operation.getCacheManager());
+        builder.setCacheResolver(operation.getCacheResolver());
+        builder.setCondition(operation.getCondition());
+        builder.setSync(true);
+        return List.of(builder.build());
+    }
+}
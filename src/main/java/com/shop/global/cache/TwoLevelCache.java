@@ -0,0 +1,292 @@
+package com.shop.global.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * 2단계 캐시
+ * L1(인스턴스별 Caffeine)에 없으면 L2(Redis)를 보고, 둘 다 없으면 DB에서 읽어 L1, L2를 함께 채운다.
+ * 삭제는 L2를 먼저 지운 뒤 무효화 메시지로 모든 인스턴스의 L1에서 지운다.
+ * 키는 문자열로 바꿔 저장한다. (Redis 키, 무효화 메시지와 같은 값으로 L1을 찾기 위해)
+ *
+ * 값은 DB에서 읽은 시각과 함께 저장한다. refreshAfter가 지난 값은 그대로 돌려주면서 전용 실행기에서 다시 읽고,
+ * hardTtl이 지난 값만 버리고 요청 스레드에서 읽는다.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, CacheEntry> local;
+    private final RedisCacheStore remote;
+    private final long refreshAfterMillis;
+    private final long hardTtlMillis;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, CompletableFuture<CacheEntry>> loads = new ConcurrentHashMap<>();  //로딩 중인 키
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();  //갱신 중인 키
+
+    private final Counter refreshSuccessCounter;
+    private final Counter refreshFailureCounter;
+    private final Counter refreshRejectedCounter;
+    private final Timer staleAgeTimer;
+
+    public TwoLevelCache(String name,
+                         Cache<String, CacheEntry> local,
+                         RedisCacheStore remote,
+                         Duration refreshAfter,
+                         Duration hardTtl,
+                         Executor refreshExecutor,
+                         MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.refreshAfterMillis = refreshAfter.toMillis();
+        this.hardTtlMillis = hardTtl.toMillis();
+        this.refreshExecutor = refreshExecutor;
+
+        this.refreshSuccessCounter = refreshCounter(meterRegistry, "success");
+        this.refreshFailureCounter = refreshCounter(meterRegistry, "failure");
+        this.refreshRejectedCounter = refreshCounter(meterRegistry, "rejected");
+        this.staleAgeTimer = Timer.builder("cache.stale.age")
+                .description("갱신 시점이 지난 값을 돌려줄 때 그 값이 DB에서 읽힌 지 지난 시간")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<String, CacheEntry> getNativeCache() {
+        return local;
+    }
+
+    //sync로 바꿀 수 없는 @Cacheable(unless 등)의 조회, 로더가 없어 미리 갱신하지 않는다.
+    @Override
+    protected Object lookup(Object key) {
+        CacheEntry entry = find(toCacheKey(key));
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * 미스 단일화 (SingleFlightCacheAnnotationParser로 모든 @Cacheable이 이 경로를 탄다)
+     * 인스턴스 안에서는 같은 키의 첫 요청만 읽고 나머지는 같은 Future를 기다린다.
+     * 인스턴스 사이에서는 Redis 임대를 얻은 노드만 읽고, 나머지 노드는 L2에 값이 생길 때까지 기다린다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = toCacheKey(key);
+        CacheEntry entry = findLocal(cacheKey);
+        if (entry != null) {
+            return (T) serve(cacheKey, entry, valueLoader);
+        }
+
+        CompletableFuture<CacheEntry> loading = new CompletableFuture<>();
+        CompletableFuture<CacheEntry> inFlight = loads.putIfAbsent(cacheKey, loading);
+        if (inFlight != null) {
+            return (T) fromStoreValue(await(inFlight).value());
+        }
+        try {
+            entry = load(cacheKey, key, valueLoader);
+            local.put(cacheKey, entry);
+            loading.complete(entry);
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(cacheKey, loading);
+        }
+        return (T) serve(cacheKey, entry, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = toCacheKey(key);
+        CacheEntry entry = new CacheEntry(toStoreValue(value), System.currentTimeMillis());
+        local.put(cacheKey, entry);
+        remote.put(name, cacheKey, entry);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = toCacheKey(key);
+        remote.evict(name, cacheKey);
+        local.invalidate(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear(name);
+        local.invalidateAll();
+    }
+
+    //다른 인스턴스의 무효화 메시지 처리
+    void evictLocal(String cacheKey) {
+        local.invalidate(cacheKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private CacheEntry load(String cacheKey, Object key, Callable<?> valueLoader) {
+        CacheEntry entry = find(cacheKey);  //앞선 로딩이 방금 끝났을 수 있다.
+        if (entry != null) {
+            return entry;
+        }
+
+        String token = UUID.randomUUID().toString();
+        if (!remote.tryLease(name, cacheKey, token)) {  //다른 노드가 읽는 중
+            try {
+                entry = usable(remote.awaitLoaded(name, cacheKey));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            if (entry != null) {
+                return entry;
+            }
+            //임대 만료, 로딩 실패 -> 직접 읽는다.
+        }
+
+        try {
+            entry = new CacheEntry(toStoreValue(valueLoader.call()), System.currentTimeMillis());
+            remote.put(name, cacheKey, entry);  //임대를 풀기 전에 저장해야 기다리던 노드가 값을 본다.
+            return entry;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            remote.releaseLease(name, cacheKey, token);
+        }
+    }
+
+    //갱신 시점이 지났으면 기존 값을 돌려주고 백그라운드에서 다시 읽는다.
+    private Object serve(String cacheKey, CacheEntry entry, Callable<?> valueLoader) {
+        long age = entry.ageMillis(System.currentTimeMillis());
+        if (age >= refreshAfterMillis) {
+            staleAgeTimer.record(age, TimeUnit.MILLISECONDS);
+            refreshAsync(cacheKey, valueLoader);
+        }
+        return fromStoreValue(entry.value());
+    }
+
+    private void refreshAsync(String cacheKey, Callable<?> valueLoader) {
+        if (!refreshing.add(cacheKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(cacheKey, valueLoader);
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {  //실행기 포화 -> 다음 요청이 다시 시도
+            refreshing.remove(cacheKey);
+            refreshRejectedCounter.increment();
+        }
+    }
+
+    private void refresh(String cacheKey, Callable<?> valueLoader) {
+        CacheEntry entry = usable(remote.get(name, cacheKey));
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.ageMillis(now) < refreshAfterMillis) {  //다른 노드가 이미 갱신
+            local.put(cacheKey, entry);
+            refreshSuccessCounter.increment();
+            return;
+        }
+
+        String token = UUID.randomUUID().toString();
+        if (!remote.tryLease(name, cacheKey, token)) {  //다른 노드가 갱신 중, 다음 요청 때 L2에서 가져온다.
+            return;
+        }
+        try {
+            entry = new CacheEntry(toStoreValue(valueLoader.call()), System.currentTimeMillis());
+            remote.put(name, cacheKey, entry);
+            local.put(cacheKey, entry);
+            refreshSuccessCounter.increment();
+        } catch (Exception e) {  //기존 값을 hardTtl까지 계속 사용
+            refreshFailureCounter.increment();
+            log.warn("캐시 갱신 실패 cache={}, key={}, msg={}", name, cacheKey, e.getMessage());
+        } finally {
+            remote.releaseLease(name, cacheKey, token);
+        }
+    }
+
+    private CacheEntry find(String cacheKey) {
+        CacheEntry entry = findLocal(cacheKey);
+        if (entry != null) {
+            return entry;
+        }
+        entry = usable(remote.get(name, cacheKey));
+        if (entry != null) {
+            local.put(cacheKey, entry);
+        }
+        return entry;
+    }
+
+    private CacheEntry findLocal(String cacheKey) {
+        CacheEntry entry = local.getIfPresent(cacheKey);
+        if (entry != null && isExpired(entry)) {  //L2에서 늦게 가져온 값이 L1에서 hardTtl을 넘긴 경우
+            local.invalidate(cacheKey);
+            return null;
+        }
+        return entry;
+    }
+
+    //hardTtl이 지난 값, 읽은 시각이 없는 이전 형식의 값은 쓰지 않는다.
+    private CacheEntry usable(Object stored) {
+        if (!(stored instanceof CacheEntry entry) || isExpired(entry)) {
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return entry.ageMillis(System.currentTimeMillis()) >= hardTtlMillis;
+    }
+
+    private Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.refresh")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static CacheEntry await(CompletableFuture<CacheEntry> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String toCacheKey(Object key) {
+        return String.valueOf(key);
+    }
+}
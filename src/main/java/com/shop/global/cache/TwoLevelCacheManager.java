@@ -0,0 +1,74 @@
+package com.shop.global.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * 2단계 캐시 관리자
+ * 처음 요청된 이름으로 캐시를 만든다. (CaffeineCacheManager의 동적 생성과 같음)
+ * TTL, 용량은 cache.caches.{캐시 이름}에 지정한 값이 있으면 그 값을 쓴다.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final TwoLevelCacheProperties properties;
+    private final RedisCacheStore remote;
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(TwoLevelCacheProperties properties,
+                                RedisCacheStore remote,
+                                Executor refreshExecutor,
+                                MeterRegistry meterRegistry,
+                                String... cacheNames) {
+        this.properties = properties;
+        this.remote = remote;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+        for (String cacheName : cacheNames) {
+            getCache(cacheName);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    //key가 null이면 캐시 전체
+    void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> local = Caffeine.newBuilder()
+                .expireAfterWrite(properties.localTtl(name))
+                .maximumSize(properties.localMaximumSize(name))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);  //cache.gets{cache=이름, result=hit|miss}
+        return new TwoLevelCache(name, local, remote, properties.refreshAfter(name), properties.redisTtl(name),
+                refreshExecutor, meterRegistry);
+    }
+}
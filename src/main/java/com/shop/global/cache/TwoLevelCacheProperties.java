@@ -0,0 +1,57 @@
+package com.shop.global.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class TwoLevelCacheProperties {
+
+    private boolean redisEnabled = true;  //false면 인스턴스별 Caffeine 캐시만 사용
+    private String keyPrefix = "cache:";
+    private String channel = "cache:invalidate";  //무효화 메시지 채널
+    private String generationChannel = "cache:generation";  //세대 번호 변경 채널
+    private long generationSyncIntervalMs = 1000;  //세대 메시지를 놓쳤을 때 Redis 값과 맞추는 주기
+    private Duration localTtl = Duration.ofMinutes(1);  //무효화 메시지를 놓쳤을 때 L1이 오래된 값을 보여주는 최대 시간
+    private long localMaximumSize = 100;
+    private Duration redisTtl = Duration.ofMinutes(10);  //hard TTL, 이보다 오래된 값은 요청 스레드에서 다시 읽는다.
+    private Duration refreshAfter = Duration.ofMinutes(5);  //soft TTL, 지난 값은 돌려주면서 백그라운드에서 다시 읽는다.
+    private Duration loadLeaseTtl = Duration.ofSeconds(3);  //한 노드가 DB에서 읽는 동안 다른 노드가 기다리는 최대 시간
+    private Duration loadPollInterval = Duration.ofMillis(20);  //기다리는 노드가 L2를 다시 확인하는 간격
+    private Map<String, CacheSpec> caches = new HashMap<>();  //캐시 이름별 설정, 비워 둔 값은 위 기본값
+
+    public Duration localTtl(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec == null || spec.getLocalTtl() == null ? localTtl : spec.getLocalTtl();
+    }
+
+    public long localMaximumSize(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec == null || spec.getLocalMaximumSize() == null ? localMaximumSize : spec.getLocalMaximumSize();
+    }
+
+    public Duration redisTtl(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec == null || spec.getRedisTtl() == null ? redisTtl : spec.getRedisTtl();
+    }
+
+    public Duration refreshAfter(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec == null || spec.getRefreshAfter() == null ? refreshAfter : spec.getRefreshAfter();
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+
+        private Duration localTtl;
+        private Long localMaximumSize;
+        private Duration redisTtl;
+        private Duration refreshAfter;
+    }
+}
@@ -24,4 +24,27 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
+
+    //락을 획득한 주문의 DB 작업 전용 (요청 스레드는 락 대기 중에 점유되지 않는다)
+    @Bean
+    public Executor orderTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("order-task-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public Executor orderCombinerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(1_000);
+        executor.setThreadNamePrefix("order-combiner-");
+        executor.initialize();
+        return executor;
+    }
 }
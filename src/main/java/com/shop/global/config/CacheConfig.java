@@ -1,26 +1,85 @@
 package com.shop.global.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import java.util.concurrent.TimeUnit;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import com.shop.global.cache.CacheGeneration;
+import com.shop.global.cache.CacheInvalidationListener;
+import com.shop.global.cache.RedisCacheStore;
+import com.shop.global.cache.SingleFlightCacheAnnotationParser;
+import com.shop.global.cache.TwoLevelCacheManager;
+import com.shop.global.cache.TwoLevelCacheProperties;
+import com.shop.global.mdc.MdcTaskDecorator;
+import com.shop.global.redis.RedisHealthMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.interceptor.CacheOperationSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * L1 Caffeine + L2 Redis 캐시, Redis pub/sub으로 인스턴스 간 무효화
+ */
 @Configuration
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
 public class CacheConfig {
 
+    //@EnableCaching 기본 CacheOperationSource 대신 사용, @Cacheable 미스를 키별로 한 번만 읽는다.
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("productsCache");
-        cacheManager.setCaffeine(getCaffeine());
-        return cacheManager;
+    @Primary
+    public static CacheOperationSource singleFlightCacheOperationSource() {
+        return new AnnotationCacheOperationSource(new SingleFlightCacheAnnotationParser());
+    }
 
+    @Bean
+    public RedisCacheStore redisCacheStore(RedisConnectionFactory connectionFactory,
+                                           StringRedisTemplate stringRedisTemplate,
+                                           TwoLevelCacheProperties properties,
+                                           RedisHealthMonitor redisHealthMonitor) {
+        return new RedisCacheStore(connectionFactory, stringRedisTemplate, properties, redisHealthMonitor);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(TwoLevelCacheProperties properties,
+                                             RedisCacheStore redisCacheStore,
+                                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                                             MeterRegistry meterRegistry) {
+        return new TwoLevelCacheManager(properties, redisCacheStore, cacheRefreshExecutor, meterRegistry,
+                "productsCache", "productDetailCache");
     }
 
-    private static Caffeine<Object, Object> getCaffeine() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .maximumSize(100);
+    //soft TTL이 지난 캐시 값의 백그라운드 갱신 전용, 가득 차면 갱신을 건너뛰고 기존 값을 계속 쓴다.
+    @Bean
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache", name = "redis-enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            RedisCacheStore redisCacheStore,
+                                                                            CacheGeneration cacheGeneration,
+                                                                            TwoLevelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, redisCacheStore),
+                new ChannelTopic(properties.getChannel()));
+        container.addMessageListener(cacheGeneration, new ChannelTopic(properties.getGenerationChannel()));
+        return container;
     }
 }
@@ -0,0 +1,30 @@
+package com.shop.global.config;
+
+import com.shop.global.bloom.IdFilter;
+import com.shop.global.bloom.IdFilterProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 존재하지 않는 상품/주문 ID 필터, 새 ID는 Redis pub/sub으로 다른 인스턴스의 로컬 필터에 전파
+ */
+@Configuration
+@EnableConfigurationProperties(IdFilterProperties.class)
+public class IdFilterConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "id-filter", name = "enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer idFilterListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                   IdFilter idFilter,
+                                                                   IdFilterProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(idFilter, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,76 @@
+package com.shop.global.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * ID 시퀀스 테이블 초기화
+ * MySQL은 SEQUENCE 전략을 {@code <이름>_seq} 테이블로 흉내 내는데, IDENTITY로 쌓인 기존 DB에서는 1부터 시작해 기존 ID와 겹친다.
+ * 요청을 받기 전에(EntityManagerFactory가 스키마를 갱신한 뒤) 각 시퀀스를 테이블의 MAX(id) + allocationSize 이상으로 올린다.
+ * 시퀀스 이름, 테이블, ID 컬럼, allocationSize는 엔티티의 {@code @SequenceGenerator} 매핑에서 읽는다.
+ * GREATEST로 올리기만 하므로 여러 인스턴스가 동시에 시작하거나 매번 실행해도 안전하다.
+ * 네이티브 시퀀스를 쓰는 DB(H2)는 새로 만든 스키마라 건너뛴다.
+ */
+@Component
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    //EntityManagerFactory 생성(ddl-auto로 시퀀스 테이블 생성) 이후에 실행
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        String database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        if (!"MySQL".equalsIgnoreCase(database)) {
+            return;
+        }
+
+        for (IdSequence sequence : sequences(entityManagerFactory)) {
+            int updated = jdbcTemplate.update("UPDATE " + sequence.name()
+                    + " SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(" + sequence.idColumn() + "), 0) + "
+                    + sequence.allocationSize() + " FROM " + sequence.table() + "))");
+            if (updated > 0) {
+                log.info("ID 시퀀스 초기화 sequence={}, next_val={}", sequence.name(),
+                        jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence.name(), Long.class));
+            }
+        }
+    }
+
+    //SEQUENCE 전략 엔티티의 매핑 (시퀀스 테이블 이름, ID 테이블/컬럼, allocationSize)
+    static List<IdSequence> sequences(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .streamEntityDescriptors()
+                .filter(persister -> persister.getGenerator() instanceof SequenceStyleGenerator)
+                .map(persister -> {
+                    DatabaseStructure structure = ((SequenceStyleGenerator) persister.getGenerator())
+                            .getDatabaseStructure();
+                    AbstractEntityPersister entity = (AbstractEntityPersister) persister;
+                    return new IdSequence(structure.getPhysicalName().getObjectName().getText(),
+                            entity.getIdentifierTableName(), entity.getIdentifierColumnNames()[0],
+                            structure.getIncrementSize());
+                })
+                .toList();
+    }
+
+    record IdSequence(String name, String table, String idColumn, int allocationSize) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.shop.global.config;
+
+import com.shop.domain.order.OrderNumberGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderProperties.class)
+public class OrderConfig {
+
+    //노드 ID가 겹치면 같은 주문 번호로 INSERT가 실패하므로 추측하지 않고 지정된 값만 쓴다.
+    public OrderConfig(OrderProperties orderProperties) {
+        if (orderProperties.getNodeId() < 0) {
+            throw new IllegalStateException("order.node-id(0 ~ " + OrderNumberGenerator.MAX_NODE_ID
+                    + ")를 인스턴스마다 다르게 지정해야 합니다. (ORDER_NODE_ID 환경 변수)");
+        }
+        OrderNumberGenerator.configure(orderProperties.getNodeId());
+    }
+}
@@ -0,0 +1,79 @@
+package com.shop.global.config;
+
+import com.shop.facade.StockMode;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order")
+public class OrderProperties {
+
+    private StockMode stockMode = StockMode.REDISSON;
+    private int nodeId = -1;  //주문 번호 생성기 노드 ID (0 ~ 1023), 인스턴스마다 지정 (-1이면 시작 실패)
+    private Combining combining = new Combining();
+    private Lock lock = new Lock();
+    private Reservation reservation = new Reservation();
+    private WaitingRoom waitingRoom = new WaitingRoom();
+
+    @Getter
+    @Setter
+    public static class Lock {
+
+        private long deadlineMs = 3_000;  //락 대기 포함 전체 허용 시간
+        private long leaseMs = 5_000;  //락 임대시간
+        private double nearMissRatio = 0.8;  //락 보유 시간이 임대시간의 이 비율을 넘으면 만료 직전으로 집계
+        private Fallback fallback = new Fallback();
+    }
+
+    @Getter
+    @Setter
+    public static class Fallback {
+
+        private boolean enabled = true;  //Redis 장애 시 DB 락으로 전환
+        private StockMode mode = StockMode.PESSIMISTIC;  //전환할 방식 (pessimistic, optimistic, conditional_update)
+        private long probeIntervalMs = 1_000;  //Redis 상태 확인 주기
+        private long probeTimeoutMs = 500;  //응답이 이보다 늦으면 실패
+        private int failureThreshold = 3;  //연속 실패 횟수, 도달하면 DB 락으로 전환
+        private int recoveryThreshold = 3;  //연속 성공 횟수, 도달하면 Redis 락으로 복귀
+    }
+
+    @Getter
+    @Setter
+    public static class Reservation {
+
+        private long reconcileIntervalMs = 1_000;  //Redis 선점 재고 DB 후반영 주기
+        private Duration ttl = Duration.ofMinutes(15);  //결제 승인 전까지 재고를 잡아두는 시간
+        private long sweepIntervalMs = 60_000;  //만료 주문 정리 주기
+        private int sweepPageSize = 500;  //한 트랜잭션에서 정리할 주문 수
+    }
+
+    @Getter
+    @Setter
+    public static class Combining {
+
+        private long windowMs = 5;  //같은 상품 주문을 모으는 시간
+        private int maxBatchSize = 100;  //모인 주문 수가 이 값에 도달하면 즉시 처리
+        private long lockWaitMs = 3_000;  //상품 락 대기 시간
+        private long timeoutMs = 10_000;  //호출자가 결과를 기다리는 최대 시간
+    }
+
+    @Getter
+    @Setter
+    public static class WaitingRoom {
+
+        private boolean enabled = false;  //true면 입장권이 있는 회원만 주문 가능
+        private long admitIntervalMs = 1_000;  //입장 처리 주기
+        private int ratePerSecond = 50;  //상품별 초당 입장 인원 기본값
+        private Map<Long, Integer> rates = new HashMap<>();  //상품별 초당 입장 인원
+        private long tokenTtlMs = 30_000;  //입장권 유효 시간
+
+        public int getRate(Long productId) {
+            return rates.getOrDefault(productId, ratePerSecond);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.shop.global.config;
+
+import com.shop.repository.product.ProductSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 상품명 검색 색인, 등록/삭제는 Redis pub/sub으로 다른 인스턴스의 색인에 전파
+ */
+@Configuration
+public class ProductSearchIndexConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.search-index", name = "enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer productSearchIndexListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ProductSearchIndex productSearchIndex,
+            @Value("${product.search-index.channel:product:search-index}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(productSearchIndex, new ChannelTopic(channel));
+        return container;
+    }
+}
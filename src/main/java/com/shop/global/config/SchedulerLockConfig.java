@@ -0,0 +1,37 @@
+package com.shop.global.config;
+
+import javax.sql.DataSource;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 여러 인스턴스 중 한 곳에서만 실행할 스케줄 작업의 락 (@SchedulerLock)
+ * 상태를 바꾸는 DB 정리 작업만 대상이다. 인스턴스별 캐시/필터 갱신이나 Redis 스크립트로 이미 원자적인 작업은 그대로 모든 인스턴스에서 실행한다.
+ */
+@Configuration
+@EnableSchedulerLock(defaultLockAtMostFor = "PT10M")
+public class SchedulerLockConfig {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS shedlock (
+                name VARCHAR(64) NOT NULL,
+                lock_until TIMESTAMP(3) NOT NULL,
+                locked_at TIMESTAMP(3) NOT NULL,
+                locked_by VARCHAR(255) NOT NULL,
+                PRIMARY KEY (name)
+            )""";
+
+    @Bean
+    public LockProvider lockProvider(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE);  //ddl-auto는 엔티티가 아닌 락 테이블을 만들지 않는다.
+        return new JdbcTemplateLockProvider(JdbcTemplateLockProvider.Configuration.builder()
+                .withJdbcTemplate(jdbcTemplate)
+                .usingDbTime()  //인스턴스 간 시계 차이 무시
+                .build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.shop.global.count;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shop.global.count.ListCountProperties.CountMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 목록 전체 개수 캐시
+ * 테이블과 정규화한 검색 조건별로 COUNT 결과를 짧게 캐시한다. 캐시가 비어 있으면 전용 실행기에서 세므로
+ * 호출자는 본문 조회를 먼저 진행하고 결과를 나중에 합친다. 같은 조건의 동시 요청은 COUNT 한 번을 공유한다.
+ */
+@Slf4j
+@Component
+public class ListCountCache {
+
+    //MySQL InnoDB 통계 행 수 (ANALYZE 주기에 따라 오차가 있다)
+    private static final String TABLE_ROWS_QUERY = "SELECT TABLE_ROWS FROM information_schema.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :tableName";
+
+    private final ListCountProperties properties;
+    private final EntityManager entityManager;
+    private final Executor executor;
+    private final AsyncCache<CountKey, Long> cache;
+
+    public ListCountCache(ListCountProperties properties,
+                          EntityManager entityManager,
+                          @Qualifier("listCountExecutor") Executor executor,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.executor = executor;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaximumSize())
+                .executor(executor)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "listCountCache");
+    }
+
+    /**
+     * @param tableName 추정 모드에서 통계를 읽을 테이블
+     * @param filter 검색 조건 (normalize로 정규화한 값)
+     * @param countQuery limit이 null이면 정확한 개수, 아니면 limit까지만 센 개수
+     */
+    public CompletableFuture<Long> count(String tableName, String filter, CountQuery countQuery) {
+        //실패한 결과는 Caffeine이 캐시에서 제거한다.
+        return cache.get(new CountKey(tableName, filter), (key, ignored) ->
+                CompletableFuture.supplyAsync(() -> load(tableName, filter, countQuery), executor));
+    }
+
+    public static String normalize(String filter) {
+        return filter == null ? "" : filter.strip();
+    }
+
+    public static long join(CompletableFuture<Long> count) {
+        try {
+            return count.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private long load(String tableName, String filter, CountQuery countQuery) {
+        if (properties.getMode() == CountMode.EXACT) {
+            return countQuery.count(null);
+        }
+        if (filter.isEmpty()) {
+            Long tableRows = tableRows(tableName);
+            if (tableRows != null) {
+                return tableRows;
+            }
+            return countQuery.count(null);
+        }
+        return countQuery.count((long) properties.getEstimateCap());
+    }
+
+    private Long tableRows(String tableName) {
+        try {
+            Object rows = entityManager.createNativeQuery(TABLE_ROWS_QUERY)
+                    .setParameter("tableName", tableName)
+                    .getSingleResult();
+            return rows == null ? null : ((Number) rows).longValue();
+        } catch (RuntimeException e) {  //통계를 제공하지 않는 DB -> 정확한 개수
+            log.debug("테이블 통계 조회 실패 table={}, msg={}", tableName, e.getMessage());
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface CountQuery {
+
+        long count(Long limit);
+    }
+
+    private record CountKey(String tableName, String filter) {
+    }
+}
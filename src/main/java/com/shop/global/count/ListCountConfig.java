@@ -0,0 +1,26 @@
+package com.shop.global.count;
+
+import com.shop.global.mdc.MdcTaskDecorator;
+import java.util.concurrent.Executor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties(ListCountProperties.class)
+public class ListCountConfig {
+
+    //목록 조회의 COUNT 쿼리 전용, 본문 조회와 동시에 실행한다.
+    @Bean
+    public Executor listCountExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("list-count-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
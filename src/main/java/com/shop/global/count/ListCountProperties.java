@@ -0,0 +1,23 @@
+package com.shop.global.count;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "listing.count")
+public class ListCountProperties {
+
+    private CountMode mode = CountMode.EXACT;
+    private Duration ttl = Duration.ofSeconds(10);  //같은 검색 조건의 전체 개수를 재사용하는 시간
+    private int maximumSize = 1_000;  //캐시할 검색 조건 수
+    private int estimateCap = 10_000;  //추정 모드에서 검색 조건이 있을 때 세는 최대 개수
+
+    public enum CountMode {
+
+        EXACT,  //조건을 적용한 COUNT(*)
+        ESTIMATED,  //조건 없으면 테이블 통계 행 수, 조건 있으면 estimateCap까지만 센다.
+    }
+}
@@ -0,0 +1,200 @@
+package com.shop.global.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shop.exception.IdempotencyConflict;
+import com.shop.exception.OrderError;
+import com.shop.global.redis.RedisHealthMonitor;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotency-Key 처리 결과 저장소
+ * L1(Caffeine)은 처리 중인 요청의 future와 결과를, L2(Redis)는 인스턴스 간 공유할 결과를 TTL 동안 보관한다.
+ * 같은 키의 동시 요청은 첫 요청의 future를 함께 기다리고, 끝난 요청의 재시도는 저장된 결과를 그대로 받는다.
+ * 실패한 요청은 저장하지 않아 같은 키로 다시 시도할 수 있다.
+ * 요청 지문(fingerprint)을 주면 결과와 함께 보관하고, 같은 키에 다른 내용의 요청이 오면 IdempotencyConflict로 거절한다.
+ * Redis 장애 중에는 L1만으로 이 인스턴스 안의 중복을 거른다. (키를 보낸 요청도 키 없는 요청처럼 처리는 계속된다)
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final Duration IN_PROGRESS_TTL = Duration.ofMinutes(1);  //처리 중 인스턴스가 죽어도 키가 풀리도록
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, Entry> localResults;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate,
+                            RedisHealthMonitor redisHealthMonitor,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.ttl:24h}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.localResults = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    public <T> T execute(String scope, String idempotencyKey, TypeReference<T> type, Supplier<T> task) {
+        return execute(scope, idempotencyKey, null, type, result -> true, task);
+    }
+
+    /**
+     * @param fingerprint 요청 내용 (같은 키에 다른 내용이면 거절), null이면 확인하지 않는다.
+     * @param storable    저장할 결과인지 (저장하지 않은 결과는 같은 키로 다시 실행된다)
+     */
+    public <T> T execute(String scope, String idempotencyKey, String fingerprint, TypeReference<T> type,
+                         Predicate<T> storable, Supplier<T> task) {
+        try {
+            return executeAsync(scope, idempotencyKey, fingerprint, type, storable,
+                    () -> CompletableFuture.completedFuture(task.get()))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String scope, String idempotencyKey, TypeReference<T> type,
+                                                 Supplier<CompletableFuture<T>> task) {
+        return executeAsync(scope, idempotencyKey, null, type, result -> true, task);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String scope, String idempotencyKey, String fingerprint,
+                                                 TypeReference<T> type, Predicate<T> storable,
+                                                 Supplier<CompletableFuture<T>> task) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return task.get();
+        }
+
+        String key = KEY_PREFIX + scope + ":" + idempotencyKey;
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        Entry entry = new Entry(fingerprint, created);
+        Entry existing = localResults.asMap().putIfAbsent(key, entry);
+        if (existing != null) {  //처리 중이거나 처리가 끝난 요청
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                return CompletableFuture.failedFuture(new IdempotencyConflict());
+            }
+            return (CompletableFuture<T>) existing.result();
+        }
+
+        CompletableFuture<T> result = (CompletableFuture<T>) (CompletableFuture<?>) created;
+        if (redisHealthMonitor.isAvailable()) {
+            Boolean claimed;
+            try {
+                claimed = redisTemplate.opsForValue().setIfAbsent(key, IN_PROGRESS, IN_PROGRESS_TTL);
+            } catch (RuntimeException e) {  //장애 전환 전의 Redis 오류도 L1만으로 처리
+                orderLogger.warn("멱등성 키 선점 실패, 이 인스턴스에서만 중복 확인 key={}, msg={}", key, e.getMessage());
+                claimed = true;
+            }
+            if (!Boolean.TRUE.equals(claimed)) {
+                try {
+                    result.complete(readStored(key, fingerprint, type));
+                } catch (RuntimeException e) {  //다른 인스턴스의 처리 표시는 그대로 둔다.
+                    localResults.asMap().remove(key, entry);
+                    result.completeExceptionally(e);
+                }
+                return result;
+            }
+        }
+
+        try {
+            task.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    forget(key, entry);
+                    result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    return;
+                }
+                if (storable.test(value)) {
+                    store(key, fingerprint, value);
+                } else {  //실패 응답은 저장하지 않아 같은 키로 다시 시도할 수 있다.
+                    forget(key, entry);
+                }
+                result.complete(value);
+            });
+        } catch (RuntimeException e) {
+            forget(key, entry);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    //다른 인스턴스가 먼저 처리한 결과
+    private <T> T readStored(String key, String fingerprint, TypeReference<T> type) {
+        String stored = redisTemplate.opsForValue().get(key);
+        if (stored == null || IN_PROGRESS.equals(stored)) {
+            throw new IdempotencyConflict();
+        }
+        try {
+            if (fingerprint == null) {
+                return objectMapper.readValue(stored, type);
+            }
+            JsonNode envelope = objectMapper.readTree(stored);
+            if (!fingerprint.equals(envelope.path("fingerprint").asText(null))) {  //같은 키, 다른 요청
+                throw new IdempotencyConflict();
+            }
+            return objectMapper.treeToValue(envelope.get("result"), objectMapper.getTypeFactory().constructType(type));
+        } catch (JsonProcessingException e) {
+            orderLogger.error("멱등성 결과 역직렬화 실패 key={}, msg={}", key, e.getMessage());
+            throw new OrderError();
+        }
+    }
+
+    private void store(String key, String fingerprint, Object value) {
+        if (!redisHealthMonitor.isAvailable()) {
+            return;
+        }
+        try {
+            Object stored = fingerprint == null ? value : new Envelope(fingerprint, value);
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(stored), ttl);
+        } catch (Exception e) {  //L1에는 남아 있으므로 이 인스턴스의 재시도는 계속 중복 처리되지 않는다.
+            orderLogger.error("멱등성 결과 저장 실패 key={}, msg={}", key, e.getMessage());
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        localResults.asMap().remove(key, entry);
+        if (!redisHealthMonitor.isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            orderLogger.error("멱등성 키 해제 실패 key={}, msg={}", key, e.getMessage());
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+
+    private record Envelope(String fingerprint, Object result) {
+    }
+}
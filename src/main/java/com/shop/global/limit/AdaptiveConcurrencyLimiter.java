@@ -0,0 +1,144 @@
+package com.shop.global.limit;
+
+import com.shop.exception.OrderError;
+import com.shop.exception.OrderLockFailed;
+import com.shop.exception.StaleFencingToken;
+import com.shop.exception.TooManyRequests;
+import com.shop.global.limit.ConcurrencyLimitProperties.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AIMD 동시 처리 한도
+ * 처리 중인 요청이 한도를 넘으면 기다리지 않고 바로 TooManyRequests(429)로 거절한다.
+ * 응답 시간이 기준을 넘거나 락 대기 실패가 나면 한도를 비율로 줄이고,
+ * 한도의 절반 이상을 쓰면서 정상 응답하면 한도를 1씩 늘린다.
+ * 과부하와 무관한 실패(재고 부족, 입장권 없음 등)는 빨리 끝나도 처리 능력을 보여주지 않으므로 한도를 바꾸지 않는다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RTT_SMOOTHING = 0.2;
+
+    private final Limit properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    private volatile double limit;
+    private volatile double smoothedRttMs;
+
+    public AdaptiveConcurrencyLimiter(String name, Limit properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("concurrency.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("concurrency.dropped")
+                .description("과부하로 판단되어 한도를 줄인 요청 수")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        int acquiredInFlight = acquire();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.OVERLOAD;
+        try {
+            T result = task.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            release(acquiredInFlight, start, outcome);
+        }
+    }
+
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> task) {
+        int acquiredInFlight = acquire();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            release(acquiredInFlight, start, outcomeOf(e));
+            throw e;
+        }
+        return future.whenComplete((result, error) -> release(acquiredInFlight, start, outcomeOf(error)));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejectedCounter.increment();
+                throw new TooManyRequests(retryAfterSeconds());
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private void release(int acquiredInFlight, long start, Outcome outcome) {
+        inFlight.decrementAndGet();
+        double rttMs = (System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+
+        synchronized (this) {
+            smoothedRttMs = smoothedRttMs == 0 ? rttMs : smoothedRttMs + RTT_SMOOTHING * (rttMs - smoothedRttMs);
+            if (outcome == Outcome.OVERLOAD || rttMs > properties.getLatencyThresholdMs()) {
+                droppedCounter.increment();
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (outcome == Outcome.SUCCESS && acquiredInFlight * 2 >= limit) {  //한도를 충분히 쓰고 있을 때만 증가
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+        }
+    }
+
+    //대기 중인 요청이 한 번 비워질 시간 (최소 1초)
+    private long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(smoothedRttMs / 1_000));
+    }
+
+    private Outcome outcomeOf(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS;
+        }
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof OrderLockFailed || error instanceof StaleFencingToken || error instanceof OrderError) {
+            return Outcome.OVERLOAD;
+        }
+        return Outcome.IGNORED;
+    }
+
+    private enum Outcome {
+
+        SUCCESS,  //정상 처리 -> 한도 증가 대상
+        OVERLOAD,  //락 대기 실패 등 과부하 -> 한도 감소
+        IGNORED,  //과부하와 무관한 실패 -> 응답 시간만 반영
+    }
+}
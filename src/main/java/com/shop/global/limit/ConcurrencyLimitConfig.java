@@ -0,0 +1,23 @@
+package com.shop.global.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderConcurrencyLimiter(ConcurrencyLimitProperties properties,
+                                                              MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("order", properties.getOrder(), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter paymentConcurrencyLimiter(ConcurrencyLimitProperties properties,
+                                                                MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("payment", properties.getPayment(), meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.shop.global.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private Limit order = new Limit();
+    private Limit payment = new Limit(10, 2, 50, 3_000);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int initialLimit = 20;  //시작 동시 처리 한도
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private long latencyThresholdMs = 1_000;  //이 시간을 넘기면 과부하로 보고 한도를 줄인다.
+        private double backoffRatio = 0.9;  //과부하 시 한도 감소 비율
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThresholdMs = latencyThresholdMs;
+        }
+    }
+}
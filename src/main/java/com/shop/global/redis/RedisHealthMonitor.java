@@ -0,0 +1,114 @@
+package com.shop.global.redis;
+
+import com.shop.global.config.OrderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 상태 확인
+ * 주기적으로 PING을 보내 연속 실패가 쌓이면 DB 락 모드로 전환하고, 연속 성공이 쌓이면 Redis 락 모드로 복귀한다.
+ * Redis 장애 중에는 다른 스케줄 작업(Redis 호출)이 응답 대기로 늘어지므로, 전용 스레드에서 확인해 전환이 늦어지지 않게 한다.
+ */
+@Component
+public class RedisHealthMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private final RedissonClient redissonClient;
+    private final OrderProperties.Fallback properties;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+    private ThreadPoolTaskScheduler scheduler;
+    private int consecutiveFailures;  //확인 전용 스레드에서만 갱신
+    private int consecutiveSuccesses;
+
+    private final Counter toDatabaseCounter;
+    private final Counter toRedisCounter;
+
+    public RedisHealthMonitor(RedissonClient redissonClient, OrderProperties orderProperties,
+                              MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.properties = orderProperties.getLock().getFallback();
+        if (properties.isEnabled() && !properties.getMode().usesDatabaseOnly()) {
+            throw new IllegalArgumentException(
+                    "order.lock.fallback.mode는 DB 락 방식(pessimistic, optimistic, conditional_update)이어야 합니다: "
+                            + properties.getMode());
+        }
+
+        this.toDatabaseCounter = Counter.builder("order.lock.mode.switch")
+                .tag("to", "database")
+                .register(meterRegistry);
+        this.toRedisCounter = Counter.builder("order.lock.mode.switch")
+                .tag("to", "redis")
+                .register(meterRegistry);
+        Gauge.builder("order.lock.degraded", degraded, value -> value.get() ? 1 : 0)
+                .description("1이면 Redis 장애로 DB 락 사용 중")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("redis-health-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::probe, Duration.ofMillis(properties.getProbeIntervalMs()));
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    public boolean isAvailable() {
+        return !properties.isEnabled() || !degraded.get();
+    }
+
+    public void probe() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        if (ping()) {
+            consecutiveFailures = 0;
+            if (degraded.get() && ++consecutiveSuccesses >= properties.getRecoveryThreshold()) {
+                degraded.set(false);
+                toRedisCounter.increment();
+                orderLogger.info("Redis 복구 확인. Redis 락으로 복귀");
+            }
+            return;
+        }
+
+        consecutiveSuccesses = 0;
+        if (!degraded.get() && ++consecutiveFailures >= properties.getFailureThreshold()) {
+            degraded.set(true);
+            toDatabaseCounter.increment();
+            orderLogger.error("Redis 응답 없음. DB 락({})으로 전환", properties.getMode());
+        }
+    }
+
+    private boolean ping() {
+        try {
+            return redissonClient.getRedisNodes(RedisNodes.SINGLE)
+                    .pingAll(properties.getProbeTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.shop.repository.member;
 
 import com.shop.domain.member.Member;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
     Optional<Member> findByEmail(String email);
+
+    List<Member> findAllByEmailIn(Collection<String> emails);
 }
@@ -3,31 +3,36 @@ package com.shop.repository.member;
 
 import static com.shop.domain.member.QMember.member;
 
-import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.dto.request.MemberSearch;
 import com.shop.dto.response.MemberResponse;
+import com.shop.global.count.ListCountCache;
+import jakarta.persistence.EntityManager;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 
 @RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    //상한까지만 세는 COUNT, 회원 행은 DB 밖으로 읽어 오지 않는다.
+    private static final String CAPPED_COUNT_QUERY = "SELECT COUNT(*) FROM "
+            + "(SELECT 1 FROM member WHERE email LIKE :pattern LIMIT :cap) capped";
+
     private final JPAQueryFactory queryFactory;
+    private final ListCountCache listCountCache;
+    private final EntityManager entityManager;
 
+    //전체 개수는 같은 조건으로 세되 캐시/별도 스레드에서 처리하고, 그동안 본문을 조회한다.
     @Override
     public Page<MemberResponse> getList(MemberSearch request) {
-        BooleanBuilder builder = new BooleanBuilder();
-        if (request.getQuery() != null && !request.getQuery().isBlank()) {
-            builder.and(member.email.like("%" + request.getQuery() + "%"));
-        }
-
-        Long totalCount = queryFactory.select(member.count())
-                .from(member)
-                .fetchFirst();
+        String query = ListCountCache.normalize(request.getQuery());
+        CompletableFuture<Long> totalCount = listCountCache.count("member", query,
+                limit -> countMembers(query, limit));
 
         List<MemberResponse> members = queryFactory.select(
                         Projections.constructor(
@@ -35,12 +40,31 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
                                 member.email,
                                 member.name))
                 .from(member)
-                .where(builder)
+                .where(emailContains(query))
                 .limit(request.getSize())
                 .offset(request.getOffset())
                 .orderBy(member.id.desc())
                 .fetch();
 
-        return new PageImpl<>(members, request.getPageable(), totalCount);
+        return PageableExecutionUtils.getPage(members, request.getPageable(), () -> ListCountCache.join(totalCount));
+    }
+
+    private long countMembers(String query, Long limit) {
+        if (limit == null) {
+            Long count = queryFactory.select(member.count())
+                    .from(member)
+                    .where(emailContains(query))
+                    .fetchOne();
+            return count == null ? 0 : count;
+        }
+        Object count = entityManager.createNativeQuery(CAPPED_COUNT_QUERY)
+                .setParameter("pattern", "%" + query + "%")
+                .setParameter("cap", limit)
+                .getSingleResult();
+        return ((Number) count).longValue();
+    }
+
+    private BooleanExpression emailContains(String query) {
+        return query.isBlank() ? null : member.email.like("%" + query + "%");
     }
 }
@@ -3,12 +3,18 @@ package com.shop.repository.order;
 import com.shop.domain.order.Order;
 import com.shop.domain.order.OrderStatus;
 import com.shop.repository.order.dto.OrderStatisticsProjection;
+import com.shop.repository.order.dto.ProductQuantityProjection;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
@@ -56,4 +62,73 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
               )
             """)
     List<Long> findPaymentPendingOrdersWithoutPayment();
+
+    //결제 승인이 시작되지 않은 채 선점 기한이 지난 주문 (status, stock_reserved_until 인덱스 범위 조회)
+    @Query("""
+            SELECT o.id
+            FROM Order o
+            WHERE o.status IN :statuses
+              AND o.stockReservedUntil < :now
+              AND o.paymentKey IS NULL
+            ORDER BY o.stockReservedUntil
+            """)
+    List<Long> findExpiredReservationIds(Collection<OrderStatus> statuses, LocalDateTime now, Pageable pageable);
+
+    //잠근 뒤 상태를 다시 확인, 그 사이 결제가 시작되거나 취소된 주문은 제외
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT o
+            FROM Order o
+            WHERE o.id IN :orderIds
+              AND o.status IN :statuses
+              AND o.paymentKey IS NULL
+            """)
+    List<Order> findAllByIdInForUpdate(Collection<Long> orderIds, Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id IN :orderIds")
+    int updateStatus(Collection<Long> orderIds, OrderStatus status);
+
+    //상태 전이 CAS: 현재 상태가 statuses 중 하나일 때만 바꾼다. 1이면 전이 성공, 0이면 다른 요청이 먼저 바꿈
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :orderId AND o.status IN :statuses")
+    int compareAndSetStatus(Long orderId, Collection<OrderStatus> statuses, OrderStatus status);
+
+    //결제 승인 결과 반영, 그 사이 취소/만료된 주문이면 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.shop.domain.order.OrderStatus.COMPLETED, o.paymentKey = :paymentKey "
+            + "WHERE o.id = :orderId AND o.status IN :statuses")
+    int completePayment(Long orderId, String paymentKey, Collection<OrderStatus> statuses);
+
+    //승인 시작 표시 (토스 승인 API 호출 전), 이후 선점 만료 정리와 사용자 취소는 이 주문을 건너뛴다.
+    //같은 paymentKey의 재시도는 다시 성공, 취소/만료/완료됐거나 다른 결제가 진행 중이면 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.shop.domain.order.OrderStatus.PAYMENT_PENDING, o.paymentKey = :paymentKey "
+            + "WHERE o.id = :orderId AND o.status IN :statuses "
+            + "AND (o.paymentKey IS NULL OR o.paymentKey = :paymentKey)")
+    int startPayment(Long orderId, String paymentKey, Collection<OrderStatus> statuses);
+
+    //사용자 취소, 결제 승인이 진행 중인 주문(PAYMENT_PENDING + paymentKey)은 승인 결과가 나올 때까지 취소하지 않는다.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.shop.domain.order.OrderStatus.CANCELED "
+            + "WHERE o.id = :orderId AND o.status IN :statuses "
+            + "AND NOT (o.status = com.shop.domain.order.OrderStatus.PAYMENT_PENDING AND o.paymentKey IS NOT NULL)")
+    int cancelIfNotConfirming(Long orderId, Collection<OrderStatus> statuses);
+
+    @Query("""
+            SELECT op.product.id AS productId, SUM(op.quantity) AS quantity
+            FROM OrderProduct op
+            WHERE op.order.id IN :orderIds
+            GROUP BY op.product.id
+            ORDER BY op.product.id
+            """)
+    List<ProductQuantityProjection> sumQuantitiesByProduct(Collection<Long> orderIds);
+
+    //ID 필터 생성용
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package com.shop.repository.order.dto;
+
+public interface ProductQuantityProjection {
+
+    Long getProductId();
+    Long getQuantity();
+}
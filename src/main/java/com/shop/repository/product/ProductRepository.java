@@ -1,9 +1,73 @@
 package com.shop.repository.product;
 
 import com.shop.domain.product.Product;
+import com.shop.repository.product.dto.ProductNameProjection;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     boolean existsByName(String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :productId")
+    Optional<Product> findByIdForUpdate(Long productId);
+
+    //Redis에서 선점된 재고를 DB에 후반영
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p "
+            + "SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 "
+            + "WHERE p.id = :productId")
+    int decreaseStock(Long productId, int quantity);
+
+    //재고가 충분할 때만 차감, 영향받은 행이 0이면 재고 부족
+    @Modifying
+    @Query("UPDATE Product p "
+            + "SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 "
+            + "WHERE p.id = :productId "
+            + "AND p.stockQuantity >= :quantity")
+    int decreaseStockIfEnough(Long productId, int quantity);
+
+    //읽은 시점 이후 재고가 바뀌지 않았을 때만 갱신, 영향받은 행이 0이면 충돌
+    @Modifying
+    @Query("UPDATE Product p "
+            + "SET p.stockQuantity = :stockQuantity, p.version = p.version + 1 "
+            + "WHERE p.id = :productId "
+            + "AND p.version = :version")
+    int updateStockIfVersionMatches(Long productId, int stockQuantity, long version);
+
+    //취소/만료 주문의 재고 복구 (분할 재고 상품은 상품 행이 보조 샤드)
+    @Modifying
+    @Query("UPDATE Product p "
+            + "SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 "
+            + "WHERE p.id = :productId")
+    int increaseStock(Long productId, int quantity);
+
+    //기록된 토큰보다 클 때만 갱신 (행 잠금은 커밋까지 유지), 영향받은 행이 0이면 임대 만료 후의 늦은 쓰기
+    @Modifying
+    @Query("UPDATE Product p "
+            + "SET p.fencingToken = :fencingToken "
+            + "WHERE p.id = :productId "
+            + "AND p.fencingToken < :fencingToken")
+    int advanceFencingToken(Long productId, long fencingToken);
+
+    //펜싱 토큰 카운터 초기화/복구용
+    @Query("SELECT p.fencingToken FROM Product p WHERE p.id = :productId")
+    Optional<Long> findFencingToken(Long productId);
+
+    //검색 색인 생성용, ID 순서로 나눠 읽는다.
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductNameProjection> findNamesAfter(Long afterId, Pageable pageable);
+
+    //ID 필터 생성용
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
 }
@@ -1,10 +1,17 @@
 package com.shop.repository.product;
 
+import com.shop.dto.request.ProductScrollSearch;
 import com.shop.dto.request.ProductSearch;
 import com.shop.dto.response.ProductResponse;
+import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface ProductRepositoryCustom {
 
     Page<ProductResponse> getList(ProductSearch productSearch);
+
+    Slice<ProductResponse> getSlice(ProductScrollSearch productScrollSearch);
+
+    List<ProductResponse> getListByIds(List<Long> productIds);
 }
@@ -2,51 +2,131 @@ package com.shop.repository.product;
 
 
 import static com.shop.domain.product.QProduct.product;
+import static com.shop.domain.product.QProductStockShard.productStockShard;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ConstructorExpression;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.shop.dto.request.ProductScrollSearch;
 import com.shop.dto.request.ProductSearch;
 import com.shop.dto.response.ProductResponse;
+import com.shop.global.count.ListCountCache;
+import jakarta.persistence.EntityManager;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 
 @RequiredArgsConstructor
 public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
 
+    //LIMIT 서브쿼리가 상한 개수에서 멈추고 DB 안에서 센 개수만 돌려준다. (ID 목록을 읽어 오지 않음)
+    private static final String CAPPED_COUNT_QUERY = "SELECT COUNT(*) FROM "
+            + "(SELECT 1 FROM product WHERE name LIKE :pattern LIMIT :cap) capped";
+
     private final JPAQueryFactory queryFactory;
+    private final ListCountCache listCountCache;
+    private final EntityManager entityManager;
 
+    //전체 개수는 같은 조건으로 세되 캐시/별도 스레드에서 처리하고, 그동안 본문을 조회한다.
     @Override
     public Page<ProductResponse> getList(ProductSearch productSearch) {
+        String query = ListCountCache.normalize(productSearch.getQuery());
+        CompletableFuture<Long> totalCount = listCountCache.count("product", query,
+                limit -> countProducts(query, limit));
+
+        List<ProductResponse> products = queryFactory.select(productResponse())
+                .from(product)
+                .where(nameContains(query))
+                .limit(productSearch.getSize())
+                .offset(productSearch.getOffset())
+                .orderBy(product.id.desc())
+                .fetch();
 
-        BooleanBuilder builder = new BooleanBuilder();
-        if (productSearch.getQuery() != null && !productSearch.getQuery().isBlank()) {
-            builder.and(product.name.like("%" + productSearch.getQuery() + "%"));
+        return PageableExecutionUtils.getPage(products, productSearch.getPageable(),
+                () -> ListCountCache.join(totalCount));
+    }
+
+    private long countProducts(String query, Long limit) {
+        if (limit == null) {
+            Long count = queryFactory.select(product.count())
+                    .from(product)
+                    .where(nameContains(query))
+                    .fetchOne();
+            return count == null ? 0 : count;
         }
+        Object count = entityManager.createNativeQuery(CAPPED_COUNT_QUERY)
+                .setParameter("pattern", "%" + query + "%")
+                .setParameter("cap", limit)
+                .getSingleResult();
+        return ((Number) count).longValue();
+    }
 
-        Long totalCount = queryFactory.select(product.count())
-                .from(product)
-                .fetchFirst();
-
-        List<ProductResponse> products = queryFactory.select(
-                        Projections.constructor(
-                                ProductResponse.class,
-                                product.id,
-                                product.name,
-                                product.price,
-                                product.stockQuantity,
-                                product.description,
-                                product.sellStatus
-                        ))
+    private BooleanExpression nameContains(String query) {
+        return query.isBlank() ? null : product.name.like("%" + query + "%");
+    }
+
+    //product_id < 커서 조건으로 PK 인덱스를 바로 탐색, 한 건 더 읽어 다음 페이지 여부만 판단 (count 없음)
+    @Override
+    public Slice<ProductResponse> getSlice(ProductScrollSearch productScrollSearch) {
+        BooleanBuilder builder = new BooleanBuilder(nameContains(ListCountCache.normalize(productScrollSearch.getQuery())));
+        Long afterId = productScrollSearch.getAfterId();
+        if (afterId != null) {
+            builder.and(product.id.lt(afterId));
+        }
+
+        int limit = productScrollSearch.getLimit();
+        List<ProductResponse> products = queryFactory.select(productResponse())
                 .from(product)
                 .where(builder)
-                .limit(productSearch.getSize())
-                .offset(productSearch.getOffset())
                 .orderBy(product.id.desc())
+                .limit(limit + 1)
                 .fetch();
 
-        return new PageImpl<>(products, productSearch.getPageable(), totalCount);
+        boolean hasNext = products.size() > limit;
+        if (hasNext) {
+            products = products.subList(0, limit);
+        }
+        return new SliceImpl<>(products, PageRequest.ofSize(limit), hasNext);
+    }
+
+    //검색 색인이 찾은 상품만 PK로 조회
+    @Override
+    public List<ProductResponse> getListByIds(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return queryFactory.select(productResponse())
+                .from(product)
+                .where(product.id.in(productIds))
+                .orderBy(product.id.desc())
+                .fetch();
+    }
+
+    private ConstructorExpression<ProductResponse> productResponse() {
+        return Projections.constructor(
+                ProductResponse.class,
+                product.id,
+                product.name,
+                product.price,
+                product.stockQuantity.add(shardStockQuantity()),
+                product.description,
+                product.sellStatus
+        );
+    }
+
+    //분할 재고 상품은 샤드 재고까지 합산
+    private JPQLQuery<Integer> shardStockQuantity() {
+        return JPAExpressions.select(productStockShard.stockQuantity.sum().coalesce(0))
+                .from(productStockShard)
+                .where(productStockShard.productId.eq(product.id));
     }
 }
@@ -0,0 +1,241 @@
+package com.shop.repository.product;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import com.shop.repository.product.dto.ProductNameProjection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 상품명 검색 색인
+ * 시작 시 상품 ID/이름을 ID 순서로 나눠 읽어 트라이그램 색인을 만들고, 등록/삭제는 커밋 후에 이 노드에 반영하고
+ * Redis pub/sub으로 다른 노드에 알린다. (목록 결과는 L2 캐시로 모든 노드가 공유하므로 노드마다 색인이 같아야 한다)
+ * Redis 장애 중에는 메시지를 놓칠 수 있으므로 DB LIKE 검색을 쓰고, 복구되면 색인을 다시 만든다.
+ * 색인이 준비되기 전이거나 3글자 미만 검색어도 DB LIKE 검색을 그대로 쓴다.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex implements MessageListener {
+
+    private static final String ADD = "add";
+    private static final String REMOVE = "remove";
+
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final boolean enabled;
+    private final int buildPageSize;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();  //자기가 보낸 메시지 구분
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex index = new TrigramIndex();  //lock으로 보호
+    private TrigramIndex building;  //다시 만드는 중인 색인, 그동안의 변경도 함께 반영
+    private volatile boolean ready;
+    private volatile boolean stale;  //Redis 장애로 다른 노드의 변경을 놓쳤을 수 있음
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              StringRedisTemplate redisTemplate,
+                              RedisHealthMonitor redisHealthMonitor,
+                              @Value("${product.search-index.enabled:true}") boolean enabled,
+                              @Value("${product.search-index.build-page-size:5000}") int buildPageSize,
+                              @Value("${product.search-index.channel:product:search-index}") String channel) {
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.enabled = enabled;
+        this.buildPageSize = buildPageSize;
+        this.channel = channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        TrigramIndex fresh = new TrigramIndex();
+        lock.writeLock().lock();
+        try {
+            building = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long afterId = 0;
+        while (true) {
+            List<ProductNameProjection> page = productRepository.findNamesAfter(afterId,
+                    PageRequest.ofSize(buildPageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                page.forEach(product -> fresh.add(product.getId(), product.getName()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            building = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("상품 검색 색인 생성 완료: {}건, {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    //Redis 장애를 보면 색인을 쓰지 않고, 복구되면 다시 만든다.
+    @Scheduled(fixedDelayString = "${product.search-index.redis-check-interval-ms:1000}")
+    public void rebuildAfterRedisRecovery() {
+        if (!enabled || !ready) {
+            return;
+        }
+        if (!redisHealthMonitor.isAvailable()) {
+            stale = true;
+            return;
+        }
+        if (stale) {
+            build();
+            stale = false;
+        }
+    }
+
+    public boolean canSearch(String query) {
+        return ready && !stale && redisHealthMonitor.isAvailable() && TrigramIndex.isSearchable(query);
+    }
+
+    //이름에 검색어가 들어 있는 상품 ID (내림차순)
+    public long[] search(String query) {
+        lock.readLock().lock();
+        try {
+            return index.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //search 결과(내림차순)에서 커서(afterId)보다 작은 첫 위치, 이분 탐색
+    public static int indexAfter(long[] productIds, long afterId) {
+        int low = 0;
+        int high = productIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (productIds[mid] >= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public void add(Long productId, String name) {
+        afterCommit(() -> {
+            addLocal(productId, name);
+            publish(ADD + "\n" + productId + "\n" + name);
+        });
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            removeLocal(productId);
+            publish(REMOVE + "\n" + productId);
+        });
+    }
+
+    //다른 노드의 등록/삭제 (노드 ID\n종류\n상품 ID[\n이름])
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\n", 4);
+        try {
+            if (parts[0].equals(nodeId)) {  //자기 색인은 커밋 직후에 이미 반영했다.
+                return;
+            }
+            if (parts.length == 4 && ADD.equals(parts[1])) {
+                addLocal(Long.parseLong(parts[2]), parts[3]);
+            } else if (parts.length == 3 && REMOVE.equals(parts[1])) {
+                removeLocal(Long.parseLong(parts[2]));
+            } else {
+                log.warn("잘못된 상품 검색 색인 메시지: {}", body);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 상품 검색 색인 메시지: {}", body);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocal(long productId, String name) {
+        lock.writeLock().lock();
+        try {
+            index.add(productId, name);
+            if (building != null) {
+                building.add(productId, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocal(long productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+            if (building != null) {
+                building.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void publish(String message) {
+        if (!redisHealthMonitor.isAvailable()) {  //다른 노드도 장애를 보고 LIKE 검색으로 바꾼 뒤 복구 시 다시 만든다.
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "\n" + message);
+        } catch (RuntimeException e) {
+            log.warn("상품 검색 색인 변경 전파 실패 msg={}", e.getMessage());
+        }
+    }
+
+    //롤백된 변경은 색인에 넣지 않는다.
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
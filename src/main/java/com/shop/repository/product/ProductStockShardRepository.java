@@ -0,0 +1,38 @@
+package com.shop.repository.product;
+
+import com.shop.domain.product.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s "
+            + "SET s.stockQuantity = s.stockQuantity - :quantity "
+            + "WHERE s.productId = :productId "
+            + "AND s.shardNo = :shardNo "
+            + "AND s.stockQuantity >= :quantity")
+    int decreaseStockIfEnough(Long productId, int shardNo, int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s "
+            + "SET s.stockQuantity = s.stockQuantity + :quantity "
+            + "WHERE s.productId = :productId "
+            + "AND s.shardNo = :shardNo")
+    int increaseStock(Long productId, int shardNo, int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardNo")
+    List<ProductStockShard> findAllByProductIdForUpdate(Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.stockQuantity), 0) FROM ProductStockShard s WHERE s.productId = :productId")
+    int sumStockQuantity(Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    void deleteAllByProductId(Long productId);
+}
@@ -0,0 +1,173 @@
+package com.shop.repository.product;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 트라이그램 역색인
+ * 이름을 소문자로 바꿔 연속한 3글자마다 문서 번호 목록(오름차순 int 배열)을 둔다.
+ * 부분 문자열 검색은 검색어 트라이그램들의 목록을 교집합한 뒤 원문에 검색어가 들어 있는지 확인한다.
+ * 동기화하지 않으므로 호출자가 읽기/쓰기 락을 잡는다.
+ */
+public class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] productIds = new long[1_024];  //문서 번호 -> 상품 ID
+    private String[] names = new String[1_024];  //문서 번호 -> 소문자 이름
+    private int documentCount;
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> documents = new HashMap<>();  //상품 ID -> 문서 번호
+    private final Map<Long, Postings> postings = new HashMap<>();  //트라이그램 -> 문서 번호 목록
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    //3글자 미만 검색어는 트라이그램이 없어 색인으로 답할 수 없다.
+    public static boolean isSearchable(String query) {
+        return normalize(query).length() >= GRAM_LENGTH;
+    }
+
+    public void add(long productId, String name) {
+        remove(productId);
+        String normalized = normalize(name);
+        int document = documentCount++;
+        if (document == productIds.length) {
+            productIds = Arrays.copyOf(productIds, document * 2);
+            names = Arrays.copyOf(names, document * 2);
+        }
+        productIds[document] = productId;
+        names[document] = normalized;
+        documents.put(productId, document);
+
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            postings.computeIfAbsent(trigram(normalized, i), key -> new Postings()).add(document);
+        }
+    }
+
+    //목록에서 지우지 않고 표시만 한다. (검색 시 제외)
+    public void remove(long productId) {
+        Integer document = documents.remove(productId);
+        if (document != null) {
+            deleted.set(document);
+            names[document] = null;
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return 이름에 검색어가 들어 있는 상품 ID (내림차순)
+     */
+    public long[] search(String query) {
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM_LENGTH) {
+            throw new IllegalArgumentException("검색어는 " + GRAM_LENGTH + "글자 이상이어야 합니다.");
+        }
+
+        Postings[] lists = new Postings[normalized.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(normalized, i));
+            if (lists[i] == null) {
+                return EMPTY;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));  //짧은 목록부터 교집합
+
+        int[] candidates = Arrays.copyOf(lists[0].documents, lists[0].size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.length && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, lists[i]);
+        }
+
+        boolean verify = lists.length > 1;  //트라이그램 하나짜리 검색어는 목록 자체가 정답
+        boolean ascending = true;
+        long[] result = new long[candidateCount];
+        int resultCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int document = candidates[i];
+            if (deleted.get(document) || verify && !names[document].contains(normalized)) {  //트라이그램 순서/간격 확인
+                continue;
+            }
+            long productId = productIds[document];
+            ascending &= resultCount == 0 || result[resultCount - 1] < productId;
+            result[resultCount++] = productId;
+        }
+        result = Arrays.copyOf(result, resultCount);
+        if (!ascending) {  //ID 순으로 적재했다면 문서 번호 순서가 곧 ID 순서
+            Arrays.sort(result);
+        }
+        for (int i = 0, j = resultCount - 1; i < j; i++, j--) {
+            long tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+
+    //candidates 앞쪽에 교집합을 다시 채운다. 두 목록 모두 오름차순
+    private static int intersect(int[] candidates, int candidateCount, Postings other) {
+        int[] documents = other.documents;
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < candidateCount && j < other.size; i++) {
+            int document = candidates[i];
+            j = lowerBound(documents, j, other.size, document);
+            if (j < other.size && documents[j] == document) {
+                candidates[count++] = document;
+            }
+        }
+        return count;
+    }
+
+    //긴 목록은 지수 탐색 후 이분 탐색으로 건너뛴다. documents[from, to)에서 target 이상인 첫 위치
+    private static int lowerBound(int[] documents, int from, int to, int target) {
+        if (from >= to || documents[from] >= target) {
+            return from;
+        }
+        int bound = 1;
+        while (from + bound < to && documents[from + bound] < target) {
+            bound <<= 1;
+        }
+        int low = from + (bound >> 1) + 1;
+        int high = Math.min(from + bound, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (documents[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long trigram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static class Postings {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        //문서 번호는 늘어나기만 하므로 끝에 붙이면 정렬이 유지된다.
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) {  //같은 이름 안에서 반복된 트라이그램
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+}
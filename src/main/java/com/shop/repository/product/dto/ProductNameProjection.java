@@ -0,0 +1,7 @@
+package com.shop.repository.product.dto;
+
+public interface ProductNameProjection {
+
+    Long getId();
+    String getName();
+}
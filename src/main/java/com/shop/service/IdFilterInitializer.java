@@ -0,0 +1,30 @@
+package com.shop.service;
+
+import com.shop.global.bloom.IdFilter;
+import com.shop.repository.order.OrderRepository;
+import com.shop.repository.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시작 시 상품/주문 ID 필터 생성, 생성 전 조회는 DB에서 확인한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdFilterInitializer {
+
+    private final IdFilter idFilter;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        idFilter.build(IdFilter.PRODUCT, (afterId, pageSize) ->
+                productRepository.findIdsAfter(afterId, PageRequest.ofSize(pageSize)));
+        idFilter.build(IdFilter.ORDER, (afterId, pageSize) ->
+                orderRepository.findIdsAfter(afterId, PageRequest.ofSize(pageSize)));
+    }
+}
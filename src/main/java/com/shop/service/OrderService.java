@@ -4,30 +4,47 @@ import com.shop.domain.member.Member;
 import com.shop.domain.order.Order;
 import com.shop.domain.order.OrderProduct;
 import com.shop.domain.order.OrderStats;
+import com.shop.domain.order.OrderStatus;
 import com.shop.domain.product.Product;
+import com.shop.dto.request.CartOrderRequest;
 import com.shop.dto.request.OrderCreateRequest;
 import com.shop.dto.request.OrderSearchRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.OrderResponse;
 import com.shop.dto.response.OrderStatisticsResponse;
+import com.shop.event.OrderEventPublisher;
 import com.shop.exception.MemberNotFound;
+import com.shop.exception.NotEnoughStock;
 import com.shop.exception.OrderMemberMismatch;
 import com.shop.exception.OrderNotFound;
+import com.shop.exception.OrderStatusConflict;
 import com.shop.exception.ProductNotFound;
+import com.shop.exception.StaleFencingToken;
+import com.shop.global.bloom.IdFilter;
+import com.shop.global.config.OrderProperties;
 import com.shop.repository.member.MemberRepository;
 import com.shop.repository.order.OrderRepository;
 import com.shop.repository.order.OrderStatsRepository;
 import com.shop.repository.product.ProductRepository;
+import com.shop.service.dto.BatchOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,32 +60,277 @@ public class OrderService {
     private final MemberRepository memberRepository;
     private final ProductRepository productRepository;
     private final OrderStatsRepository orderStatsRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final StockShardService stockShardService;
+    private final OrderProperties orderProperties;
+    private final IdFilter idFilter;
+    private final MeterRegistry meterRegistry;
 
     public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request) {
         Member member = memberRepository.findByEmail(email)
                 .orElseThrow(MemberNotFound::new);
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(ProductNotFound::new);
-        product.removeStock(request.getQuantity());
+        removeStock(product, request.getQuantity());
 
-        OrderProduct orderProduct = new OrderProduct(product, request.getQuantity());
+        return placeOrder(member, product, request.getQuantity());
+    }
+
+    //분산 락 구간의 주문, 락 획득 때 받은 토큰이 상품 행의 토큰보다 커야 재고를 쓴다.
+    public CommonResponse<OrderResponse> order(String email, OrderCreateRequest request, long fencingToken) {
+        checkFencingToken(request.getProductId(), fencingToken);
+        return order(email, request);
+    }
+
+    //SELECT ... FOR UPDATE로 상품 행을 잠근 뒤 차감
+    public CommonResponse<OrderResponse> orderWithPessimisticLock(String email, OrderCreateRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Product product = productRepository.findByIdForUpdate(request.getProductId())
+                .orElseThrow(ProductNotFound::new);
+        removeStock(product, request.getQuantity());
+
+        return placeOrder(member, product, request.getQuantity());
+    }
+
+    //읽은 버전과 같을 때만 재고 갱신, 충돌하면 예외를 던져 호출자가 재시도
+    public CommonResponse<OrderResponse> orderWithOptimisticLock(String email, OrderCreateRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Product product = productRepository.findById(request.getProductId())
+                .orElseThrow(ProductNotFound::new);
+        if (product.isSplitInventory()) {  //샤드 차감은 조건부 UPDATE라 버전 비교가 필요 없다.
+            removeStock(product, request.getQuantity());
+            return placeOrder(member, product, request.getQuantity());
+        }
+
+        int restStock = product.getStockQuantity() - request.getQuantity();
+        if (restStock < 0) {
+            throw new NotEnoughStock();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int updated = productRepository.updateStockIfVersionMatches(product.getId(), restStock, product.getVersion());
+        sample.stop(stockDecrementTimer());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
+
+        return placeOrder(member, product, request.getQuantity());
+    }
+
+    //조건부 UPDATE 한 번으로 차감, 엔티티를 읽어 수정하지 않는다.
+    public CommonResponse<OrderResponse> orderWithConditionalUpdate(String email, OrderCreateRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+
+        int updated = decreaseStockIfEnough(request.getProductId(), request.getQuantity());
+        if (updated == 0) {
+            //상품 행 재고가 부족해도 분할 재고 상품이면 샤드에서 차감
+            Product product = productRepository.findById(request.getProductId())
+                    .orElseThrow(ProductNotFound::new);
+            if (!product.isSplitInventory()) {
+                throw new NotEnoughStock();
+            }
+            removeStock(product, request.getQuantity());
+            return placeOrder(member, product, request.getQuantity());
+        }
+
+        //주문 가격/이름용 참조 (차감 이후 상태라 dirty checking 대상이 아님)
+        Product product = productRepository.getReferenceById(request.getProductId());
+        return placeOrder(member, product, request.getQuantity());
+    }
+
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request,
+                                                   Map<Long, Long> fencingTokens) {
+        fencingTokens.forEach(this::checkFencingToken);  //상품 ID 순서
+        return orderCart(email, request);
+    }
+
+    //여러 상품을 한 주문으로 처리, 재고가 부족한 줄이 하나라도 있으면 전체 실패
+    public CommonResponse<OrderResponse> orderCart(String email, CartOrderRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Map<Long, Integer> quantities = request.getQuantitiesByProduct();
+        Map<Long, Product> products = findCartProducts(quantities);
+
+        NotEnoughStock notEnoughStock = new NotEnoughStock();
+        quantities.forEach((productId, quantity) -> {
+            int stockQuantity = stockShardService.getTotalStock(products.get(productId));
+            if (stockQuantity < quantity) {
+                notEnoughStock.addValidation(String.valueOf(productId),
+                        "재고가 부족합니다. (남은 재고: " + stockQuantity + ")");
+            }
+        });
+        if (!notEnoughStock.getValidation().isEmpty()) {
+            throw notEnoughStock;
+        }
+
+        //상품 ID 순서로 조건부 차감 (DB 행 잠금 순서 고정), 실패하면 트랜잭션 전체 롤백
+        for (Long productId : new TreeSet<>(quantities.keySet())) {
+            int quantity = quantities.get(productId);
+            Product product = products.get(productId);
+            if (product.isSplitInventory()) {
+                removeStock(product, quantity);
+                continue;
+            }
+            if (decreaseStockIfEnough(productId, quantity) == 0) {
+                notEnoughStock.addValidation(String.valueOf(productId), "재고가 부족합니다.");
+                throw notEnoughStock;
+            }
+        }
+
+        return placeCartOrder(member, quantities, products);
+    }
+
+    //Redis에서 모든 상품의 재고 선점에 성공한 장바구니 주문만 저장 (DB 재고는 스케줄러가 후반영)
+    public CommonResponse<OrderResponse> orderCartReserved(String email, CartOrderRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Map<Long, Integer> quantities = request.getQuantitiesByProduct();
+
+        return placeCartOrder(member, quantities, findCartProducts(quantities));
+    }
+
+    //상품 ID 순서로 상품 행을 SELECT ... FOR UPDATE로 잠근 뒤 차감, 부족한 줄이 있으면 전체 롤백
+    public CommonResponse<OrderResponse> orderCartWithPessimisticLock(String email, CartOrderRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Map<Long, Integer> quantities = request.getQuantitiesByProduct();
+        Map<Long, Product> products = new HashMap<>();
+        for (Long productId : new TreeSet<>(quantities.keySet())) {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(ProductNotFound::new);
+            removeStock(product, quantities.get(productId));
+            products.put(productId, product);
+        }
+
+        return placeCartOrder(member, quantities, products);
+    }
+
+    //모든 상품을 읽은 버전과 같을 때만 갱신, 한 줄이라도 충돌하면 예외로 전체 롤백 후 호출자가 재시도
+    public CommonResponse<OrderResponse> orderCartWithOptimisticLock(String email, CartOrderRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Map<Long, Integer> quantities = request.getQuantitiesByProduct();
+        Map<Long, Product> products = findCartProducts(quantities);
+
+        for (Long productId : new TreeSet<>(quantities.keySet())) {
+            int quantity = quantities.get(productId);
+            Product product = products.get(productId);
+            if (product.isSplitInventory()) {
+                removeStock(product, quantity);
+                continue;
+            }
+            int restStock = product.getStockQuantity() - quantity;
+            if (restStock < 0) {
+                throw new NotEnoughStock();
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int updated = productRepository.updateStockIfVersionMatches(productId, restStock, product.getVersion());
+            sample.stop(stockDecrementTimer());
+            if (updated == 0) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+            }
+        }
+
+        return placeCartOrder(member, quantities, products);
+    }
+
+    private Map<Long, Product> findCartProducts(Map<Long, Integer> quantities) {
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() != quantities.size()) {
+            throw new ProductNotFound();
+        }
+        return products;
+    }
+
+    private CommonResponse<OrderResponse> placeCartOrder(Member member, Map<Long, Integer> quantities,
+                                                         Map<Long, Product> products) {
         List<OrderProduct> orderProducts = new ArrayList<>();
-        orderProducts.add(orderProduct);
+        quantities.forEach((productId, quantity) -> orderProducts.add(new OrderProduct(products.get(productId), quantity)));
 
-        Order order = new Order(member, orderProducts);
-        orderRepository.save(order);
-        orderLogger.info("주문 성공 orderId={}", order.getId());
+        Order order = newOrder(member, orderProducts);
+        insertOrders(List.of(order));
+        onOrderPlaced(order);
+        orderLogger.info("장바구니 주문 성공 orderId={}, 상품={}종", order.getId(), orderProducts.size());
 
         OrderResponse response = OrderResponse.builder()
                 .orderId(order.getId())
                 .build();
-
         return CommonResponse.success(response);
     }
 
+    //Redis에서 재고 선점에 성공한 주문만 저장 (DB 재고는 스케줄러가 후반영)
+    public CommonResponse<OrderResponse> orderReserved(String email, OrderCreateRequest request) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(MemberNotFound::new);
+        Product product = productRepository.findById(request.getProductId())
+                .orElseThrow(ProductNotFound::new);
+
+        return placeOrder(member, product, request.getQuantity());
+    }
+
+    //같은 상품에 대한 주문들을 한 트랜잭션에서 처리 (재고 차감 1회, 주문 일괄 저장)
+    public void orderBatch(Long productId, List<BatchOrder> batchOrders, long fencingToken) {
+        checkFencingToken(productId, fencingToken);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(ProductNotFound::new);
+
+        List<String> emails = batchOrders.stream()
+                .map(BatchOrder::getEmail)
+                .distinct()
+                .toList();
+        Map<String, Member> members = memberRepository.findAllByEmailIn(emails).stream()
+                .collect(Collectors.toMap(Member::getEmail, Function.identity()));
+
+        //도착 순서대로 남은 재고 안에서 수락
+        int stockQuantity = stockShardService.getTotalStock(product);
+        int combinedQuantity = 0;
+        List<BatchOrder> accepted = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (BatchOrder batchOrder : batchOrders) {
+            Member member = members.get(batchOrder.getEmail());
+            if (member == null) {
+                batchOrder.fail(new MemberNotFound());
+                continue;
+            }
+            if (combinedQuantity + batchOrder.getQuantity() > stockQuantity) {
+                batchOrder.fail(new NotEnoughStock());
+                continue;
+            }
+
+            combinedQuantity += batchOrder.getQuantity();
+            List<OrderProduct> orderProducts = new ArrayList<>();
+            orderProducts.add(new OrderProduct(product, batchOrder.getQuantity()));
+            orders.add(newOrder(member, orderProducts));
+            accepted.add(batchOrder);
+        }
+
+        if (combinedQuantity > 0) {
+            removeStock(product, combinedQuantity);
+        }
+        insertOrders(orders);
+        onOrderPlaced(orders);
+        orderLogger.info("일괄 주문 성공 productId={}, 요청={}건, 성공={}건", productId, batchOrders.size(), orders.size());
+
+        for (int i = 0; i < orders.size(); i++) {
+            OrderResponse response = OrderResponse.builder()
+                    .orderId(orders.get(i).getId())
+                    .build();
+            accepted.get(i).succeed(CommonResponse.success(response));
+        }
+    }
+
     public void cancel(String email, Long orderId) {
         Order order = getOrderForMember(email, orderId);
-        order.cancel();
+        //결제 승인/만료 처리와 경합해도 한 요청만 전이에 성공하고, 성공한 요청만 재고를 복구한다.
+        //승인 중인 주문은 토스 승인 결과가 반영된 뒤에 취소할 수 있다.
+        if (orderRepository.cancelIfNotConfirming(orderId, OrderStatus.CANCELABLE) == 0) {
+            throw new OrderStatusConflict();
+        }
+        order.getOrderedQuantities().forEach(productRepository::increaseStock);
+        orderEventPublisher.publishOrderCanceled(order);
     }
 
     @Transactional(readOnly = true)
@@ -170,6 +432,80 @@ public class OrderService {
                 .build();
     }
 
+    private CommonResponse<OrderResponse> placeOrder(Member member, Product product, int quantity) {
+        OrderProduct orderProduct = new OrderProduct(product, quantity);
+        List<OrderProduct> orderProducts = new ArrayList<>();
+        orderProducts.add(orderProduct);
+
+        Order order = newOrder(member, orderProducts);
+        insertOrders(List.of(order));
+        onOrderPlaced(order);
+        orderLogger.info("주문 성공 orderId={}", order.getId());
+
+        OrderResponse response = OrderResponse.builder()
+                .orderId(order.getId())
+                .build();
+
+        return CommonResponse.success(response);
+    }
+
+    //재고 차감, 엔티티 변경분은 flush로 UPDATE 실행까지 잰다.
+    private void removeStock(Product product, int quantity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            stockShardService.removeStock(product, quantity);
+            productRepository.flush();
+        } finally {
+            sample.stop(stockDecrementTimer());
+        }
+    }
+
+    private int decreaseStockIfEnough(Long productId, int quantity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return productRepository.decreaseStockIfEnough(productId, quantity);
+        } finally {
+            sample.stop(stockDecrementTimer());
+        }
+    }
+
+    //주문 INSERT, 배치 쓰기 지연분을 flush해 실행까지 잰다.
+    private void insertOrders(List<Order> orders) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            orderRepository.saveAll(orders);
+            orderRepository.flush();
+        } finally {
+            sample.stop(Timer.builder("order.insert")
+                    .description("주문/주문 상품 INSERT 시간")
+                    .register(meterRegistry));
+        }
+    }
+
+    private Timer stockDecrementTimer() {
+        return Timer.builder("order.stock.decrement")
+                .description("재고 차감 시간")
+                .tag("store", "db")
+                .register(meterRegistry);
+    }
+
+    private void onOrderPlaced(Order order) {
+        onOrderPlaced(List.of(order));
+    }
+
+    //커밋 후 상품 재고 캐시, 주문 ID 필터에 반영 (일괄 주문의 ID는 한 번에 등록)
+    private void onOrderPlaced(List<Order> orders) {
+        orders.forEach(orderEventPublisher::publishOrderPlaced);
+        idFilter.addAll(IdFilter.ORDER, orders.stream().map(Order::getId).toList());
+    }
+
+    //결제 승인 전까지 재고 선점 기한을 둔다.
+    private Order newOrder(Member member, List<OrderProduct> orderProducts) {
+        Order order = new Order(member, orderProducts);
+        order.reserveStockUntil(order.getOrderDate().plus(orderProperties.getReservation().getTtl()));
+        return order;
+    }
+
     private OrderStatisticsResponse toOrderStatisticsResponse(OrderStats stats) {
         return OrderStatisticsResponse.builder()
                 .email(stats.getEmail())
@@ -180,11 +516,29 @@ public class OrderService {
                 .build();
     }
 
+    //상품 행보다 먼저 갱신해 이후 조회한 엔티티가 최신 토큰을 갖도록 한다.
+    private void checkFencingToken(Long productId, long fencingToken) {
+        if (productRepository.advanceFencingToken(productId, fencingToken) == 1) {
+            return;
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFound();
+        }
+        orderLogger.error("만료된 락의 재고 쓰기 거부 productId={}, fencingToken={}", productId, fencingToken);
+        throw new StaleFencingToken();
+    }
+
     private Order getOrderForMember(String email, Long orderId) {
+        if (!idFilter.mightExist(IdFilter.ORDER, orderId)) {  //등록된 적 없는 주문 ID는 DB를 읽지 않는다.
+            throw new OrderNotFound();
+        }
         Member member = memberRepository.findByEmail(email)
                 .orElseThrow(MemberNotFound::new);
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(OrderNotFound::new);
+                .orElseThrow(() -> {
+                    idFilter.markMissing(IdFilter.ORDER, orderId);
+                    return new OrderNotFound();
+                });
 
         Member orderMember = order.getMember();
         boolean isNotOrderedMember = !member.getId().equals(orderMember.getId());
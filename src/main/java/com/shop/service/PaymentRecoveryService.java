@@ -2,10 +2,12 @@ package com.shop.service;
 
 import com.shop.client.TossPaymentsClient;
 import com.shop.domain.order.Order;
+import com.shop.dto.request.PaymentCancelRequest;
 import com.shop.dto.response.PaymentResponse;
 import com.shop.exception.OrderNotFound;
 import com.shop.repository.order.OrderRepository;
 import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +20,9 @@ public class PaymentRecoveryService {
 
     private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
 
+    private static final String APPROVED = "DONE";
+    private static final Set<String> NOT_APPROVED = Set.of("ABORTED", "EXPIRED", "CANCELED");  //승인되지 않고 끝난 결제
+
     private final OrderRepository orderRepository;
     private final TossPaymentsClient tossPaymentsClient;
     private final PaymentTxService paymentTxService;
@@ -46,9 +51,24 @@ public class PaymentRecoveryService {
                 .orElseThrow(OrderNotFound::new);
 
         //토스페이먼츠 API 결제 조회 요청
+        //paymentKey는 승인 요청 전에 기록되므로 승인 중인 결제도 조회된다. 승인 완료(DONE)된 결제만 반영한다.
         try {
             PaymentResponse response = tossPaymentsClient.getPaymentByPaymentKey(order.getPaymentKey());
-            paymentTxService.saveRecoveredPayment(response);  //결제 내역 DB 반영
+            if (NOT_APPROVED.contains(response.getStatus())) {
+                paymentTxService.compensateOrder(orderId);  //주문 취소
+                orderLogger.info("승인되지 않은 결제. 주문 취소: orderId={}, status={}", orderId, response.getStatus());
+                return;
+            }
+            if (!APPROVED.equals(response.getStatus())) {  //승인 진행 중 -> 다음 주기에 다시 확인
+                orderLogger.info("결제 승인 진행 중. 보정 보류: orderId={}, status={}", orderId, response.getStatus());
+                return;
+            }
+            if (!paymentTxService.saveRecoveredPayment(response)) {  //결제 내역 DB 반영, 그 사이 취소된 주문
+                tossPaymentsClient.cancelPayment(response.getPaymentKey(),
+                        new PaymentCancelRequest("취소 또는 만료된 주문의 결제 승인"));
+                orderLogger.info("취소된 주문의 결제 취소: orderId={}", orderId);
+                return;
+            }
             orderLogger.info("결제 내역 보정 성공: orderId={}", orderId);
         } catch (Exception e) {
             orderLogger.error("결제 내역 보정 실패: orderId={}, msg={}", orderId, e.getMessage());
@@ -3,6 +3,9 @@ package com.shop.service;
 import com.shop.client.TossPaymentsClient;
 import com.shop.domain.member.Member;
 import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderStatus;
+import com.shop.domain.payment.TossOrderIdCodec;
+import com.shop.dto.request.PaymentCancelRequest;
 import com.shop.dto.request.PaymentRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.OrderPaymentInfo;
@@ -10,9 +13,13 @@ import com.shop.dto.response.PaymentResponse;
 import com.shop.event.OrderEventPublisher;
 import com.shop.exception.CustomFeignException;
 import com.shop.exception.OrderNotFound;
+import com.shop.exception.OrderStatusConflict;
+import com.shop.global.bloom.IdFilter;
 import com.shop.repository.PaymentRepository;
 import com.shop.repository.order.OrderRepository;
-import java.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,56 +37,97 @@ public class PaymentService {
     private final PaymentTxService paymentTxService;
     private final EmailService emailService;
     private final OrderEventPublisher orderEventPublisher;
+    private final IdFilter idFilter;
+    private final MeterRegistry meterRegistry;
 
     public OrderPaymentInfo getOrderPaymentInfo(Long orderId) {
+        if (!idFilter.mightExist(IdFilter.ORDER, orderId)) {
+            throw new OrderNotFound();
+        }
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(OrderNotFound::new);
+                .orElseThrow(() -> {
+                    idFilter.markMissing(IdFilter.ORDER, orderId);
+                    return new OrderNotFound();
+                });
         Member member = order.getMember();
-        order.processPayment();
+        //취소/만료/완료된 주문은 결제창으로 진행하지 않는다. (상태 전이는 승인 요청에서)
+        if (!OrderStatus.UNPAID.contains(order.getStatus())) {
+            throw new OrderStatusConflict();
+        }
 
         return new OrderPaymentInfo(order, member);
     }
 
     public CommonResponse<PaymentResponse> confirmPayment(PaymentRequest request) {
-        long start = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             orderLogger.info("========== [결제 승인 요청 시작] ==========");
 
             PaymentResponse response;
             String message = "";
 
+            //승인 시작 표시, 토스 응답을 기다리는 동안 선점 만료 정리와 사용자 취소가 주문을 건너뛴다.
+            Long orderId = TossOrderIdCodec.decode(request.getOrderId());
+            paymentTxService.startPayment(orderId, request.getPaymentKey());
+
             //토스페이먼츠 API 요청
             try {
-                response = tossPaymentsClient.confirmPayment(request);
-                paymentTxService.updateOrderPaymentKey(response);  //paymentKey 저장
+                response = confirmWithToss(request);
                 orderLogger.info("토스페이먼츠 API 결제 요청 성공");
             } catch (CustomFeignException e) {  //토스페이먼츠 API 요청 실패 -> 주문 취소
                 message = e.getMessage();
                 orderLogger.error("토스페이먼츠 API 결제 요청 실패: {}", e.getMessage());
-                paymentTxService.compensateOrder(decodeOrderId(request.getOrderId()));  //주문 취소
+                paymentTxService.compensateOrder(orderId);  //주문 취소
                 return CommonResponse.fail(e.getCode(), message);
             }
 
             //토스페이먼츠 API 요청 성공 -> 결제 성공
+            boolean completed;
             try {
-                paymentTxService.successPayment(response);  //주문 성공 & 결제 내역 저장
-                orderLogger.info("결제 성공");
-                return CommonResponse.success(response);
-            } catch (Exception e) {  //결제 내역 DB 저장 실패 -> 보정 필요
+                completed = paymentTxService.successPayment(response);  //주문 성공 & 결제 내역 저장
+            } catch (Exception e) {  //결제 내역 DB 저장 실패 -> 보정 스케줄러가 paymentKey로 반영
                 orderLogger.error("결제 내역 DB 저장 실패. 보정 필요: {}", e.getMessage());
+                return CommonResponse.success(response);
+            }
+            if (!completed) {  //그 사이 주문이 취소/만료됨 -> 승인된 결제 취소
+                cancelWithToss(response.getPaymentKey(), "취소 또는 만료된 주문의 결제 승인");
+                throw new OrderStatusConflict();
             }
+            orderLogger.info("결제 성공");
 
             return CommonResponse.success(response);
         } finally {
-            long end = System.currentTimeMillis();
-            orderLogger.info("========== [결제 승인 요청 종료] 전체 처리 시간: {}ms ==========", (end - start));
+            long elapsed = sample.stop(Timer.builder("payment.confirm")
+                    .description("결제 승인 요청 전체 처리 시간")
+                    .register(meterRegistry));
+            orderLogger.info("========== [결제 승인 요청 종료] 전체 처리 시간: {}ms ==========",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
         }
     }
 
-    private Long decodeOrderId(String orderId) {
-        String cleaned = orderId.replaceAll("-", "");
-        byte[] decode = Base64.getDecoder().decode(cleaned);
-        String rawOrderId = new String(decode);
-        return Long.parseLong(rawOrderId);
+    //승인된 결제 취소, 실패하면 수동 환불 대상으로 남긴다.
+    private void cancelWithToss(String paymentKey, String reason) {
+        try {
+            tossPaymentsClient.cancelPayment(paymentKey, new PaymentCancelRequest(reason));
+            orderLogger.info("결제 취소 성공: paymentKey={}", paymentKey);
+        } catch (Exception e) {
+            orderLogger.error("결제 취소 실패. 수동 환불 필요: paymentKey={}, msg={}", paymentKey, e.getMessage());
+        }
+    }
+
+    //토스페이먼츠 승인 API 응답 시간 (실패 응답 포함)
+    private PaymentResponse confirmWithToss(PaymentRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "failure";
+        try {
+            PaymentResponse response = tossPaymentsClient.confirmPayment(request);
+            result = "success";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("payment.toss.confirm")
+                    .description("토스페이먼츠 결제 승인 API 시간")
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
     }
 }
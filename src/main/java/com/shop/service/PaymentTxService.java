@@ -1,13 +1,16 @@
 package com.shop.service;
 
 import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderStatus;
 import com.shop.domain.payment.Payment;
+import com.shop.domain.payment.TossOrderIdCodec;
 import com.shop.dto.response.PaymentResponse;
 import com.shop.event.OrderEventPublisher;
 import com.shop.exception.OrderNotFound;
+import com.shop.exception.OrderStatusConflict;
 import com.shop.repository.PaymentRepository;
 import com.shop.repository.order.OrderRepository;
-import java.util.Base64;
+import com.shop.repository.product.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,47 +26,62 @@ public class PaymentTxService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
     private final OrderEventPublisher orderEventPublisher;
 
-    //결제 성공 -> DB 저장
-    public void successPayment(PaymentResponse response) {
-        Order order = orderRepository.findById(decodeOrderId(response))
-                .orElseThrow(OrderNotFound::new);
-        Payment payment = new Payment(response, order);
-        paymentRepository.save(payment);
+    //토스 승인 API 호출 전 승인 시작 표시 (PAYMENT_PENDING + paymentKey), 결제할 수 없는 주문이면 OrderStatusConflict
+    public void startPayment(Long orderId, String paymentKey) {
+        if (orderRepository.startPayment(orderId, paymentKey, OrderStatus.UNPAID) == 0) {
+            throw new OrderStatusConflict();
+        }
+    }
 
-        orderEventPublisher.publishOrderCompleted(order);
-        orderLogger.info("주문 완료");
+    /**
+     * 결제 성공 -> DB 저장
+     * @return 완료 전이 성공 여부 (false면 승인된 결제를 취소해야 한다)
+     */
+    public boolean successPayment(PaymentResponse response) {
+        return completeOrder(response);
     }
 
-    //주문에 PaymentKey 우선 저장
-    public void updateOrderPaymentKey(PaymentResponse response) {
-        Order order = orderRepository.findById(decodeOrderId(response))
+    //결제 내역 보상
+    public boolean saveRecoveredPayment(PaymentResponse response) {
+        return completeOrder(response);
+    }
+
+    //결제 실패 시 주문 취소, 전이에 성공한 요청만 재고를 복구한다.
+    public void compensateOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
                 .orElseThrow(OrderNotFound::new);
-        order.setPaymentKey(response.getPaymentKey());
+        if (orderRepository.compareAndSetStatus(orderId, OrderStatus.UNPAID, OrderStatus.CANCELED) == 0) {
+            orderLogger.info("이미 처리된 주문. 보상 생략: orderId={}", orderId);
+            return;
+        }
+        order.getOrderedQuantities().forEach(productRepository::increaseStock);
+        orderEventPublisher.publishOrderCanceled(order);
     }
 
-    //결제 내역 보상
-    public void saveRecoveredPayment(PaymentResponse response) {
-        Order order = orderRepository.findById(decodeOrderId(response))
+    //결제 전 상태에서만 완료로 전이, 그 사이 취소/만료된 주문이면 결제 내역을 남기지 않는다.
+    private boolean completeOrder(PaymentResponse response) {
+        Long orderId = decodeOrderId(response);
+        if (orderRepository.completePayment(orderId, response.getPaymentKey(), OrderStatus.UNPAID) == 0) {
+            orderLogger.error("결제 완료 전이 실패. 결제 취소 필요: orderId={}, paymentKey={}",
+                    orderId, response.getPaymentKey());
+            return false;
+        }
+
+        //전이 이후 조회 -> 최신 상태, 행 잠금은 커밋까지 유지
+        Order order = orderRepository.findById(orderId)
                 .orElseThrow(OrderNotFound::new);
         Payment payment = new Payment(response, order);
         paymentRepository.save(payment);
+
         orderEventPublisher.publishOrderCompleted(order);
         orderLogger.info("주문 완료");
-    }
-
-    //결제 실패 시 주문 취소
-    public void compensateOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(OrderNotFound::new);
-        order.cancel();
+        return true;
     }
 
     private Long decodeOrderId(PaymentResponse response) {
-        String cleaned = response.getOrderId().replaceAll("-", "");
-        byte[] decode = Base64.getDecoder().decode(cleaned);
-        String rawOrderId = new String(decode);
-        return Long.parseLong(rawOrderId);
+        return TossOrderIdCodec.decode(response.getOrderId());
     }
 }
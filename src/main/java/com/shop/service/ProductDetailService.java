@@ -0,0 +1,34 @@
+package com.shop.service;
+
+import com.shop.exception.ProductNotFound;
+import com.shop.repository.product.ProductRepository;
+import com.shop.service.dto.ProductDetail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 상품 상세 캐시
+ * 이름, 가격, 설명은 등록 후 바뀌지 않으므로 길게 캐시하고 상품이 삭제될 때만 지운다.
+ * (ProductService 안에서 호출하면 프록시를 거치지 않으므로 별도 빈으로 분리)
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductDetailService {
+
+    private final ProductRepository productRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "productDetailCache", key = "#productId")
+    public ProductDetail get(Long productId) {
+        return productRepository.findById(productId)
+                .map(ProductDetail::new)
+                .orElseThrow(ProductNotFound::new);
+    }
+
+    @CacheEvict(value = "productDetailCache", key = "#productId")
+    public void evict(Long productId) {
+    }
+}
@@ -2,26 +2,45 @@ package com.shop.service;
 
 import com.shop.domain.product.Product;
 import com.shop.dto.request.ProductCreate;
+import com.shop.dto.request.ProductScrollSearch;
 import com.shop.dto.request.ProductSearch;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.ProductResponse;
+import com.shop.dto.response.ProductSliceResponse;
 import com.shop.exception.ProductAlreadyExists;
 import com.shop.exception.ProductNotFound;
+import com.shop.global.bloom.IdFilter;
+import com.shop.global.cache.CacheGeneration;
 import com.shop.repository.product.ProductRepository;
+import com.shop.repository.product.ProductSearchIndex;
+import com.shop.service.dto.ProductDetail;
+import java.util.Arrays;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+    private final ProductSearchIndex productSearchIndex;
+    private final CacheGeneration cacheGeneration;
+    private final ProductDetailService productDetailService;
+    private final ProductStockCache productStockCache;
+    private final IdFilter idFilter;
 
     //Unique 제약 조건
     public void save(ProductCreate request) {
@@ -31,6 +50,9 @@ public class ProductService {
         } catch (DataIntegrityViolationException e) {
             throw new ProductAlreadyExists();
         }
+        productSearchIndex.add(product.getId(), product.getName());
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+        idFilter.add(IdFilter.PRODUCT, product.getId());
     }
 
     //synchronized
@@ -43,13 +65,39 @@ public class ProductService {
 
         Product product = new Product(request);
         productRepository.save(product);
+        productSearchIndex.add(product.getId(), product.getName());
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+        idFilter.add(IdFilter.PRODUCT, product.getId());
     }
 
+    //변하지 않는 필드는 상세 캐시, 재고는 짧은 TTL 캐시(또는 Redis 카운터)에서 따로 가져와 합친다.
+    //등록된 적 없는 ID는 ID 필터에서 걸러 캐시, DB까지 가지 않는다.
     public CommonResponse<ProductResponse> get(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(ProductNotFound::new);
+        if (!idFilter.mightExist(IdFilter.PRODUCT, productId)) {
+            throw new ProductNotFound();
+        }
+        ProductDetail productDetail;
+        try {
+            productDetail = productDetailService.get(productId);
+        } catch (ProductNotFound e) {  //블룸 필터 오탐, 삭제된 상품
+            idFilter.markMissing(IdFilter.PRODUCT, productId);
+            throw e;
+        }
+        int stockQuantity = productStockCache.get(productId);
 
-        return CommonResponse.success(new ProductResponse(product));
+        return CommonResponse.success(productDetail.toResponse(stockQuantity));
+    }
+
+    //주문이 몰리는 상품의 재고를 여러 행으로 분할 (shardCount가 0이면 단일 행으로 복귀)
+    @Transactional
+    public void splitStock(Long productId, int shardCount) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(ProductNotFound::new);
+        if (shardCount == 0) {
+            stockShardService.merge(product);
+            return;
+        }
+        stockShardService.split(product, shardCount);
     }
 
     //public List<ProductResponse> getList(Pageable pageable) {
@@ -62,19 +110,66 @@ public class ProductService {
      * @Cacheable Look Aside 전략으로 동작
      * Cache Hit 캐시에 데이터가 있으면 캐시에서 바로 반환
      * Cache Miss 캐시에 없으면 DB에서 가져와서 캐시에 저장 후 반환
+     * 키 앞의 세대 번호는 상품이 등록/삭제될 때마다 올라가므로 이전 목록 페이지는 더 이상 조회되지 않는다.
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "productsCache", key = "#productSearch.query + '_' + #productSearch.page + '_' + #productSearch.size")
+    @Cacheable(value = "productsCache", key = "@cacheGeneration.current('catalog') + '_' + #productSearch.query"
+            + " + '_' + #productSearch.page + '_' + #productSearch.size")
     public CommonResponse<Page<ProductResponse>> getList(ProductSearch productSearch) {
+        if (productSearchIndex.canSearch(productSearch.getQuery())) {  //색인으로 ID를 찾고 해당 페이지만 DB 조회
+            long[] productIds = productSearchIndex.search(productSearch.getQuery());
+            Pageable pageable = productSearch.getPageable();
+            int from = (int) Math.min(pageable.getOffset(), productIds.length);
+            int to = Math.min(from + pageable.getPageSize(), productIds.length);
+            List<ProductResponse> products = productRepository.getListByIds(range(productIds, from, to));
+            return CommonResponse.success(new PageImpl<>(products, pageable, productIds.length));
+        }
+
         Page<ProductResponse> page = productRepository.getList(productSearch);
         return CommonResponse.success(page);
     }
 
+    //무한 스크롤용 커서 조회, 깊은 페이지도 앞 페이지를 건너뛰지 않는다. (관리자 화면은 getList의 오프셋 페이징 유지)
+    @Transactional(readOnly = true)
+    public CommonResponse<ProductSliceResponse> getSlice(ProductScrollSearch productScrollSearch) {
+        if (productSearchIndex.canSearch(productScrollSearch.getQuery())) {
+            long[] productIds = productSearchIndex.search(productScrollSearch.getQuery());
+            Long afterId = productScrollSearch.getAfterId();
+            int from = afterId == null ? 0 : ProductSearchIndex.indexAfter(productIds, afterId);
+            int limit = productScrollSearch.getLimit();
+            int to = Math.min(from + limit, productIds.length);
+            List<ProductResponse> products = productRepository.getListByIds(range(productIds, from, to));
+            return CommonResponse.success(new ProductSliceResponse(
+                    new SliceImpl<>(products, PageRequest.ofSize(limit), to < productIds.length)));
+        }
+
+        Slice<ProductResponse> slice = productRepository.getSlice(productScrollSearch);
+        return CommonResponse.success(new ProductSliceResponse(slice));
+    }
+
     @Transactional
-    @CacheEvict(value = "productsCache")
     public void delete(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(ProductNotFound::new);
         productRepository.delete(product);
+        productSearchIndex.remove(productId);
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+        evictAfterCommit(productId);
+    }
+
+    //커밋 전에 지우면 동시 조회가 삭제 전 상품을 다시 캐시할 수 있다.
+    private void evictAfterCommit(Long productId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productDetailService.evict(productId);
+                productStockCache.evict(productId);
+                idFilter.markMissing(IdFilter.PRODUCT, productId);
+            }
+        });
+    }
+
+    private static List<Long> range(long[] productIds, int from, int to) {
+        return Arrays.stream(productIds, from, to).boxed().toList();
     }
 }
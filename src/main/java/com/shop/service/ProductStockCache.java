@@ -0,0 +1,104 @@
+package com.shop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shop.domain.product.Product;
+import com.shop.exception.ProductNotFound;
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.redis.RedisHealthMonitor;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 상품 재고 캐시
+ * 상품 상세의 재고만 따로 짧게 캐시한다. (이름, 가격, 설명은 ProductDetailService에서 길게 캐시)
+ * Redis 재고 선점 모드에서는 재고의 기준인 Redis 카운터를 바로 읽는다.
+ * 주문/취소가 커밋되면 이 인스턴스의 캐시 값을 수량만큼 고치고, 다른 인스턴스는 TTL 안에 DB 값으로 맞춰진다.
+ */
+@Slf4j
+@Service
+public class ProductStockCache {
+
+    private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+    private final StockReservationService stockReservationService;
+    private final OrderProperties orderProperties;
+    private final RedisHealthMonitor redisHealthMonitor;
+    private final Cache<Long, Integer> cache;
+
+    public ProductStockCache(ProductRepository productRepository,
+                             StockShardService stockShardService,
+                             StockReservationService stockReservationService,
+                             OrderProperties orderProperties,
+                             RedisHealthMonitor redisHealthMonitor,
+                             MeterRegistry meterRegistry,
+                             @Value("${product.stock-cache.ttl:1s}") Duration ttl,
+                             @Value("${product.stock-cache.maximum-size:10000}") long maximumSize) {
+        this.productRepository = productRepository;
+        this.stockShardService = stockShardService;
+        this.stockReservationService = stockReservationService;
+        this.orderProperties = orderProperties;
+        this.redisHealthMonitor = redisHealthMonitor;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new LoadedAtExpiry(ttl))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productStockCache");
+    }
+
+    public int get(Long productId) {
+        if (orderProperties.getStockMode() == StockMode.REDIS_RESERVATION && redisHealthMonitor.isAvailable()) {
+            try {
+                return stockReservationService.getStock(productId);
+            } catch (RuntimeException e) {  //Redis 명령 실패 -> DB 재고 (미반영 차감분만큼 많게 보일 수 있다)
+                log.warn("Redis 재고 조회 실패 productId={}, msg={}", productId, e.getMessage());
+            }
+        }
+        return cache.get(productId, this::load);
+    }
+
+    //커밋된 재고 변경을 캐시 값에 반영 (주문은 음수), 캐시에 없으면 다음 조회 때 DB에서 읽는다.
+    public void adjust(Long productId, int delta) {
+        cache.asMap().computeIfPresent(productId, (id, stock) -> Math.max(0, stock + delta));
+    }
+
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    private int load(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(ProductNotFound::new);
+        return stockShardService.getTotalStock(product);
+    }
+
+    /**
+     * DB에서 읽은 시점부터 TTL을 센다.
+     * adjust로 값을 고쳐도 만료 시각을 미루지 않으므로, 주문이 계속 들어와도 TTL마다 DB 값으로 다시 맞춰진다.
+     */
+    private record LoadedAtExpiry(Duration ttl) implements Expiry<Long, Integer> {
+
+        @Override
+        public long expireAfterCreate(Long productId, Integer stock, long currentTime) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long productId, Integer stock, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Long productId, Integer stock, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shop.service;
+
+import com.shop.global.config.OrderProperties;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 재고 선점 만료 정리
+ * 결제 승인까지 가지 못한 NEW/PAYMENT_PENDING 주문을 페이지 단위로 취소해 재고를 다시 판매 가능하게 만든다.
+ * 페이지마다 별도 트랜잭션이라 한 번에 많은 행을 오래 잠그지 않는다.
+ * 여러 인스턴스가 같은 후보를 잠그려 다투지 않도록 ShedLock으로 한 인스턴스에서만 실행한다.
+ * (락이 풀린 뒤 겹쳐 실행되더라도 잠금 후 상태를 다시 확인하므로 같은 주문을 두 번 취소하지 않는다)
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationExpiryService {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private final ReservationExpiryTxService reservationExpiryTxService;
+    private final OrderProperties orderProperties;
+
+    @Scheduled(fixedDelayString = "${order.reservation.sweep-interval-ms:60000}")
+    @SchedulerLock(name = "reservationExpirySweep", lockAtLeastFor = "PT5S")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int pageSize = orderProperties.getReservation().getSweepPageSize();
+        try {
+            int expired;
+            do {
+                expired = reservationExpiryTxService.expirePage(now, pageSize);
+            } while (expired == pageSize);
+        } catch (Exception e) {  //다음 주기에 이어서 정리
+            orderLogger.error("선점 만료 주문 정리 실패 msg={}", e.getMessage());
+        }
+    }
+}
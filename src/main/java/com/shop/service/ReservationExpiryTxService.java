@@ -0,0 +1,61 @@
+package com.shop.service;
+
+import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderStatus;
+import com.shop.event.OrderEventPublisher;
+import com.shop.repository.order.OrderRepository;
+import com.shop.repository.order.dto.ProductQuantityProjection;
+import com.shop.repository.product.ProductRepository;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReservationExpiryTxService {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final OrderEventPublisher orderEventPublisher;
+
+    /**
+     * 만료 주문 한 페이지를 취소하고 재고를 상품별 UPDATE 한 번으로 돌려놓는다.
+     * @return 조회된 만료 주문 수 (pageSize보다 작으면 더 이상 없음)
+     */
+    public int expirePage(LocalDateTime now, int pageSize) {
+        List<Long> candidateIds = orderRepository.findExpiredReservationIds(OrderStatus.UNPAID, now,
+                PageRequest.of(0, pageSize));
+        if (candidateIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> orderIds = orderRepository.findAllByIdInForUpdate(candidateIds, OrderStatus.UNPAID).stream()
+                .map(Order::getId)
+                .toList();
+        if (orderIds.isEmpty()) {
+            return candidateIds.size();
+        }
+
+        Map<Long, Integer> restoredQuantities = new LinkedHashMap<>();
+        for (ProductQuantityProjection projection : orderRepository.sumQuantitiesByProduct(orderIds)) {
+            restoredQuantities.put(projection.getProductId(), projection.getQuantity().intValue());
+        }
+
+        orderRepository.updateStatus(orderIds, OrderStatus.CANCELED);
+        restoredQuantities.forEach(productRepository::increaseStock);  //상품 ID 순서로 행 잠금
+        orderEventPublisher.publishReservationExpired(orderIds, restoredQuantities);
+
+        orderLogger.info("선점 만료 주문 취소 {}건, 재고 복구 상품 {}종", orderIds.size(), restoredQuantities.size());
+        return candidateIds.size();
+    }
+}
@@ -0,0 +1,271 @@
+package com.shop.service;
+
+import com.shop.domain.product.Product;
+import com.shop.exception.NotEnoughStock;
+import com.shop.exception.OrderError;
+import com.shop.exception.ProductNotFound;
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Redis 재고 선점
+ * 상품 재고를 Redis 카운터로 관리하고 Lua 스크립트로 원자적으로 차감한다.
+ * 차감된 수량은 stock:pending 해시에 누적되고, 스케줄러가 주기적으로 DB 재고에 반영한다.
+ * 카운터 적재(DB 재고 - 미반영 차감분)와 후반영(미반영분 꺼내기 + DB 차감)은 상품별 같은 락 안에서 실행한다.
+ * 그렇지 않으면 적재가 DB를 읽은 뒤 후반영이 커밋될 때 그 차감분이 양쪽 모두에서 빠져 재고가 많게 적재된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private static final String STOCK_KEY_PREFIX = "stock:product:";
+    private static final String PENDING_KEY = "stock:pending";
+    private static final String SYNC_LOCK_KEY_PREFIX = "lock:stock-sync:";
+
+    private static final long NOT_LOADED = -2L;
+    private static final long NOT_ENOUGH = -1L;
+
+    //재고 키가 없으면 -2, 재고가 부족하면 -1, 성공하면 남은 재고
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then
+                return -2
+            end
+            local quantity = tonumber(ARGV[2])
+            if tonumber(stock) < quantity then
+                return -1
+            end
+            redis.call('HINCRBY', KEYS[2], ARGV[1], quantity)
+            return redis.call('DECRBY', KEYS[1], quantity)
+            """, Long.class);
+
+    //여러 상품을 한 번에 선점 (전부 성공하거나 아무것도 차감하지 않음)
+    //KEYS: 미반영 해시, 재고 키... / ARGV: 상품 ID, 수량 쌍
+    //성공하면 0, i번째 재고 키가 없으면 -i, i번째 재고가 부족하면 i
+    private static final RedisScript<Long> RESERVE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #KEYS do
+                local stock = redis.call('GET', KEYS[i])
+                if not stock then
+                    return -(i - 1)
+                end
+                if tonumber(stock) < tonumber(ARGV[(i - 1) * 2]) then
+                    return i - 1
+                end
+            end
+            for i = 2, #KEYS do
+                local quantity = tonumber(ARGV[(i - 1) * 2])
+                redis.call('HINCRBY', KEYS[1], ARGV[(i - 1) * 2 - 1], quantity)
+                redis.call('DECRBY', KEYS[i], quantity)
+            end
+            return 0
+            """, Long.class);
+
+    //선점 취소: 재고를 되돌리고 미반영 수량도 함께 줄인다.
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -2
+            end
+            redis.call('HINCRBY', KEYS[2], ARGV[1], -tonumber(ARGV[2]))
+            return redis.call('INCRBY', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    //DB 재고에서 아직 반영되지 않은 차감분을 빼고 적재
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+            redis.call('SET', KEYS[1], tonumber(ARGV[2]) - pending, 'NX')
+            return tonumber(redis.call('GET', KEYS[1]))
+            """, Long.class);
+
+    //DB 반영할 차감분을 꺼내고 초기화
+    private static final RedisScript<Long> DRAIN_SCRIPT = new DefaultRedisScript<>("""
+            local delta = redis.call('HGET', KEYS[1], ARGV[1])
+            if not delta then
+                return 0
+            end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            return tonumber(delta)
+            """, Long.class);
+
+    //이미 DB에 반영된 재고 복구분을 Redis 카운터에도 반영
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -2
+            end
+            return redis.call('INCRBY', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedissonClient redissonClient;
+    private final ProductRepository productRepository;
+    private final OrderProperties orderProperties;
+    private final StockShardService stockShardService;
+    private final MeterRegistry meterRegistry;
+
+    public void reserve(Long productId, int quantity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            long result = execute(RESERVE_SCRIPT, productId, quantity);
+            if (result == NOT_LOADED) {
+                load(productId);
+                result = execute(RESERVE_SCRIPT, productId, quantity);
+            }
+            if (result == NOT_ENOUGH) {
+                throw new NotEnoughStock();
+            }
+        } finally {
+            sample.stop(stockDecrementTimer());
+        }
+    }
+
+    /**
+     * 장바구니의 모든 상품을 한 스크립트로 선점한다. 한 줄이라도 재고가 부족하면 아무것도 차감하지 않는다.
+     */
+    public void reserveAll(Map<Long, Integer> quantities) {
+        List<Long> productIds = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        keys.add(PENDING_KEY);
+        for (Long productId : productIds) {
+            keys.add(stockKey(productId));
+            args.add(productId.toString());
+            args.add(String.valueOf(quantities.get(productId)));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            //적재되지 않은 카운터를 하나씩 적재하며 다시 실행 (상품 수만큼이면 모두 적재됨)
+            for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+                Long result = redisTemplate.execute(RESERVE_ALL_SCRIPT, keys, args.toArray());
+                if (result == null || result == 0) {
+                    return;
+                }
+                Long productId = productIds.get((int) Math.abs(result) - 1);
+                if (result > 0) {
+                    NotEnoughStock notEnoughStock = new NotEnoughStock();
+                    notEnoughStock.addValidation(String.valueOf(productId), "재고가 부족합니다.");
+                    throw notEnoughStock;
+                }
+                load(productId);
+            }
+            throw new OrderError();
+        } finally {
+            sample.stop(stockDecrementTimer());
+        }
+    }
+
+    public void releaseAll(Map<Long, Integer> quantities) {
+        quantities.forEach(this::release);
+    }
+
+    public void release(Long productId, int quantity) {
+        execute(RELEASE_SCRIPT, productId, quantity);
+    }
+
+    //주문 취소로 DB 재고가 복구된 경우
+    public void restore(Long productId, int quantity) {
+        redisTemplate.execute(RESTORE_SCRIPT, List.of(stockKey(productId)), String.valueOf(quantity));
+    }
+
+    //상품 상세의 재고 표시용, 카운터가 아직 없으면 DB 재고로 적재한 값
+    public int getStock(Long productId) {
+        String stock = redisTemplate.opsForValue().get(stockKey(productId));
+        long result = stock == null ? load(productId) : Long.parseLong(stock);
+        return (int) Math.max(0, result);
+    }
+
+    @Scheduled(fixedDelayString = "${order.reservation.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        if (orderProperties.getStockMode() != StockMode.REDIS_RESERVATION) {
+            return;
+        }
+
+        Set<Object> productIds = redisTemplate.opsForHash().keys(PENDING_KEY);
+        for (Object rawProductId : productIds) {
+            Long productId = Long.valueOf(rawProductId.toString());
+            RLock lock = syncLock(productId);
+            lock.lock();
+            try {
+                drain(productId);
+            } finally {
+                unlock(lock);
+            }
+        }
+    }
+
+    private void drain(Long productId) {
+        Long delta = redisTemplate.execute(DRAIN_SCRIPT, List.of(PENDING_KEY), productId.toString());
+        if (delta == null || delta == 0) {
+            return;
+        }
+
+        try {
+            productRepository.decreaseStock(productId, delta.intValue());
+        } catch (Exception e) {  //DB 반영 실패 -> 다음 주기에 재시도
+            redisTemplate.opsForHash().increment(PENDING_KEY, productId.toString(), delta);
+            orderLogger.error("재고 후반영 실패 productId={}, delta={}, msg={}", productId, delta, e.getMessage());
+        }
+    }
+
+    //후반영과 같은 락 안에서 DB 재고와 미반영 차감분을 읽는다. (둘 중 한쪽에만 차감분이 있는 시점)
+    private long load(Long productId) {
+        RLock lock = syncLock(productId);
+        lock.lock();
+        try {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(ProductNotFound::new);
+            return execute(LOAD_SCRIPT, productId, stockShardService.getTotalStock(product));
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    private Timer stockDecrementTimer() {
+        return Timer.builder("order.stock.decrement")
+                .description("재고 차감 시간")
+                .tag("store", "redis")
+                .register(meterRegistry);
+    }
+
+    private RLock syncLock(Long productId) {
+        return redissonClient.getLock(SYNC_LOCK_KEY_PREFIX + productId);
+    }
+
+    private void unlock(RLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            try {
+                lock.unlock();
+            } catch (IllegalMonitorStateException ignore) {
+            }
+        }
+    }
+
+    private long execute(RedisScript<Long> script, Long productId, int quantity) {
+        Long result = redisTemplate.execute(script, List.of(stockKey(productId), PENDING_KEY),
+                productId.toString(), String.valueOf(quantity));
+        return result == null ? NOT_LOADED : result;
+    }
+
+    private String stockKey(Long productId) {
+        return STOCK_KEY_PREFIX + productId;
+    }
+}
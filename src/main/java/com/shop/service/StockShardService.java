@@ -0,0 +1,94 @@
+package com.shop.service;
+
+import com.shop.domain.product.Product;
+import com.shop.domain.product.ProductStockShard;
+import com.shop.exception.NotEnoughStock;
+import com.shop.repository.product.ProductRepository;
+import com.shop.repository.product.ProductStockShardRepository;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 분할 재고
+ * 분할된 상품의 재고는 ProductStockShard 행들과 상품 행(취소/반품 재고를 받는 보조 샤드)의 합이다.
+ * 주문은 라운드 로빈으로 고른 샤드에서 조건부 UPDATE로 차감하고, 부족하면 이웃 샤드로 넘어간다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockShardService {
+
+    private final ProductStockShardRepository productStockShardRepository;
+    private final ProductRepository productRepository;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Transactional(readOnly = true)
+    public int getTotalStock(Product product) {
+        if (!product.isSplitInventory()) {
+            return product.getStockQuantity();
+        }
+        return product.getStockQuantity() + productStockShardRepository.sumStockQuantity(product.getId());
+    }
+
+    public void removeStock(Product product, int quantity) {
+        if (!product.isSplitInventory()) {
+            product.removeStock(quantity);
+            return;
+        }
+
+        Long productId = product.getId();
+        int shardCount = product.getStockShardCount();
+        int start = Math.floorMod(sequence.getAndIncrement(), shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shardNo = (start + i) % shardCount;
+            if (productStockShardRepository.decreaseStockIfEnough(productId, shardNo, quantity) == 1) {
+                return;
+            }
+        }
+        if (productRepository.decreaseStockIfEnough(productId, quantity) == 1) {
+            return;
+        }
+
+        //한 샤드로는 부족 -> 샤드를 모두 잠그고 여러 샤드에서 나눠 차감
+        List<ProductStockShard> shards = productStockShardRepository.findAllByProductIdForUpdate(productId);
+        int remaining = quantity;
+        for (ProductStockShard shard : shards) {
+            remaining -= shard.take(remaining);
+            if (remaining == 0) {
+                return;
+            }
+        }
+        if (productRepository.decreaseStockIfEnough(productId, remaining) == 0) {
+            throw new NotEnoughStock();  //트랜잭션 롤백으로 샤드 차감도 취소
+        }
+    }
+
+    //상품을 샤드 수만큼 분할, 이미 분할된 상품은 재고를 합쳐 다시 나눈다.
+    public void split(Product product, int shardCount) {
+        int totalStock = product.getStockQuantity() + drainShards(product);
+        product.splitInventory(shardCount);
+
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            int stock = totalStock / shardCount + (shardNo < totalStock % shardCount ? 1 : 0);
+            productStockShardRepository.save(new ProductStockShard(product.getId(), shardNo, stock));
+        }
+    }
+
+    public void merge(Product product) {
+        product.mergeInventory(drainShards(product));
+    }
+
+    private int drainShards(Product product) {
+        if (!product.isSplitInventory()) {
+            return 0;
+        }
+        int shardStock = productStockShardRepository.findAllByProductIdForUpdate(product.getId()).stream()
+                .mapToInt(ProductStockShard::getStockQuantity)
+                .sum();
+        productStockShardRepository.deleteAllByProductId(product.getId());
+        return shardStock;
+    }
+}
@@ -0,0 +1,244 @@
+package com.shop.service;
+
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.WaitingRoomResponse;
+import com.shop.dto.response.WaitingRoomResponse.Status;
+import com.shop.exception.AdmissionRequired;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.config.OrderProperties.WaitingRoom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 주문 대기열
+ * 도착 시간 순으로 Redis Sorted Set에 줄을 세우고, 상품별 설정된 속도로 짧은 유효기간의 입장권을 발급한다.
+ * 입장권이 있는 회원의 주문만 OrderFacade까지 전달되어 DB 쓰기 속도가 감당 가능한 수준으로 유지된다.
+ *
+ * 입장권은 상품별 Sorted Set(회원 -> 만료 시각)에 둔다. 상품의 대기열, 입장 주기, 입장권 키는 같은 해시 태그를 쓰고
+ * 스크립트는 한 상품의 키만 다루므로 Redis Cluster에서도 동작한다. (장바구니는 상품마다 따로 사용하고, 하나라도 없으면 되돌린다)
+ * 주문 직전에 입장권을 사용하고, 주문이 실패하면(재고 부족, 락 실패 등) 원래 만료 시각으로 되돌려 다시 줄을 서지 않게 한다.
+ */
+@Service
+public class WaitingRoomService {
+
+    private static final Logger orderLogger = LoggerFactory.getLogger("OrderLogger");
+
+    private static final String ACTIVE_PRODUCTS_KEY = "waiting:products";
+
+    //입장 주기마다 한 인스턴스만 대기열 앞쪽 회원에게 입장권 발급, 남은 대기 인원을 돌려준다. (다른 인스턴스가 처리한 주기면 -1)
+    //KEYS: 대기열, 입장 주기, 입장권 / ARGV: 인원, 입장권 유효 시간, 입장 주기
+    private static final RedisScript<Long> ADMIT_SCRIPT = new DefaultRedisScript<>("""
+            if not redis.call('SET', KEYS[2], '1', 'NX', 'PX', ARGV[3]) then
+                return -1
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', now)
+            local admitted = redis.call('ZPOPMIN', KEYS[1], ARGV[1])
+            for i = 1, #admitted, 2 do
+                redis.call('ZADD', KEYS[3], now + tonumber(ARGV[2]), admitted[i])
+            end
+            if #admitted > 0 then
+                redis.call('PEXPIRE', KEYS[3], ARGV[2])
+            end
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    //유효한 입장권을 사용하고, 되돌릴 때 쓰도록 만료 시각을 돌려준다. (없거나 만료됐으면 nil)
+    //KEYS: 입장권 / ARGV: 회원
+    private static final RedisScript<String> CONSUME_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local expiry = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not expiry or tonumber(expiry) <= now then
+                return false
+            end
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return expiry
+            """, String.class);
+
+    //주문 실패 시 사용한 입장권을 원래 만료 시각으로 복구 (그사이 새로 받은 입장권은 덮어쓰지 않는다)
+    //KEYS: 입장권 / ARGV: 회원, 만료 시각
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local expiry = tonumber(ARGV[2])
+            if expiry <= now then
+                return 0
+            end
+            local restored = redis.call('ZADD', KEYS[1], 'NX', expiry, ARGV[1])
+            if redis.call('PTTL', KEYS[1]) < expiry - now then
+                redis.call('PEXPIRE', KEYS[1], expiry - now)
+            end
+            return restored
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final WaitingRoom properties;
+
+    public WaitingRoomService(StringRedisTemplate redisTemplate, OrderProperties orderProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = orderProperties.getWaitingRoom();
+    }
+
+    //이미 줄을 선 회원은 처음 도착 시간이 유지된다.
+    public CommonResponse<WaitingRoomResponse> enter(String email, Long productId) {
+        if (admissionExpiresInMs(email, productId) <= 0) {
+            redisTemplate.opsForZSet().addIfAbsent(queueKey(productId), email, System.currentTimeMillis());
+            redisTemplate.opsForSet().add(ACTIVE_PRODUCTS_KEY, productId.toString());
+        }
+        return getStatus(email, productId);
+    }
+
+    public CommonResponse<WaitingRoomResponse> getStatus(String email, Long productId) {
+        long expiresInMs = admissionExpiresInMs(email, productId);
+        if (expiresInMs > 0) {
+            return CommonResponse.success(WaitingRoomResponse.builder()
+                    .productId(productId)
+                    .status(Status.ADMITTED)
+                    .admitted(true)
+                    .admissionExpiresInMs(expiresInMs)
+                    .build());
+        }
+
+        Long rank = redisTemplate.opsForZSet().rank(queueKey(productId), email);
+        if (rank == null) {  //줄을 서지 않았거나 입장권이 만료됨 -> 다시 줄을 서야 한다.
+            return CommonResponse.success(WaitingRoomResponse.builder()
+                    .productId(productId)
+                    .status(Status.NOT_QUEUED)
+                    .build());
+        }
+        long position = rank + 1;
+        int rate = properties.getRate(productId);
+        return CommonResponse.success(WaitingRoomResponse.builder()
+                .productId(productId)
+                .status(Status.WAITING)
+                .position(position)
+                .etaSeconds((position + rate - 1) / rate)
+                .build());
+    }
+
+    /**
+     * 입장권을 사용하고 주문한다. 주문이 실패하면 입장권을 되돌려 같은 입장권으로 다시 주문할 수 있다.
+     * (대기열을 쓰지 않으면 그대로 주문)
+     */
+    public <T> CompletableFuture<T> admitted(String email, Collection<Long> productIds,
+                                             Supplier<CompletableFuture<T>> order) {
+        Admission admission = consume(email, productIds);
+        CompletableFuture<T> result;
+        try {
+            result = order.get();
+        } catch (RuntimeException e) {
+            restore(admission);
+            throw e;
+        }
+        return result.whenComplete((response, error) -> {
+            if (error != null) {
+                restore(admission);
+            }
+        });
+    }
+
+    //주문 직전에 상품마다 입장권 확인 후 사용, 하나라도 없으면 이미 사용한 입장권을 되돌린다.
+    public Admission consume(String email, Collection<Long> productIds) {
+        if (!properties.isEnabled()) {
+            return Admission.NONE;
+        }
+        List<String> keys = new ArrayList<>();
+        List<String> expiries = new ArrayList<>();
+        for (Long productId : productIds) {
+            String key = admissionKey(productId);
+            String expiry = redisTemplate.execute(CONSUME_SCRIPT, List.of(key), email);
+            if (expiry == null) {
+                restore(new Admission(email, keys, expiries));
+                throw new AdmissionRequired();
+            }
+            keys.add(key);
+            expiries.add(expiry);
+        }
+        return new Admission(email, keys, expiries);
+    }
+
+    public void restore(Admission admission) {
+        for (int i = 0; i < admission.keys().size(); i++) {
+            try {
+                redisTemplate.execute(RESTORE_SCRIPT, List.of(admission.keys().get(i)),
+                        admission.email(), admission.expiries().get(i));
+            } catch (Exception e) {  //복구 실패 -> 다시 줄을 서야 한다.
+                orderLogger.error("입장권 복구 실패 email={}, key={}, msg={}", admission.email(),
+                        admission.keys().get(i), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.waiting-room.admit-interval-ms:1000}")
+    public void admit() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Set<String> productIds = redisTemplate.opsForSet().members(ACTIVE_PRODUCTS_KEY);
+        if (productIds == null) {
+            return;
+        }
+        for (String rawProductId : productIds) {
+            Long productId = Long.valueOf(rawProductId);
+            try {
+                admit(productId);
+            } catch (Exception e) {
+                orderLogger.error("대기열 입장 처리 실패 productId={}, msg={}", productId, e.getMessage());
+            }
+        }
+    }
+
+    private void admit(Long productId) {
+        long intervalMs = properties.getAdmitIntervalMs();
+        long count = Math.max(1, properties.getRate(productId) * intervalMs / 1_000);
+        Long remaining = redisTemplate.execute(ADMIT_SCRIPT,
+                List.of(queueKey(productId), queueKey(productId) + ":tick", admissionKey(productId)),
+                String.valueOf(count),
+                String.valueOf(properties.getTokenTtlMs()),
+                String.valueOf(intervalMs));
+        if (remaining != null && remaining == 0) {  //대기열이 비었으면 다음 주기부터 확인하지 않는다.
+            redisTemplate.opsForSet().remove(ACTIVE_PRODUCTS_KEY, productId.toString());
+            //확인과 삭제 사이에 enter()가 줄을 섰다면 그 SADD는 무시됐으므로 다시 등록한다.
+            Long size = redisTemplate.opsForZSet().zCard(queueKey(productId));
+            if (size != null && size > 0) {
+                redisTemplate.opsForSet().add(ACTIVE_PRODUCTS_KEY, productId.toString());
+            }
+        }
+    }
+
+    private long admissionExpiresInMs(String email, Long productId) {
+        Double expiry = redisTemplate.opsForZSet().score(admissionKey(productId), email);
+        return expiry == null ? 0 : expiry.longValue() - System.currentTimeMillis();
+    }
+
+    //상품의 키는 같은 해시 태그로 같은 슬롯에 둔다.
+    private String queueKey(Long productId) {
+        return "waiting:product:{" + productId + "}";
+    }
+
+    private String admissionKey(Long productId) {
+        return "admission:product:{" + productId + "}";
+    }
+
+    /**
+     * 사용한 입장권 (주문 실패 시 복구용)
+     */
+    public record Admission(String email, List<String> keys, List<String> expiries) {
+
+        static final Admission NONE = new Admission(null, List.of(), List.of());
+    }
+}
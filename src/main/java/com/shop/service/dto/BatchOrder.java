@@ -0,0 +1,36 @@
+package com.shop.service.dto;
+
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.CustomException;
+import lombok.Getter;
+
+/**
+ * 한 번에 묶어서 처리되는 개별 주문 요청과 그 결과
+ */
+@Getter
+public class BatchOrder {
+
+    private final String email;
+    private final int quantity;
+
+    private CommonResponse<OrderResponse> response;
+    private CustomException failure;
+
+    public BatchOrder(String email, int quantity) {
+        this.email = email;
+        this.quantity = quantity;
+    }
+
+    public void succeed(CommonResponse<OrderResponse> response) {
+        this.response = response;
+    }
+
+    public void fail(CustomException failure) {
+        this.failure = failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.shop.service.dto;
+
+import com.shop.domain.product.Product;
+import com.shop.domain.product.ProductSellStatus;
+import com.shop.dto.response.ProductResponse;
+import lombok.Getter;
+
+/**
+ * 상품 상세에서 거의 바뀌지 않는 필드 (productDetailCache에 오래 캐시)
+ * 재고는 자주 바뀌므로 담지 않고 응답을 만들 때 따로 채운다.
+ */
+@Getter
+public class ProductDetail {
+
+    private final Long productId;
+    private final String name;
+    private final int price;
+    private final String description;
+    private final ProductSellStatus sellStatus;
+
+    public ProductDetail(Long productId, String name, int price, String description, ProductSellStatus sellStatus) {
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.description = description;
+        this.sellStatus = sellStatus;
+    }
+
+    public ProductDetail(Product product) {
+        this(product.getId(), product.getName(), product.getPrice(), product.getDescription(),
+                product.getSellStatus());
+    }
+
+    public ProductResponse toResponse(int stockQuantity) {
+        return new ProductResponse(productId, name, price, stockQuantity, description, sellStatus);
+    }
+}
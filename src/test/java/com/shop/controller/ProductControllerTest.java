@@ -169,4 +169,40 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.[0].name").value("테스트 상품30"))
                 .andExpect(jsonPath("$.[1].name").value("테스트 상품3"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void 커서로_다음_상품_목록을_조회한다() throws Exception {
+        //given
+        List<Product> products = IntStream.range(1, 31)
+                .mapToObj(i -> Product.builder()
+                        .name("테스트 상품" + i)
+                        .price(10_000)
+                        .stockQuantity(100)
+                        .description("테스트 상품" + i + " 입니다.")
+                        .sellStatus(ProductSellStatus.SELL)
+                        .build())
+                .toList();
+
+        productRepository.saveAll(products);
+
+        String firstPage = mockMvc.perform(get("/api/product/scroll")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.content[0].name").value("테스트 상품30"))
+                .andExpect(jsonPath("$.body.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).path("body").path("nextCursor").asText();
+
+        //when
+        ResultActions resultActions = mockMvc.perform(get("/api/product/scroll")
+                        .param("after", nextCursor)
+                        .param("size", "10"))
+                .andDo(print());
+
+        //then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.content[0].name").value("테스트 상품20"))
+                .andExpect(jsonPath("$.body.content[9].name").value("테스트 상품11"));
+    }
+}
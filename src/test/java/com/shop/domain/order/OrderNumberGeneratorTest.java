@@ -0,0 +1,49 @@
+package com.shop.domain.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderNumberGeneratorTest {
+
+    @Test
+    @DisplayName("같은 밀리초에 시퀀스를 다 써도, 시계가 뒤로 가도 번호는 계속 증가한다")
+    void monotonicEvenWhenClockGoesBack() {
+        //given
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, clock::get);
+
+        //when & then
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);  //시계 역행
+            }
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("노드가 다르면 같은 시각에도 번호가 겹치지 않고, 문자열 순서가 생성 순서와 같다")
+    void nodeAwareAndSortable() {
+        //given
+        OrderNumberGenerator node1 = new OrderNumberGenerator(1, () -> 1_800_000_000_000L);
+        OrderNumberGenerator node2 = new OrderNumberGenerator(2, () -> 1_800_000_000_000L);
+
+        //when
+        String first = node1.nextOrderNumber();
+        String second = node2.nextOrderNumber();
+        String third = node1.nextOrderNumber();
+
+        //then
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(first.compareTo(third) < 0);
+        assertEquals(17, first.length());
+        assertTrue(first.startsWith("ORD-"));
+    }
+}
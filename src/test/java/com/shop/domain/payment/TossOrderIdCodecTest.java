@@ -0,0 +1,36 @@
+package com.shop.domain.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Base64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TossOrderIdCodecTest {
+
+    @Test
+    @DisplayName("기존 결제 위젯 형식(Base64 + '-' 패딩)과 같게 인코딩한다")
+    void encodeSameAsWidget() {
+        assertEquals("--MTIz", TossOrderIdCodec.encode(123));
+        assertEquals("--MQ==", TossOrderIdCodec.encode(1));
+        assertEquals(Base64.getEncoder().encodeToString("9876543210".getBytes()),
+                TossOrderIdCodec.encode(9_876_543_210L));
+    }
+
+    @Test
+    @DisplayName("인코딩한 값을 다시 주문 ID로 디코딩한다")
+    void roundTrip() {
+        for (long orderId : new long[]{0, 1, 12, 123, 1234, 99_999, 1_000_000_007L, Long.MAX_VALUE}) {
+            assertEquals(orderId, TossOrderIdCodec.decode(TossOrderIdCodec.encode(orderId)));
+        }
+    }
+
+    @Test
+    @DisplayName("숫자가 아닌 값이나 잘못된 문자는 거부한다")
+    void rejectInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> TossOrderIdCodec.decode("------"));
+        assertThrows(IllegalArgumentException.class, () -> TossOrderIdCodec.decode("YWJj"));  //abc
+        assertThrows(IllegalArgumentException.class, () -> TossOrderIdCodec.decode("MT!z"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.exception.StaleFencingToken;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+
+@ExtendWith(MockitoExtension.class)
+class LockFencingTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RAtomicLong counter;
+    @Mock
+    private ProductRepository productRepository;
+
+    private LockFencing lockFencing;
+
+    @BeforeEach
+    void setUp() {
+        lockFencing = new LockFencing(redissonClient, productRepository, new OrderProperties(),
+                new SimpleMeterRegistry());
+        given(redissonClient.getAtomicLong("fence:product:1")).willReturn(counter);
+    }
+
+    @Test
+    @DisplayName("처음 발급할 때 카운터가 DB 토큰보다 뒤처져 있으면 DB 토큰까지 올린 뒤 발급한다")
+    void seedFromStoredToken() {
+        //given
+        given(productRepository.findFencingToken(1L)).willReturn(Optional.of(40L));
+        given(counter.get()).willReturn(0L);
+        given(counter.compareAndSet(0L, 40L)).willReturn(true);
+        given(counter.incrementAndGet()).willReturn(41L, 42L);
+
+        //when
+        long first = lockFencing.nextToken(1L);
+        long second = lockFencing.nextToken(1L);
+
+        //then
+        assertEquals(41L, first);
+        assertEquals(42L, second);
+        verify(productRepository).findFencingToken(1L);  //인스턴스마다 상품별 한 번만 조회
+    }
+
+    @Test
+    @DisplayName("카운터가 DB 토큰보다 앞서 있으면 그대로 발급한다")
+    void keepCounterAhead() {
+        //given
+        given(productRepository.findFencingToken(1L)).willReturn(Optional.of(40L));
+        given(counter.get()).willReturn(50L);
+        given(counter.incrementAndGet()).willReturn(51L);
+
+        //when
+        long token = lockFencing.nextToken(1L);
+
+        //then
+        assertEquals(51L, token);
+        verify(counter, never()).compareAndSet(50L, 40L);
+    }
+
+    @Test
+    @DisplayName("이미 초기화한 뒤 Redis 카운터가 유실돼 거부되면 카운터를 DB 토큰으로 옮기고 한 번 다시 실행한다")
+    void recoverAfterRedisDataLoss() {
+        //given
+        given(productRepository.findFencingToken(1L)).willReturn(Optional.of(0L)).willReturn(Optional.of(40L));
+        given(counter.get()).willReturn(0L);
+        given(counter.compareAndSet(0L, 40L)).willReturn(true);
+        given(counter.incrementAndGet()).willReturn(1L, 41L);
+        List<Long> tokens = new ArrayList<>();
+
+        //when
+        String result = lockFencing.withToken(1L, token -> {
+            tokens.add(token);
+            if (token <= 40L) {
+                throw new StaleFencingToken();
+            }
+            return "주문 완료";
+        });
+
+        //then
+        assertEquals("주문 완료", result);
+        assertEquals(List.of(1L, 41L), tokens);
+    }
+
+    @Test
+    @DisplayName("카운터가 DB 토큰보다 앞서 있는데 거부되면 실제로 늦은 쓰기이므로 다시 실행하지 않는다")
+    void rejectStaleHolder() {
+        //given
+        given(productRepository.findFencingToken(1L)).willReturn(Optional.of(0L)).willReturn(Optional.of(42L));
+        given(counter.get()).willReturn(0L, 43L);
+        given(counter.incrementAndGet()).willReturn(41L);
+
+        //when, then
+        assertThrows(StaleFencingToken.class, () -> lockFencing.withToken(1L, token -> {
+            throw new StaleFencingToken();
+        }));
+        verify(counter).incrementAndGet();
+    }
+}
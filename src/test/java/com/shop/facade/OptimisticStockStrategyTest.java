@@ -0,0 +1,83 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.domain.product.Product;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.OrderLockFailed;
+import com.shop.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticStockStrategyTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private OrderService orderService;
+
+    private OptimisticStockStrategy strategy;
+    private OrderCreateRequest request;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new OptimisticStockStrategy(orderService);
+        request = OrderCreateRequest.builder()
+                .productId(1L)
+                .quantity(1)
+                .build();
+    }
+
+    @Test
+    @DisplayName("버전 충돌이 나면 다시 읽어 재시도하고, 성공한 결과를 돌려준다")
+    void retryOnConflict() {
+        //given
+        CommonResponse<OrderResponse> response = CommonResponse.success(OrderResponse.builder()
+                .orderId(1L)
+                .build());
+        given(orderService.orderWithOptimisticLock(EMAIL, request))
+                .willThrow(conflict(), conflict())
+                .willReturn(response);
+
+        //when
+        CommonResponse<OrderResponse> result = strategy.order(EMAIL, request);
+
+        //then
+        assertSame(response, result);
+        verify(orderService, times(3)).orderWithOptimisticLock(EMAIL, request);
+    }
+
+    @Test
+    @DisplayName("30번 모두 충돌하면 재시도 간격(1~20ms)을 두고 시도한 뒤 OrderLockFailed로 끝난다")
+    void failAfterMaxAttempts() {
+        //given
+        given(orderService.orderWithOptimisticLock(EMAIL, request)).willThrow(conflict());
+
+        //when
+        long startedAt = System.nanoTime();
+        assertThrows(OrderLockFailed.class, () -> strategy.order(EMAIL, request));
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+        //then
+        verify(orderService, times(30)).orderWithOptimisticLock(EMAIL, request);
+        assertTrue(elapsedMs >= 30);  //충돌마다 최소 1ms
+        assertTrue(elapsedMs < 30 * 20 + 1_000);  //최대 19ms 간격 + 여유
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Product.class, 1L);
+    }
+}
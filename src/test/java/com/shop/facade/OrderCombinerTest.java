@@ -0,0 +1,216 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.NotEnoughStock;
+import com.shop.exception.OrderLockFailed;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import com.shop.service.OrderService;
+import com.shop.service.dto.BatchOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderCombinerTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private RAtomicLong fencingToken;
+    @Mock
+    private ProductRepository productRepository;
+
+    private ExecutorService executor;
+    private OrderCombiner orderCombiner;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        OrderProperties properties = new OrderProperties();
+        properties.getCombining().setWindowMs(200);
+        properties.getCombining().setMaxBatchSize(3);
+
+        executor = Executors.newFixedThreadPool(4);
+        orderCombiner = new OrderCombiner(redissonClient, orderService, properties, executor,
+                new LockFencing(redissonClient, productRepository, properties, new SimpleMeterRegistry()));
+
+        given(redissonClient.getFairLock(anyString())).willReturn(lock);
+        given(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(true);
+        given(lock.isHeldByCurrentThread()).willReturn(true);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(fencingToken);
+        given(fencingToken.incrementAndGet()).willReturn(1L);
+    }
+
+    private OrderCombiner combinerWithTimeout(long timeoutMs) {
+        orderCombiner.shutdown();
+        OrderProperties properties = new OrderProperties();
+        properties.getCombining().setWindowMs(10);
+        properties.getCombining().setTimeoutMs(timeoutMs);
+        return new OrderCombiner(redissonClient, orderService, properties, executor,
+                new LockFencing(redissonClient, productRepository, properties, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderCombiner.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 상품 주문은 한 번의 락과 트랜잭션으로 처리되고 재고가 부족한 요청만 실패한다")
+    void combineOrdersForSameProduct() throws Exception {
+        //given
+        willAnswer(invocation -> {
+            List<BatchOrder> batchOrders = invocation.getArgument(1);
+            long orderId = 1;
+            for (BatchOrder batchOrder : batchOrders) {
+                if (batchOrder.getEmail().equals("user2@example.com")) {
+                    batchOrder.fail(new NotEnoughStock());
+                    continue;
+                }
+                batchOrder.succeed(CommonResponse.success(OrderResponse.builder().orderId(orderId++).build()));
+            }
+            return null;
+        }).given(orderService).orderBatch(eq(1L), anyList(), eq(1L));
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CommonResponse<OrderResponse>>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            String email = "user" + i + "@example.com";
+            results.add(callers.submit(() -> {
+                start.await();
+                return orderCombiner.order(email, OrderCreateRequest.builder()
+                        .productId(1L)
+                        .quantity(1)
+                        .build());
+            }));
+        }
+        start.countDown();
+
+        //then
+        int success = 0;
+        int notEnoughStock = 0;
+        for (Future<CommonResponse<OrderResponse>> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                success++;
+            } catch (Exception e) {
+                assertTrue(e.getCause() instanceof NotEnoughStock);
+                notEnoughStock++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, success);
+        assertEquals(1, notEnoughStock);
+        verify(orderService, times(1)).orderBatch(eq(1L), anyList(), eq(1L));
+        verify(lock, timeout(1_000).times(1)).unlock();  //결과를 돌려준 뒤 finally에서 해제
+    }
+
+    @Test
+    @DisplayName("락 대기 중 제한 시간이 지난 요청은 배치에서 빠져 주문되지 않는다")
+    void withdrawTimedOutOrder() throws Exception {
+        //given
+        orderCombiner = combinerWithTimeout(100);
+        given(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willAnswer(invocation -> {
+            Thread.sleep(300);
+            return true;
+        });
+
+        //when
+        CompletableFuture<CommonResponse<OrderResponse>> result = orderCombiner.orderAsync("user@example.com",
+                OrderCreateRequest.builder()
+                        .productId(1L)
+                        .quantity(1)
+                        .build());
+
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof OrderLockFailed);
+        Thread.sleep(400);
+        verify(orderService, never()).orderBatch(anyLong(), anyList(), anyLong());
+    }
+
+    @Test
+    @DisplayName("처리가 시작된 요청은 제한 시간이 지나도 주문 결과를 돌려준다")
+    void keepResultOfStartedOrder() throws Exception {
+        //given
+        orderCombiner = combinerWithTimeout(100);
+        willAnswer(invocation -> {
+            Thread.sleep(300);
+            List<BatchOrder> batchOrders = invocation.getArgument(1);
+            batchOrders.forEach(batchOrder ->
+                    batchOrder.succeed(CommonResponse.success(OrderResponse.builder().orderId(1L).build())));
+            return null;
+        }).given(orderService).orderBatch(eq(1L), anyList(), eq(1L));
+
+        //when
+        CommonResponse<OrderResponse> response = orderCombiner.order("user@example.com",
+                OrderCreateRequest.builder()
+                        .productId(1L)
+                        .quantity(1)
+                        .build());
+
+        //then
+        assertEquals(1L, response.getBody().getOrderId());
+    }
+
+    @Test
+    @DisplayName("락 획득에 실패하면 배치의 모든 요청이 실패한다")
+    void failAllWhenLockNotAcquired() throws Exception {
+        //given
+        given(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).willReturn(false);
+
+        //when & then
+        assertThrows(OrderLockFailed.class, () -> orderCombiner.order("user@example.com",
+                OrderCreateRequest.builder()
+                        .productId(1L)
+                        .quantity(1)
+                        .build()));
+        verify(orderService, times(0)).orderBatch(anyLong(), anyList(), anyLong());
+    }
+}
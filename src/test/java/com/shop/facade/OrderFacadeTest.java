@@ -0,0 +1,122 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.redis.RedisHealthMonitor;
+import com.shop.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+@ExtendWith(MockitoExtension.class)
+class OrderFacadeTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private OrderLockQueue orderLockQueue;
+    @Mock
+    private StockStrategy redissonStrategy;
+    @Mock
+    private StockStrategy optimisticStrategy;
+    @Mock
+    private LockFencing lockFencing;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+    @Mock
+    private RLock firstLock;
+    @Mock
+    private RLock secondLock;
+    @Mock
+    private RLock multiLock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderFacade orderFacade;
+
+    @BeforeEach
+    void setUp() {
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.getLock().getFallback().setMode(StockMode.OPTIMISTIC);
+        given(redissonStrategy.mode()).willReturn(StockMode.REDISSON);
+        given(optimisticStrategy.mode()).willReturn(StockMode.OPTIMISTIC);
+        meterRegistry = new SimpleMeterRegistry();
+        orderFacade = new OrderFacade(List.of(redissonStrategy, optimisticStrategy), orderProperties, redissonClient,
+                orderLockQueue, lockFencing, orderService, redisHealthMonitor, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("장바구니 상품 순서와 관계없이 상품 ID 오름차순으로 락을 묶어 획득한다")
+    void lockCartInProductIdOrder() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(redissonClient.getFairLock("lock:product:1")).willReturn(firstLock);
+        given(redissonClient.getFairLock("lock:product:2")).willReturn(secondLock);
+        given(redissonClient.getMultiLock(firstLock, secondLock)).willReturn(multiLock);
+        given(orderLockQueue.<CommonResponse<OrderResponse>>submit(eq("lock:product:[1, 2]"), eq(multiLock), any()))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        //when
+        orderFacade.orderCartAsync(EMAIL, cart(2L, 1L));
+
+        //then
+        verify(redissonClient).getMultiLock(firstLock, secondLock);
+        verify(orderLockQueue).submit(eq("lock:product:[1, 2]"), eq(multiLock), any());  //오름차순 이름으로 대기열 하나
+        assertEquals(1, meterRegistry.get("order.stock.latency").tag("mode", "redisson").timer().count());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 중 장바구니 주문은 설정된 대체 방식으로 처리하고 그 방식의 지연 시간으로 잰다")
+    void orderCartWithFallbackMode() throws Exception {
+        //given
+        CartOrderRequest request = cart(2L, 1L);
+        CommonResponse<OrderResponse> response = CommonResponse.success(OrderResponse.builder()
+                .orderId(1L)
+                .build());
+        given(redisHealthMonitor.isAvailable()).willReturn(false);
+        given(optimisticStrategy.orderCart(EMAIL, request)).willReturn(response);
+
+        //when
+        CommonResponse<OrderResponse> result = orderFacade.orderCartAsync(EMAIL, request).get();
+
+        //then
+        assertEquals(response, result);
+        verify(orderService, never()).orderCart(anyString(), any());
+        verify(orderLockQueue, never()).submit(anyString(), any(), any());
+        assertEquals(1, meterRegistry.get("order.stock.latency").tag("mode", "optimistic").timer().count());
+    }
+
+    private static CartOrderRequest cart(Long... productIds) {
+        return CartOrderRequest.builder()
+                .items(Arrays.stream(productIds)
+                        .map(productId -> OrderCreateRequest.builder()
+                                .productId(productId)
+                                .quantity(1)
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.exception.NotEnoughStock;
+import com.shop.exception.OrderLockFailed;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLockQueueTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RAtomicLong fencingToken;
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderLockQueue orderLockQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        OrderProperties properties = new OrderProperties();
+        orderLockQueue = new OrderLockQueue(redissonClient, properties, Runnable::run, meterRegistry,
+                new LockFencing(redissonClient, productRepository, properties, meterRegistry));
+        given(redissonClient.getFairLock("lock:product:1")).willReturn(lock);
+    }
+
+    @Test
+    @DisplayName("락을 얻으면 작업을 실행하고 락을 반환한다")
+    void runTaskWhenLockAcquired() throws Exception {
+        //given
+        given(lock.tryLockAsync(eq(3_000L), eq(5_000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+
+        //when
+        CompletableFuture<String> result = orderLockQueue.submit(1L, () -> "주문 완료");
+
+        //then
+        assertEquals("주문 완료", result.get());
+        verify(lock).unlockAsync(anyLong());
+        assertEquals(1, meterRegistry.get("order.lock.wait").tag("result", "acquired").timer().count());
+        assertEquals(1, meterRegistry.get("order.lock.hold").timer().count());
+    }
+
+    @Test
+    @DisplayName("락을 얻은 뒤 발급한 펜싱 토큰을 작업에 넘긴다")
+    void passFencingTokenToTask() throws Exception {
+        //given
+        given(lock.tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        given(redissonClient.getAtomicLong("fence:product:1")).willReturn(fencingToken);
+        given(fencingToken.incrementAndGet()).willReturn(7L, 8L);
+
+        //when
+        CompletableFuture<Long> first = orderLockQueue.submitFenced(1L, token -> token);
+        CompletableFuture<Long> second = orderLockQueue.submitFenced(1L, token -> token);
+
+        //then
+        assertEquals(7L, first.get());
+        assertEquals(8L, second.get());
+    }
+
+    @Test
+    @DisplayName("임대시간 만료 직전까지 락을 잡은 작업을 집계한다")
+    void countLeaseNearMiss() throws Exception {
+        //given
+        OrderProperties properties = new OrderProperties();
+        properties.getLock().setLeaseMs(50);
+        orderLockQueue = new OrderLockQueue(redissonClient, properties, Runnable::run, meterRegistry,
+                new LockFencing(redissonClient, productRepository, properties, meterRegistry));
+        given(lock.tryLockAsync(anyLong(), eq(50L), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+
+        //when
+        orderLockQueue.submit(1L, () -> {
+            sleep(45);
+            return "주문 완료";
+        }).get();
+
+        //then
+        assertEquals(1, meterRegistry.get("order.lock.lease.near-miss").counter().count()
+                + meterRegistry.get("order.lock.lease.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("기한 안에 락을 얻지 못하면 작업 없이 OrderLockFailed로 끝난다")
+    void failWhenLockNotAcquired() {
+        //given
+        given(lock.tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(false));
+
+        //when
+        CompletableFuture<String> result = orderLockQueue.submit(1L, () -> "주문 완료");
+
+        //then
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(OrderLockFailed.class, e.getCause());
+        verify(lock, never()).unlockAsync(anyLong());
+        assertEquals(1, meterRegistry.get("order.lock.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("락 구간의 예외는 그대로 전달되고 락은 반환된다")
+    void propagateTaskFailure() {
+        //given
+        given(lock.tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+
+        //when
+        CompletableFuture<String> result = orderLockQueue.submit(1L, () -> {
+            throw new NotEnoughStock();
+        });
+
+        //then
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(NotEnoughStock.class, e.getCause());
+        verify(lock).unlockAsync(anyLong());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
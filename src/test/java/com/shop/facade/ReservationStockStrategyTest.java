@@ -0,0 +1,69 @@
+package com.shop.facade;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.exception.MemberNotFound;
+import com.shop.exception.NotEnoughStock;
+import com.shop.service.OrderService;
+import com.shop.service.StockReservationService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationStockStrategyTest {
+
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @InjectMocks
+    private ReservationStockStrategy reservationStockStrategy;
+
+    private final CartOrderRequest request = CartOrderRequest.builder()
+            .items(List.of(
+                    OrderCreateRequest.builder().productId(1L).quantity(2).build(),
+                    OrderCreateRequest.builder().productId(2L).quantity(1).build(),
+                    OrderCreateRequest.builder().productId(1L).quantity(1).build()))
+            .build();
+
+    @Test
+    @DisplayName("장바구니 주문 저장에 실패하면 선점한 모든 상품의 재고를 반환한다")
+    void releaseAllWhenSaveFails() {
+        //given
+        given(orderService.orderCartReserved("user@example.com", request)).willThrow(new MemberNotFound());
+
+        //when
+        assertThrows(MemberNotFound.class, () -> reservationStockStrategy.orderCart("user@example.com", request));
+
+        //then
+        verify(stockReservationService).reserveAll(Map.of(1L, 3, 2L, 1));
+        verify(stockReservationService).releaseAll(Map.of(1L, 3, 2L, 1));
+    }
+
+    @Test
+    @DisplayName("장바구니 선점에 실패하면 DB에 주문하지 않는다")
+    void rejectWithoutDatabase() {
+        //given
+        willThrow(new NotEnoughStock()).given(stockReservationService).reserveAll(Map.of(1L, 3, 2L, 1));
+
+        //when
+        assertThrows(NotEnoughStock.class, () -> reservationStockStrategy.orderCart("user@example.com", request));
+
+        //then
+        verify(orderService, never()).orderCartReserved("user@example.com", request);
+        verify(stockReservationService, never()).releaseAll(Map.of(1L, 3, 2L, 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.shop.global.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("등록한 ID는 항상 있다고 답하고, 등록하지 않은 ID의 오탐은 fpp 근처다")
+    void noFalseNegatives() {
+        //given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        //when
+        for (long id = 1; id <= 100_000; id++) {
+            filter.put(id);
+        }
+
+        //then
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        int falsePositives = 0;
+        for (long id = 100_001; id <= 200_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "오탐 " + falsePositives + "건");
+    }
+
+    @Test
+    @DisplayName("Redis 비트맵은 SETBIT 오프셋과 같은 위치의 비트가 켜져 있다")
+    void bitmapMatchesRedisOffsets() {
+        //given
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        long[] positions = filter.positions(42L);
+
+        //when
+        filter.set(positions);
+        byte[] bitmap = filter.toBitmap();
+
+        //then
+        int bitsOn = 0;
+        for (byte b : bitmap) {
+            bitsOn += Integer.bitCount(b & 0xFF);
+        }
+        assertEquals((int) Arrays.stream(positions).distinct().count(), bitsOn);
+        for (long position : positions) {
+            assertTrue((bitmap[(int) (position >>> 3)] & (0x80 >>> (position & 7))) != 0);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.shop.global.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class IdFilterTest {
+
+    private StringRedisTemplate redisTemplate;
+    private RedisHealthMonitor redisHealthMonitor;
+    private IdFilter idFilter;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        redisHealthMonitor = mock(RedisHealthMonitor.class);
+        IdFilterProperties properties = new IdFilterProperties();
+        properties.setBuildPageSize(10);
+        idFilter = new IdFilter(redisTemplate, properties, redisHealthMonitor, new SimpleMeterRegistry());
+
+        //생성 중에는 Redis 장애 -> 로컬 필터만 채운다.
+        List<Long> ids = LongStream.rangeClosed(1, 25).boxed().toList();
+        idFilter.build(IdFilter.PRODUCT, (afterId, pageSize) -> ids.stream()
+                .filter(id -> id > afterId)
+                .limit(pageSize)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("DB에 있던 ID는 Redis를 확인하지 않고 있다고 답한다")
+    void existingId() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+
+        //when & then
+        for (long id = 1; id <= 25; id++) {
+            assertTrue(idFilter.mightExist(IdFilter.PRODUCT, id));
+        }
+        verify(redisTemplate, never()).execute(anyScript(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("로컬, Redis 필터에 모두 없는 ID는 없다고 답하고 이후에는 부재 캐시로 답한다")
+    void missingId() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(redisTemplate.execute(anyScript(), anyList(), any(Object[].class))).willReturn(0L);
+
+        //when & then
+        assertFalse(idFilter.mightExist(IdFilter.PRODUCT, 1_000_000L));
+        assertFalse(idFilter.mightExist(IdFilter.PRODUCT, 1_000_000L));
+        verify(redisTemplate, times(1)).execute(anyScript(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Redis 비트맵을 믿을 수 없거나 Redis 장애면 DB에서 확인하도록 있다고 답한다")
+    void failOpen() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(true, false);
+        given(redisTemplate.execute(anyScript(), anyList(), any(Object[].class))).willReturn(-1L);
+
+        //when & then
+        assertTrue(idFilter.mightExist(IdFilter.PRODUCT, 1_000_000L));  //준비 키 없음
+        assertTrue(idFilter.mightExist(IdFilter.PRODUCT, 1_000_000L));  //Redis 장애
+    }
+
+    @Test
+    @DisplayName("다른 노드가 등록한 ID는 메시지를 받으면 부재 캐시에서 빠지고 로컬 필터로 답한다")
+    void addedOnOtherNode() {
+        //given
+        idFilter.markMissing(IdFilter.PRODUCT, 26L);
+
+        //when
+        idFilter.onMessage(new DefaultMessage("bloom:add".getBytes(StandardCharsets.UTF_8),
+                "product\n26".getBytes(StandardCharsets.UTF_8)), null);
+
+        //then
+        assertTrue(idFilter.mightExist(IdFilter.PRODUCT, 26L));
+    }
+
+    @Test
+    @DisplayName("이 노드에서 등록한 ID는 부재 캐시에 있어도 바로 있다고 답한다")
+    void addedOnThisNode() {
+        //given
+        idFilter.markMissing(IdFilter.PRODUCT, 26L);
+
+        //when
+        idFilter.add(IdFilter.PRODUCT, 26L);
+
+        //then
+        assertTrue(idFilter.mightExist(IdFilter.PRODUCT, 26L));
+    }
+
+    @Test
+    @DisplayName("잘못된 등록 메시지는 무시한다")
+    void ignoreMalformedMessage() {
+        //when
+        idFilter.onMessage(new DefaultMessage("bloom:add".getBytes(StandardCharsets.UTF_8),
+                "product\nabc".getBytes(StandardCharsets.UTF_8)), null);
+
+        //then
+        assertTrue(idFilter.mightExist(IdFilter.PRODUCT, 1L));
+    }
+
+    @Test
+    @DisplayName("한 번에 등록한 ID는 Redis 왕복 한 번으로 반영하고, broadcast를 끈 네임스페이스는 알리지 않는다")
+    void addAllInOneRoundTrip() {
+        //given
+        IdFilterProperties properties = new IdFilterProperties();
+        IdFilterProperties.FilterSpec spec = new IdFilterProperties.FilterSpec();
+        spec.setBroadcast(false);
+        properties.getFilters().put(IdFilter.ORDER, spec);
+        idFilter = new IdFilter(redisTemplate, properties, redisHealthMonitor, new SimpleMeterRegistry());
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+
+        //when
+        idFilter.addAll(IdFilter.ORDER, List.of(1L, 2L, 3L));
+
+        //then
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.captor();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.captor();
+        verify(redisTemplate, times(1)).execute(anyScript(), keys.capture(), args.capture());
+        assertEquals(3, keys.getValue().size());
+        assertEquals("", args.getValue()[0]);  //채널 없음 -> PUBLISH 생략
+    }
+
+    @Test
+    @DisplayName("ID가 늘어 새 구간이 생기면 오래된 구간은 거르지 않고 DB에서 확인한다")
+    void retireOldSegments() {
+        //given
+        IdFilterProperties properties = new IdFilterProperties();
+        IdFilterProperties.FilterSpec spec = new IdFilterProperties.FilterSpec();
+        spec.setExpectedInsertions(100);
+        spec.setRetainedSegments(2);
+        properties.getFilters().put(IdFilter.ORDER, spec);
+        idFilter = new IdFilter(redisTemplate, properties, redisHealthMonitor, new SimpleMeterRegistry());
+        List<Long> ids = LongStream.rangeClosed(1, 150).boxed().toList();
+        idFilter.build(IdFilter.ORDER, (afterId, pageSize) -> ids.stream()
+                .filter(id -> id > afterId)
+                .limit(pageSize)
+                .toList());
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(redisTemplate.execute(anyScript(), anyList(), any(Object[].class))).willReturn(0L);
+
+        //when
+        idFilter.addAll(IdFilter.ORDER, List.of(250L));  //구간 2 -> 구간 0은 버린다.
+
+        //then
+        assertTrue(idFilter.mightExist(IdFilter.ORDER, 50L));  //버린 구간, 필터 없이 DB에서 확인
+        assertTrue(idFilter.mightExist(IdFilter.ORDER, 150L));
+        assertTrue(idFilter.mightExist(IdFilter.ORDER, 250L));
+        assertFalse(idFilter.mightExist(IdFilter.ORDER, 10_000L));  //구간이 없는 ID는 Redis에도 없으면 없다.
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return ArgumentMatchers.any();
+    }
+}
@@ -0,0 +1,198 @@
+package com.shop.global.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CacheGenerationTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private CacheGeneration cacheGeneration;
+
+    @BeforeEach
+    void setUp() {
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        cacheGeneration = new CacheGeneration(redisTemplate, new TwoLevelCacheProperties(), redisHealthMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("처음 조회할 때 Redis의 세대를 읽고, 올리면 Redis 값으로 맞춘 뒤 다른 노드에 알린다")
+    void bumpThroughRedis() {
+        //given
+        given(valueOperations.get("cache:generation:catalog")).willReturn("5");
+        given(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), anyString())).willReturn(6L);
+
+        //when
+        long before = cacheGeneration.current(CacheGeneration.CATALOG);
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+
+        //then
+        assertEquals(5, before);
+        assertEquals(6, cacheGeneration.current(CacheGeneration.CATALOG));
+        verify(redisTemplate).convertAndSend("cache:generation", "catalog\n6");
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서는 커밋된 뒤에 세대를 올린다")
+    void bumpAfterCommit() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+        long beforeCommit = cacheGeneration.current(CacheGeneration.CATALOG);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        //then
+        assertEquals(0, beforeCommit);
+        assertEquals(1, cacheGeneration.current(CacheGeneration.CATALOG));
+    }
+
+    @Test
+    @DisplayName("다른 노드의 세대 메시지와 주기 동기화는 로컬 세대를 올리기만 한다")
+    void neverGoBackwards() {
+        //given
+        given(valueOperations.get("cache:generation:catalog")).willReturn("3", "2");
+
+        //when
+        cacheGeneration.current(CacheGeneration.CATALOG);
+        cacheGeneration.onMessage(message("catalog\n7"), null);
+        cacheGeneration.onMessage(message("catalog\n4"), null);
+        cacheGeneration.sync();
+
+        //then
+        assertEquals(7, cacheGeneration.current(CacheGeneration.CATALOG));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 중에는 로컬 세대만 올린다")
+    void bumpLocallyWhileRedisDown() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(false);
+
+        //when
+        cacheGeneration.bump(CacheGeneration.CATALOG);
+
+        //then
+        assertEquals(1, cacheGeneration.current(CacheGeneration.CATALOG));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("세대가 오르면 이전에 캐시한 모든 목록 페이지가 조회되지 않는다")
+    void staleListPagesBecomeUnreachable() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                CatalogCacheConfig.class)) {
+            //given
+            CatalogService catalogService = context.getBean(CatalogService.class);
+            CacheGeneration generation = context.getBean(CacheGeneration.class);
+            catalogService.getList("상품", 1);
+            catalogService.getList("상품", 2);
+            catalogService.getList("상품", 1);
+            assertEquals(2, catalogService.loadCount());
+
+            //when
+            generation.bump(CacheGeneration.CATALOG);
+            catalogService.getList("상품", 1);
+            catalogService.getList("상품", 2);
+            catalogService.getList("상품", 2);
+
+            //then
+            assertEquals(4, catalogService.loadCount());
+        }
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("cache:generation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CatalogCacheConfig {
+
+        @Bean
+        RedisCacheStore redisCacheStore() {
+            return mock(RedisCacheStore.class);
+        }
+
+        @Bean
+        TwoLevelCacheManager cacheManager(RedisCacheStore redisCacheStore) {
+            return new TwoLevelCacheManager(new TwoLevelCacheProperties(), redisCacheStore, Runnable::run,
+                    new SimpleMeterRegistry(), "productsCache");
+        }
+
+        @Bean
+        CacheGeneration cacheGeneration() {
+            return new CacheGeneration(mock(StringRedisTemplate.class), new TwoLevelCacheProperties(),
+                    mock(RedisHealthMonitor.class));
+        }
+
+        @Bean
+        CatalogService catalogService() {
+            return new CatalogService();
+        }
+    }
+
+    static class CatalogService {
+
+        private final AtomicInteger loaded = new AtomicInteger();
+
+        @Cacheable(value = "productsCache", key = "@cacheGeneration.current('catalog') + '_' + #query + '_' + #page")
+        public String getList(String query, int page) {
+            loaded.incrementAndGet();
+            return query + page;
+        }
+
+        public int loadCount() {
+            return loaded.get();
+        }
+    }
+}
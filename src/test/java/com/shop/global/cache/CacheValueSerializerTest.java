@@ -0,0 +1,81 @@
+package com.shop.global.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.shop.domain.product.ProductSellStatus;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.ProductResponse;
+import com.shop.service.dto.ProductDetail;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+class CacheValueSerializerTest {
+
+    private final CacheValueSerializer serializer = new CacheValueSerializer();
+
+    @Test
+    @DisplayName("상품 목록 응답을 그대로 복원하고 JSON보다 작게 저장한다")
+    void roundTripProductPage() {
+        //given
+        List<ProductResponse> products = List.of(
+                new ProductResponse(2L, "무선 키보드", 30_000, 10, "설명", ProductSellStatus.SELL),
+                new ProductResponse(1L, "마우스", 15_000, 0, null, null));
+        CommonResponse<Page<ProductResponse>> response = CommonResponse.success(
+                new PageImpl<>(products, PageRequest.of(1, 2), 12));
+
+        //when
+        byte[] bytes = serializer.serialize(response);
+        @SuppressWarnings("unchecked")
+        CommonResponse<Page<ProductResponse>> restored = (CommonResponse<Page<ProductResponse>>) serializer.deserialize(bytes);
+
+        //then
+        assertEquals(response.getCode(), restored.getCode());
+        assertEquals(response.getMessage(), restored.getMessage());
+        Page<ProductResponse> page = restored.getBody();
+        assertEquals(1, page.getNumber());
+        assertEquals(2, page.getSize());
+        assertEquals(12, page.getTotalElements());
+        assertEquals(products.toString(), page.getContent().toString());
+        assertTrue(bytes.length < new GenericJackson2JsonRedisSerializer().serialize(products).length);
+    }
+
+    @Test
+    @DisplayName("캐시한 null은 null로 복원한다")
+    void roundTripNullValue() {
+        assertNull(serializer.deserialize(serializer.serialize(NullValue.INSTANCE)));
+    }
+
+    @Test
+    @DisplayName("재고를 뺀 상품 상세를 복원한다")
+    void roundTripProductDetail() {
+        //given
+        ProductDetail detail = new ProductDetail(1L, "무선 키보드", 30_000, "설명", ProductSellStatus.SELL);
+
+        //when
+        ProductDetail restored = (ProductDetail) serializer.deserialize(serializer.serialize(detail));
+
+        //then
+        assertEquals(detail.toResponse(7).toString(), restored.toResponse(7).toString());
+    }
+
+    @Test
+    @DisplayName("읽은 시각과 캐시한 null을 함께 복원한다")
+    void roundTripCacheEntry() {
+        //given
+        CacheEntry entry = new CacheEntry(NullValue.INSTANCE, 1_700_000_000_000L);
+
+        //when
+        CacheEntry restored = (CacheEntry) serializer.deserialize(serializer.serialize(entry));
+
+        //then
+        assertEquals(entry, restored);
+    }
+}
@@ -0,0 +1,199 @@
+package com.shop.global.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheOperationSource;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+class SingleFlightCacheTest {
+
+    private AnnotationConfigApplicationContext context;
+    private RedisCacheStore remote;
+    private CatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(SingleFlightConfig.class);
+        remote = context.getBean(RedisCacheStore.class);
+        catalogService = context.getBean(CatalogService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 미스는 한 번만 읽고 나머지는 그 결과를 받는다")
+    void coalesceConcurrentMisses() throws Exception {
+        //given
+        given(remote.tryLease(eq("productsCache"), eq("상품_1"), anyString())).willReturn(true);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return catalogService.getList("상품_1");
+            }));
+        }
+        start.countDown();
+
+        //then
+        for (Future<String> result : results) {
+            assertEquals("목록 상품_1", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, catalogService.loadCount());
+        verify(remote).put(eq("productsCache"), eq("상품_1"),
+                argThat(entry -> ((CacheEntry) entry).value().equals("목록 상품_1")));
+        verify(remote).releaseLease(eq("productsCache"), eq("상품_1"), anyString());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 임대를 잡고 읽는 중이면 DB를 읽지 않고 L2에 저장된 값을 받는다")
+    void waitForOtherNode() throws Exception {
+        //given
+        given(remote.tryLease(eq("productsCache"), eq("상품_1"), anyString())).willReturn(false);
+        given(remote.awaitLoaded("productsCache", "상품_1"))
+                .willReturn(new CacheEntry("다른 노드 목록", System.currentTimeMillis()));
+
+        //when
+        String result = catalogService.getList("상품_1");
+
+        //then
+        assertEquals("다른 노드 목록", result);
+        assertEquals(0, catalogService.loadCount());
+        verify(remote, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("다른 노드의 임대가 값 없이 끝나면 직접 읽는다")
+    void loadWhenOtherNodeFailed() throws Exception {
+        //given
+        given(remote.tryLease(eq("productsCache"), eq("상품_1"), anyString())).willReturn(false);
+
+        //when
+        String result = catalogService.getList("상품_1");
+
+        //then
+        assertEquals("목록 상품_1", result);
+        assertEquals(1, catalogService.loadCount());
+    }
+
+    @Test
+    @DisplayName("로딩 실패는 기다리던 요청에도 전달되고 캐시에 남지 않는다")
+    void propagateLoadFailure() {
+        //given
+        given(remote.tryLease(eq("productsCache"), eq("실패"), anyString())).willReturn(true);
+
+        //when & then
+        assertThrows(IllegalStateException.class, () -> catalogService.getList("실패"));
+        assertThrows(IllegalStateException.class, () -> catalogService.getList("실패"));
+        assertEquals(2, catalogService.loadCount());
+    }
+
+    @Test
+    @DisplayName("unless가 있는 @Cacheable은 sync로 바꾸지 않는다")
+    void keepOperationsThatCannotSync() throws Exception {
+        //given
+        CacheOperationSource source = CacheConfig.singleFlightCacheOperationSource();
+        Method plain = CatalogService.class.getMethod("getList", String.class);
+        Method withUnless = CatalogService.class.getMethod("getDetail", Long.class);
+
+        //when
+        CacheOperation plainOperation = source.getCacheOperations(plain, CatalogService.class).iterator().next();
+        CacheOperation unlessOperation = source.getCacheOperations(withUnless, CatalogService.class).iterator().next();
+
+        //then
+        assertTrue(((CacheableOperation) plainOperation).isSync());
+        assertFalse(((CacheableOperation) unlessOperation).isSync());
+    }
+
+    @Configuration
+    @EnableCaching
+    static class SingleFlightConfig {
+
+        @Bean
+        @Primary
+        static CacheOperationSource singleFlightCacheOperationSource() {
+            return CacheConfig.singleFlightCacheOperationSource();
+        }
+
+        @Bean
+        RedisCacheStore redisCacheStore() {
+            return mock(RedisCacheStore.class);
+        }
+
+        @Bean
+        TwoLevelCacheManager cacheManager(RedisCacheStore redisCacheStore) {
+            return new TwoLevelCacheManager(new TwoLevelCacheProperties(), redisCacheStore, Runnable::run,
+                    new SimpleMeterRegistry(), "productsCache");
+        }
+
+        @Bean
+        CatalogService catalogService() {
+            return new CatalogService();
+        }
+    }
+
+    static class CatalogService {
+
+        private final AtomicInteger loaded = new AtomicInteger();
+
+        @Cacheable(value = "productsCache", key = "#key")
+        public String getList(String key) throws InterruptedException {
+            loaded.incrementAndGet();
+            if (key.equals("실패")) {
+                throw new IllegalStateException("DB 오류");
+            }
+            Thread.sleep(100);  //다른 요청이 모두 도착할 시간
+            return "목록 " + key;
+        }
+
+        @Cacheable(value = "productsCache", key = "#productId", unless = "#result == null")
+        public String getDetail(Long productId) {
+            return null;
+        }
+
+        public int loadCount() {
+            return loaded.get();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.shop.global.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.cache.RedisCacheStore.Invalidation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private RedisCacheStore remote;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(new TwoLevelCacheProperties(), remote, Runnable::run, meterRegistry,
+                "productsCache");
+        cache = (TwoLevelCache) cacheManager.getCache("productsCache");
+    }
+
+    @Test
+    @DisplayName("L1에 없으면 L2 값을 L1에 채우고, 다음 조회는 L2를 보지 않는다")
+    void fillLocalFromRemote() {
+        //given
+        given(remote.get("productsCache", "상품_1_10")).willReturn(loadedAgo("목록", Duration.ZERO));
+
+        //when
+        ValueWrapper first = cache.get("상품_1_10");
+        ValueWrapper second = cache.get("상품_1_10");
+
+        //then
+        assertEquals("목록", first.get());
+        assertEquals("목록", second.get());
+        verify(remote).get("productsCache", "상품_1_10");
+    }
+
+    @Test
+    @DisplayName("둘 다 없으면 한 번 읽어 L1, L2에 저장한다")
+    void loadOnceAndStoreBoth() {
+        //given
+        AtomicInteger loaded = new AtomicInteger();
+
+        //when
+        String first = cache.get("상품_1_10", () -> "목록" + loaded.incrementAndGet());
+        String second = cache.get("상품_1_10", () -> "목록" + loaded.incrementAndGet());
+
+        //then
+        assertEquals("목록1", first);
+        assertEquals("목록1", second);
+        verify(remote).put(eq("productsCache"), eq("상품_1_10"), argThat(entry -> ((CacheEntry) entry).value().equals("목록1")));
+    }
+
+    @Test
+    @DisplayName("삭제는 L2를 먼저 지우고 L1에서도 지운다")
+    void evictRemoteThenLocal() {
+        //given
+        cache.put(1L, "상품");
+
+        //when
+        cache.evict(1L);
+
+        //then
+        InOrder inOrder = inOrder(remote);
+        inOrder.verify(remote).put(eq("productsCache"), eq("1"), argThat(entry -> ((CacheEntry) entry).value().equals("상품")));
+        inOrder.verify(remote).evict("productsCache", "1");
+        assertNull(cache.getNativeCache().getIfPresent("1"));
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스의 무효화 메시지를 받으면 L1에서 지운다")
+    void evictLocalOnRemoteInvalidation() {
+        //given
+        cache.put("상품_1_10", "목록");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, remote);
+        Invalidation invalidation = new Invalidation("other-node", "productsCache", "상품_1_10");
+        byte[] body = invalidation.encode().getBytes(StandardCharsets.UTF_8);
+
+        //when
+        listener.onMessage(new DefaultMessage("cache:invalidate".getBytes(StandardCharsets.UTF_8), body), null);
+
+        //then
+        assertNull(cache.getNativeCache().getIfPresent("상품_1_10"));
+        verify(remote, never()).evict("productsCache", "상품_1_10");
+    }
+
+    @Test
+    @DisplayName("키 없는 무효화 메시지는 L1 전체를 비운다")
+    void clearLocalOnRemoteClear() {
+        //given
+        cache.put("상품_1_10", "목록");
+        cache.put("상품_2_10", "목록");
+        Invalidation invalidation = Invalidation.decode(new Invalidation("other-node", "productsCache", null).encode());
+
+        //when
+        new CacheInvalidationListener(cacheManager, remote).onMessage(new DefaultMessage(new byte[0],
+                invalidation.encode().getBytes(StandardCharsets.UTF_8)), null);
+
+        //then
+        assertEquals(0, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("캐시 이름마다 별도의 L1을 만든다")
+    void createCachePerName() {
+        //when
+        cacheManager.getCache("productDetailCache").put(1L, "상품");
+
+        //then
+        assertNull(cache.getNativeCache().getIfPresent("1"));
+        assertEquals(Set.of("productsCache", "productDetailCache"), Set.copyOf(cacheManager.getCacheNames()));
+    }
+
+    @Test
+    @DisplayName("soft TTL이 지난 값은 바로 돌려주고 백그라운드에서 다시 읽는다")
+    void serveStaleAndRefresh() {
+        //given
+        given(remote.get("productsCache", "상품_1_10")).willReturn(loadedAgo("이전 목록", Duration.ofMinutes(6)));
+        given(remote.tryLease(eq("productsCache"), eq("상품_1_10"), anyString())).willReturn(true);
+
+        //when
+        String stale = cache.get("상품_1_10", () -> "새 목록");
+        String refreshed = cache.get("상품_1_10", () -> "더 새 목록");
+
+        //then
+        assertEquals("이전 목록", stale);
+        assertEquals("새 목록", refreshed);
+        assertEquals(1, meterRegistry.get("cache.refresh").tag("result", "success").counter().count());
+        assertEquals(1, meterRegistry.get("cache.stale.age").tag("cache", "productsCache").timer().count());
+    }
+
+    @Test
+    @DisplayName("갱신에 실패하면 hard TTL까지 기존 값을 계속 쓴다")
+    void keepStaleWhenRefreshFails() {
+        //given
+        given(remote.get("productsCache", "상품_1_10")).willReturn(loadedAgo("이전 목록", Duration.ofMinutes(6)));
+        given(remote.tryLease(eq("productsCache"), eq("상품_1_10"), anyString())).willReturn(true);
+
+        //when
+        String first = cache.get("상품_1_10", () -> {
+            throw new IllegalStateException("DB 오류");
+        });
+
+        //then
+        assertEquals("이전 목록", first);
+        assertEquals(1, meterRegistry.get("cache.refresh").tag("result", "failure").counter().count());
+        assertEquals("이전 목록", cache.getNativeCache().getIfPresent("상품_1_10").value());
+    }
+
+    @Test
+    @DisplayName("갱신 실행기가 가득 차면 갱신을 건너뛰고 집계한다")
+    void countRejectedRefresh() {
+        //given
+        cacheManager = new TwoLevelCacheManager(new TwoLevelCacheProperties(), remote, task -> {
+            throw new RejectedExecutionException();
+        }, meterRegistry, "productsCache");
+        cache = (TwoLevelCache) cacheManager.getCache("productsCache");
+        given(remote.get("productsCache", "상품_1_10")).willReturn(loadedAgo("이전 목록", Duration.ofMinutes(6)));
+
+        //when
+        String value = cache.get("상품_1_10", () -> "새 목록");
+
+        //then
+        assertEquals("이전 목록", value);
+        assertEquals(1, meterRegistry.get("cache.refresh").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("hard TTL이 지난 값은 쓰지 않고 요청 스레드에서 다시 읽는다")
+    void reloadAfterHardTtl() {
+        //given
+        given(remote.get("productsCache", "상품_1_10")).willReturn(loadedAgo("이전 목록", Duration.ofMinutes(11)));
+        given(remote.tryLease(eq("productsCache"), eq("상품_1_10"), anyString())).willReturn(true);
+
+        //when
+        String value = cache.get("상품_1_10", () -> "새 목록");
+
+        //then
+        assertEquals("새 목록", value);
+        assertEquals(0, meterRegistry.get("cache.stale.age").timer().count());
+    }
+
+    private static CacheEntry loadedAgo(Object value, Duration age) {
+        return new CacheEntry(value, System.currentTimeMillis() - age.toMillis());
+    }
+}
@@ -0,0 +1,43 @@
+package com.shop.global.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.shop.global.config.IdSequenceInitializer.IdSequence;
+import com.shop.global.count.ListCountCache;
+import com.shop.global.count.ListCountConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import({QuerydslConfig.class, ListCountConfig.class, ListCountCache.class, SimpleMeterRegistry.class})
+class IdSequenceInitializerTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("엔티티의 @SequenceGenerator 매핑에서 초기화할 시퀀스, 테이블, ID 컬럼, allocationSize를 읽는다")
+    void deriveSequencesFromMapping() {
+        //when
+        List<IdSequence> sequences = IdSequenceInitializer.sequences(entityManagerFactory).stream()
+                .sorted(Comparator.comparing(IdSequence::name))
+                .toList();
+
+        //then
+        assertEquals(List.of(
+                new IdSequence("member_seq", "member", "member_id", 50),
+                new IdSequence("order_product_seq", "order_product", "order_product_id", 50),
+                new IdSequence("orders_seq", "orders", "order_id", 50),
+                new IdSequence("payment_seq", "payment", "payment_id", 50),
+                new IdSequence("product_seq", "product", "product_id", 50),
+                new IdSequence("product_stock_shard_seq", "product_stock_shard", "product_stock_shard_id", 50)),
+                sequences);
+    }
+}
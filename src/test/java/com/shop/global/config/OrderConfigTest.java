@@ -0,0 +1,19 @@
+package com.shop.global.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderConfigTest {
+
+    @Test
+    @DisplayName("주문 번호 노드 ID를 지정하지 않으면 시작하지 않는다")
+    void requireNodeId() {
+        //given
+        OrderProperties properties = new OrderProperties();
+
+        //when, then
+        assertThrows(IllegalStateException.class, () -> new OrderConfig(properties));
+    }
+}
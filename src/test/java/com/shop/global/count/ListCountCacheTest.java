@@ -0,0 +1,94 @@
+package com.shop.global.count;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.shop.global.count.ListCountProperties.CountMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ListCountCacheTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ListCountProperties properties;
+    private ListCountCache listCountCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListCountProperties();
+        listCountCache = new ListCountCache(properties, entityManager, Runnable::run, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("같은 검색 조건은 COUNT를 한 번만 실행하고, 조건이 다르면 따로 센다")
+    void cachePerFilter() {
+        //given
+        AtomicInteger executed = new AtomicInteger();
+
+        //when
+        long first = listCountCache.count("product", "상품", limit -> executed.incrementAndGet() * 10L).join();
+        long second = listCountCache.count("product", "상품", limit -> executed.incrementAndGet() * 10L).join();
+        long other = listCountCache.count("product", "", limit -> executed.incrementAndGet() * 10L).join();
+
+        //then
+        assertEquals(10, first);
+        assertEquals(10, second);
+        assertEquals(20, other);
+        assertEquals(2, executed.get());
+    }
+
+    @Test
+    @DisplayName("추정 모드에서 검색 조건이 있으면 estimateCap까지만 센다")
+    void estimatedCountIsCapped() {
+        //given
+        properties.setMode(CountMode.ESTIMATED);
+        properties.setEstimateCap(100);
+        List<Long> limits = new ArrayList<>();
+
+        //when
+        long count = listCountCache.count("product", "상품", limit -> {
+            limits.add(limit);
+            return 100;
+        }).join();
+
+        //then
+        assertEquals(100, count);
+        assertEquals(List.of(100L), limits);
+    }
+
+    @Test
+    @DisplayName("정확 모드는 제한 없이 센다")
+    void exactCountHasNoLimit() {
+        //given
+        List<Long> limits = new ArrayList<>();
+
+        //when
+        listCountCache.count("member", "", limit -> {
+            limits.add(limit);
+            return 3;
+        }).join();
+
+        //then
+        assertEquals(1, limits.size());
+        assertNull(limits.get(0));
+    }
+
+    @Test
+    @DisplayName("검색 조건은 앞뒤 공백을 제거해 같은 키로 본다")
+    void normalizeFilter() {
+        assertEquals("상품", ListCountCache.normalize("  상품 "));
+        assertEquals("", ListCountCache.normalize(null));
+    }
+}
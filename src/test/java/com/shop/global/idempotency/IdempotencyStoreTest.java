@@ -0,0 +1,235 @@
+package com.shop.global.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.dto.response.CommonResponse;
+import com.shop.dto.response.OrderResponse;
+import com.shop.exception.IdempotencyConflict;
+import com.shop.exception.OrderLockFailed;
+import com.shop.global.redis.RedisHealthMonitor;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final TypeReference<CommonResponse<OrderResponse>> ORDER_RESPONSE = new TypeReference<>() {
+    };
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(redisTemplate, redisHealthMonitor, new ObjectMapper(),
+                Duration.ofHours(1));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);  //Redis 장애 테스트는 호출하지 않는다.
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 요청은 첫 요청의 결과를 함께 기다린다")
+    void shareInFlightResult() {
+        //given
+        given(valueOperations.setIfAbsent(eq("idempotency:order:key-1"), eq("IN_PROGRESS"), any(Duration.class)))
+                .willReturn(true);
+        CompletableFuture<CommonResponse<OrderResponse>> first = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        //when
+        CompletableFuture<CommonResponse<OrderResponse>> result1 = idempotencyStore.executeAsync("order", "key-1",
+                ORDER_RESPONSE, () -> {
+                    executions.incrementAndGet();
+                    return first;
+                });
+        CompletableFuture<CommonResponse<OrderResponse>> result2 = idempotencyStore.executeAsync("order", "key-1",
+                ORDER_RESPONSE, () -> {
+                    executions.incrementAndGet();
+                    return new CompletableFuture<>();
+                });
+        first.complete(CommonResponse.success(OrderResponse.builder().orderId(1L).build()));
+
+        //then
+        assertEquals(1, executions.get());
+        assertSame(result1.join(), result2.join());
+        verify(valueOperations).set(eq("idempotency:order:key-1"), anyString(), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 처리한 결과는 Redis에서 읽어 그대로 반환한다")
+    void replayStoredResult() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.get("idempotency:order:key-1"))
+                .willReturn("{\"code\":\"200\",\"message\":\"ok\",\"body\":{\"orderId\":7}}");
+
+        //when
+        CommonResponse<OrderResponse> result = idempotencyStore.execute("order", "key-1", ORDER_RESPONSE, () -> {
+            throw new IllegalStateException("실행되면 안 된다");
+        });
+
+        //then
+        assertEquals(7L, result.getBody().getOrderId());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스에서 처리 중이면 IdempotencyConflict")
+    void conflictWhileInProgressElsewhere() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.get("idempotency:order:key-1")).willReturn("IN_PROGRESS");
+
+        //when & then
+        assertThrows(IdempotencyConflict.class, () -> idempotencyStore.execute("order", "key-1", ORDER_RESPONSE,
+                () -> CommonResponse.success(OrderResponse.builder().build())));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 저장하지 않아 같은 키로 다시 실행할 수 있다")
+    void retryAfterFailure() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+
+        //when
+        assertThrows(OrderLockFailed.class, () -> idempotencyStore.execute("order", "key-1", ORDER_RESPONSE, () -> {
+            throw new OrderLockFailed();
+        }));
+        CommonResponse<OrderResponse> result = idempotencyStore.execute("order", "key-1", ORDER_RESPONSE,
+                () -> CommonResponse.success(OrderResponse.builder().orderId(2L).build()));
+
+        //then
+        assertEquals(2L, result.getBody().getOrderId());
+        verify(redisTemplate).delete("idempotency:order:key-1");
+    }
+
+    @Test
+    @DisplayName("같은 키에 다른 내용의 요청이 오면 저장된 결과를 돌려주지 않고 IdempotencyConflict")
+    void conflictOnDifferentFingerprint() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        idempotencyStore.execute("payment", "key-1", "order-1:1000", ORDER_RESPONSE, response -> true,
+                () -> CommonResponse.success(OrderResponse.builder().orderId(1L).build()));
+
+        //when
+        CompletableFuture<CommonResponse<OrderResponse>> result = idempotencyStore.executeAsync("payment", "key-1",
+                "order-1:1", ORDER_RESPONSE, response -> true, () -> {
+                    throw new IllegalStateException("실행되면 안 된다");
+                });
+
+        //then
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertTrue(e.getCause() instanceof IdempotencyConflict);
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 저장한 결과도 요청 내용이 같을 때만 돌려준다")
+    void replayStoredResultWithFingerprint() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.get("idempotency:payment:key-1")).willReturn(
+                "{\"fingerprint\":\"order-1:1000\",\"result\":{\"code\":\"200\",\"message\":\"ok\",\"body\":{\"orderId\":7}}}");
+
+        //when
+        CommonResponse<OrderResponse> result = idempotencyStore.execute("payment", "key-1", "order-1:1000",
+                ORDER_RESPONSE, response -> true, () -> {
+                    throw new IllegalStateException("실행되면 안 된다");
+                });
+
+        //then
+        assertEquals(7L, result.getBody().getOrderId());
+        assertThrows(IdempotencyConflict.class, () -> idempotencyStore.execute("payment", "key-1", "order-1:1",
+                ORDER_RESPONSE, response -> true, () -> CommonResponse.success(OrderResponse.builder().build())));
+    }
+
+    @Test
+    @DisplayName("저장 대상이 아닌 결과(실패 응답)는 저장하지 않고 같은 키로 다시 실행한다")
+    void skipNonStorableResult() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        AtomicInteger executions = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            idempotencyStore.execute("payment", "key-1", "order-1:1000", ORDER_RESPONSE,
+                    response -> "200".equals(response.getCode()), () -> {
+                        executions.incrementAndGet();
+                        return CommonResponse.fail("승인 실패");
+                    });
+        }
+
+        //then
+        assertEquals(2, executions.get());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 중에는 Redis를 쓰지 않고 이 인스턴스 안에서만 중복을 거른다")
+    void deduplicateLocallyWhileRedisDown() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(false);
+        AtomicInteger executions = new AtomicInteger();
+
+        //when
+        CommonResponse<OrderResponse> first = idempotencyStore.executeAsync("order", "key-1", "1:1", ORDER_RESPONSE,
+                response -> true, () -> {
+                    executions.incrementAndGet();
+                    return CompletableFuture.completedFuture(
+                            CommonResponse.success(OrderResponse.builder().orderId(1L).build()));
+                }).join();
+        CommonResponse<OrderResponse> retry = idempotencyStore.executeAsync("order", "key-1", "1:1", ORDER_RESPONSE,
+                response -> true, () -> {
+                    executions.incrementAndGet();
+                    return CompletableFuture.completedFuture(CommonResponse.success(null));
+                }).join();
+
+        //then
+        assertEquals(1, executions.get());
+        assertSame(first, retry);
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("장애 전환 전에 키 선점이 Redis 오류로 실패해도 요청을 거절하지 않고 처리한다")
+    void proceedWhenClaimFails() {
+        //given
+        given(valueOperations.setIfAbsent(eq("idempotency:order:key-1"), eq("IN_PROGRESS"), any(Duration.class)))
+                .willThrow(new IllegalStateException("connection refused"));
+
+        //when
+        CommonResponse<OrderResponse> result = idempotencyStore.executeAsync("order", "key-1", ORDER_RESPONSE,
+                () -> CompletableFuture.completedFuture(
+                        CommonResponse.success(OrderResponse.builder().orderId(1L).build()))).join();
+
+        //then
+        assertEquals(1L, result.getBody().getOrderId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.shop.global.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.shop.exception.AdmissionRequired;
+import com.shop.exception.NotEnoughStock;
+import com.shop.exception.OrderLockFailed;
+import com.shop.exception.TooManyRequests;
+import com.shop.global.limit.ConcurrencyLimitProperties.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter("order", new Limit(2, 1, 10, 1_000), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("한도만큼 처리 중이면 대기 없이 TooManyRequests로 거절한다")
+    void rejectWhenLimitReached() {
+        //given
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        limiter.executeAsync(() -> first);
+        limiter.executeAsync(() -> second);
+
+        //when
+        TooManyRequests e = assertThrows(TooManyRequests.class, () -> limiter.execute(() -> "주문"));
+
+        //then
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, meterRegistry.get("concurrency.rejected").tag("name", "order").counter().count());
+
+        first.complete("완료");
+        assertEquals("주문", limiter.execute(() -> "주문"));
+    }
+
+    @Test
+    @DisplayName("한도를 채워 정상 처리하면 한도가 늘어난다")
+    void increaseLimitOnSuccess() {
+        //given
+        CompletableFuture<String> first = new CompletableFuture<>();
+        limiter.executeAsync(() -> first);
+
+        //when
+        limiter.execute(() -> "주문");
+
+        //then
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("재고 부족, 입장권 없음 같은 실패는 한도를 늘리지도 줄이지도 않는다")
+    void ignoreNonOverloadFailure() {
+        //given
+        CompletableFuture<String> first = new CompletableFuture<>();
+        limiter.executeAsync(() -> first);
+
+        //when
+        assertThrows(NotEnoughStock.class, () -> limiter.execute(() -> {
+            throw new NotEnoughStock();
+        }));
+        CompletableFuture<String> rejected = limiter.executeAsync(
+                () -> CompletableFuture.failedFuture(new AdmissionRequired()));
+
+        //then
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("락 대기 실패가 나면 한도를 줄인다")
+    void decreaseLimitOnOverload() {
+        //given
+        limiter = new AdaptiveConcurrencyLimiter("order", new Limit(10, 1, 10, 1_000), meterRegistry);
+
+        //when
+        assertThrows(OrderLockFailed.class, () -> limiter.execute(() -> {
+            throw new OrderLockFailed();
+        }));
+
+        //then
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,101 @@
+package com.shop.global.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.api.redisnode.RedisSingle;
+
+@ExtendWith(MockitoExtension.class)
+class RedisHealthMonitorTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RedisSingle redisSingle;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisHealthMonitor redisHealthMonitor;
+
+    @BeforeEach
+    void setUp() {
+        OrderProperties properties = new OrderProperties();
+        properties.getLock().getFallback().setFailureThreshold(2);
+        properties.getLock().getFallback().setRecoveryThreshold(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        redisHealthMonitor = new RedisHealthMonitor(redissonClient, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("연속으로 PING에 실패하면 DB 락 모드로 전환한다")
+    void degradeAfterConsecutiveFailures() {
+        //given
+        given(redissonClient.getRedisNodes(RedisNodes.SINGLE)).willReturn(redisSingle);
+        given(redisSingle.pingAll(anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(false);
+
+        //when
+        redisHealthMonitor.probe();
+        boolean availableAfterFirstFailure = redisHealthMonitor.isAvailable();
+        redisHealthMonitor.probe();
+
+        //then
+        assertTrue(availableAfterFirstFailure);
+        assertFalse(redisHealthMonitor.isAvailable());
+        assertEquals(1, meterRegistry.get("order.lock.mode.switch").tag("to", "database").counter().count());
+        assertEquals(1, meterRegistry.get("order.lock.degraded").gauge().value());
+    }
+
+    @Test
+    @DisplayName("PING 예외도 실패로 보고, 연속으로 성공하면 Redis 락 모드로 복귀한다")
+    void recoverAfterConsecutiveSuccesses() {
+        //given
+        given(redissonClient.getRedisNodes(RedisNodes.SINGLE)).willReturn(redisSingle);
+        given(redisSingle.pingAll(anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .willThrow(new IllegalStateException("connection refused"))
+                .willReturn(false)
+                .willReturn(true);
+
+        //when
+        redisHealthMonitor.probe();
+        redisHealthMonitor.probe();
+        boolean availableWhileDown = redisHealthMonitor.isAvailable();
+        redisHealthMonitor.probe();
+        boolean availableAfterFirstSuccess = redisHealthMonitor.isAvailable();
+        redisHealthMonitor.probe();
+
+        //then
+        assertFalse(availableWhileDown);
+        assertFalse(availableAfterFirstSuccess);
+        assertTrue(redisHealthMonitor.isAvailable());
+        assertEquals(1, meterRegistry.get("order.lock.mode.switch").tag("to", "redis").counter().count());
+    }
+
+    @Test
+    @DisplayName("전환할 방식이 Redis를 쓰는 방식이면 시작하지 않는다")
+    void rejectRedisFallbackMode() {
+        //given
+        OrderProperties properties = new OrderProperties();
+        properties.getLock().getFallback().setMode(StockMode.COMBINING);
+
+        //when, then
+        assertThrows(IllegalArgumentException.class,
+                () -> new RedisHealthMonitor(redissonClient, properties, meterRegistry));
+    }
+}
@@ -0,0 +1,53 @@
+package com.shop.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.shop.domain.product.Product;
+import com.shop.dto.request.ProductSearch;
+import com.shop.dto.response.ProductResponse;
+import com.shop.global.config.QuerydslConfig;
+import com.shop.global.count.ListCountCache;
+import com.shop.global.count.ListCountConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@Import({QuerydslConfig.class, ListCountConfig.class, ListCountCache.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {"listing.count.mode=estimated", "listing.count.estimate-cap=3"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  //개수는 별도 실행기 스레드에서 세므로 저장을 커밋한다.
+class ProductRepositoryCountTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("추정 모드에서 검색 조건이 있으면 estimate-cap까지만 센다")
+    void countUpToEstimateCap() {
+        //given
+        String name = "카운트 상품" + System.nanoTime();
+        IntStream.range(0, 5).forEach(i -> productRepository.save(Product.builder()
+                .name(name + " " + i)
+                .price(1000)
+                .stockQuantity(10)
+                .build()));
+        ProductSearch search = new ProductSearch();
+        search.setQuery(name);
+        search.setSize(2);
+
+        //when
+        Page<ProductResponse> page = productRepository.getList(search);
+
+        //then
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+    }
+}
@@ -0,0 +1,152 @@
+package com.shop.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.redis.RedisHealthMonitor;
+import com.shop.repository.product.dto.ProductNameProjection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductSearchIndexTest {
+
+    private static final String CHANNEL = "product:search-index";
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex(productRepository, redisTemplate, redisHealthMonitor,
+                true, 100, CHANNEL);
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(productRepository.findNamesAfter(anyLong(), any(Pageable.class))).willReturn(List.of());
+        productSearchIndex.build();
+    }
+
+    @Test
+    @DisplayName("등록/삭제는 이 노드 색인에 반영하고 다른 노드에 알린다")
+    void publishLocalChanges() {
+        //when
+        productSearchIndex.add(1L, "테스트 상품");
+        productSearchIndex.remove(2L);
+
+        //then
+        assertArrayEquals(new long[]{1L}, productSearchIndex.search("테스트"));
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(CHANNEL), messages.capture());
+        assertTrue(messages.getAllValues().get(0).endsWith("\nadd\n1\n테스트 상품"));
+        assertTrue(messages.getAllValues().get(1).endsWith("\nremove\n2"));
+    }
+
+    @Test
+    @DisplayName("다른 노드의 등록/삭제 메시지를 색인에 반영한다")
+    void applyRemoteChanges() {
+        //when
+        productSearchIndex.onMessage(message("other-node\nadd\n1\n테스트 상품\n줄바꿈"), null);
+        productSearchIndex.onMessage(message("other-node\nadd\n2\n테스트 상품2"), null);
+        productSearchIndex.onMessage(message("other-node\nremove\n2"), null);
+        productSearchIndex.onMessage(message("other-node\nremove\nabc"), null);  //잘못된 메시지는 무시
+
+        //then
+        assertArrayEquals(new long[]{1L}, productSearchIndex.search("테스트"));
+        assertArrayEquals(new long[]{1L}, productSearchIndex.search("상품\n줄"));
+    }
+
+    @Test
+    @DisplayName("자기가 보낸 메시지는 다시 반영하지 않는다 (삭제 후 늦게 도착한 등록 메시지가 되살리지 않는다)")
+    void ignoreOwnMessages() {
+        //given
+        productSearchIndex.add(1L, "테스트 상품");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+        productSearchIndex.remove(1L);
+
+        //when
+        productSearchIndex.onMessage(message(published.getValue()), null);
+
+        //then
+        assertArrayEquals(new long[0], productSearchIndex.search("테스트"));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 중에는 LIKE 검색을 쓰고, 복구되면 DB에서 색인을 다시 만든 뒤 사용한다")
+    void rebuildAfterRedisRecovery() {
+        //given
+        given(redisHealthMonitor.isAvailable()).willReturn(false);
+        productSearchIndex.rebuildAfterRedisRecovery();
+        boolean searchableWhileDown = productSearchIndex.canSearch("테스트");
+
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        boolean searchableBeforeRebuild = productSearchIndex.canSearch("테스트");
+        given(productRepository.findNamesAfter(eq(0L), any(Pageable.class)))
+                .willReturn(List.of(projection(3L, "테스트 상품3")));
+
+        //when
+        productSearchIndex.rebuildAfterRedisRecovery();
+
+        //then
+        assertFalse(searchableWhileDown);
+        assertFalse(searchableBeforeRebuild);
+        assertTrue(productSearchIndex.canSearch("테스트"));
+        assertArrayEquals(new long[]{3L}, productSearchIndex.search("테스트"));
+    }
+
+    @Test
+    @DisplayName("내림차순 ID 목록에서 커서보다 작은 첫 위치를 찾는다")
+    void indexAfterCursor() {
+        long[] productIds = {50L, 40L, 30L, 20L, 10L};
+
+        assertEquals(0, ProductSearchIndex.indexAfter(productIds, 60L));
+        assertEquals(2, ProductSearchIndex.indexAfter(productIds, 40L));
+        assertEquals(2, ProductSearchIndex.indexAfter(productIds, 35L));
+        assertEquals(5, ProductSearchIndex.indexAfter(productIds, 10L));
+        assertEquals(0, ProductSearchIndex.indexAfter(new long[0], 10L));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductNameProjection projection(Long id, String name) {
+        return new ProductNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.shop.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1L, "테스트 상품1");
+        index.add(2L, "테스트 상품2");
+        index.add(3L, "Apple iPhone");
+        index.add(30L, "테스트 상품30");
+    }
+
+    @Test
+    @DisplayName("이름에 검색어가 들어 있는 상품 ID를 내림차순으로 찾는다")
+    void searchSubstring() {
+        assertArrayEquals(new long[]{30L, 2L, 1L}, index.search("테스트 상품"));
+        assertArrayEquals(new long[]{30L}, index.search("상품3"));
+    }
+
+    @Test
+    @DisplayName("대소문자와 앞뒤 공백은 구분하지 않는다")
+    void ignoreCase() {
+        assertArrayEquals(new long[]{3L}, index.search("  IPHONE "));
+    }
+
+    @Test
+    @DisplayName("트라이그램이 모두 있어도 연속한 문자열이 아니면 제외한다")
+    void verifyCandidates() {
+        //given
+        index.add(40L, "abcd bcde");
+
+        //when & then
+        assertEquals(0, index.search("abcde").length);
+        assertArrayEquals(new long[]{40L}, index.search("bcde"));
+    }
+
+    @Test
+    @DisplayName("삭제한 상품은 검색되지 않고, 다시 등록하면 새 이름으로 검색된다")
+    void removeAndReAdd() {
+        //when
+        index.remove(2L);
+        index.add(1L, "중고 노트북");
+
+        //then
+        assertArrayEquals(new long[]{30L}, index.search("테스트 상품"));
+        assertArrayEquals(new long[]{1L}, index.search("노트북"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("색인에 없는 트라이그램이 있으면 빈 결과")
+    void noMatch() {
+        assertEquals(0, index.search("없는상품").length);
+    }
+
+    @Test
+    @DisplayName("3글자 미만 검색어는 색인으로 답하지 않는다")
+    void shortQueryIsNotSearchable() {
+        assertFalse(TrigramIndex.isSearchable(" 상품 "));
+        assertTrue(TrigramIndex.isSearchable("상품1"));
+    }
+
+    @Test
+    @DisplayName("긴 목록과의 교집합도 빠짐없이 찾는다")
+    void intersectLongPostings() {
+        //given
+        TrigramIndex large = new TrigramIndex();
+        for (long id = 1; id <= 10_000; id++) {
+            large.add(id, (id % 1_000 == 0 ? "special " : "") + "product " + id);
+        }
+
+        //when
+        long[] result = large.search("special product");
+
+        //then
+        assertEquals(10, result.length);
+        assertEquals(10_000L, result[0]);
+        assertEquals(1_000L, result[9]);
+    }
+}
@@ -0,0 +1,289 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.shop.domain.member.Member;
+import com.shop.domain.product.Product;
+import com.shop.dto.request.CartOrderRequest;
+import com.shop.dto.request.OrderCreateRequest;
+import com.shop.event.OrderEventPublisher;
+import com.shop.exception.NotEnoughStock;
+import com.shop.facade.OptimisticStockStrategy;
+import com.shop.global.bloom.IdFilter;
+import com.shop.global.config.OrderConfig;
+import com.shop.global.config.QuerydslConfig;
+import com.shop.global.count.ListCountCache;
+import com.shop.global.count.ListCountConfig;
+import com.shop.repository.member.MemberRepository;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * DB 재고 차감 방식별 동시 주문 (H2, 요청마다 별도 트랜잭션)
+ */
+@DataJpaTest
+@Import({OrderService.class, StockShardService.class, OrderEventPublisher.class, OrderConfig.class,
+        QuerydslConfig.class, ListCountConfig.class, ListCountCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 50;
+    private static final int REQUEST_COUNT = 80;
+
+    @MockitoBean
+    private IdFilter idFilter;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private StockShardService stockShardService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private String email;
+    private Queue<Exception> failures;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        email = "user" + System.nanoTime() + "@example.com";
+        failures = new ConcurrentLinkedQueue<>();
+        transaction.executeWithoutResult(status -> memberRepository.save(Member.builder()
+                .email(email)
+                .name("사용자")
+                .build()));
+    }
+
+    @Test
+    @DisplayName("비관적 락 동시 주문은 재고를 음수로 만들지 않고, 성공한 수량만큼만 재고가 줄어든다")
+    void concurrentPessimisticLock() throws InterruptedException {
+        //given
+        Long productId = saveProduct(INITIAL_STOCK);
+
+        //when
+        int ordered = orderConcurrently(i -> orderService.orderWithPessimisticLock(email, single(productId)));
+
+        //then
+        int remaining = productRepository.findById(productId).orElseThrow().getStockQuantity();
+        assertEquals(INITIAL_STOCK - ordered, remaining);
+        assertTrue(remaining >= 0);
+        assertTrue(ordered > 0);
+    }
+
+    @Test
+    @DisplayName("낙관적 락 동시 주문은 충돌을 재시도하고, 재고를 음수로 만들지 않는다")
+    void concurrentOptimisticLock() throws InterruptedException {
+        //given
+        Long productId = saveProduct(INITIAL_STOCK);
+        OptimisticStockStrategy strategy = new OptimisticStockStrategy(orderService);
+
+        //when
+        int ordered = orderConcurrently(i -> strategy.order(email, single(productId)));
+
+        //then
+        int remaining = productRepository.findById(productId).orElseThrow().getStockQuantity();
+        assertEquals(INITIAL_STOCK - ordered, remaining);
+        assertTrue(remaining >= 0);
+        assertTrue(ordered > 0);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 동시 주문은 재고를 음수로 만들지 않고, 성공한 수량만큼만 재고가 줄어든다")
+    void concurrentConditionalUpdate() throws InterruptedException {
+        //given
+        Long productId = saveProduct(INITIAL_STOCK);
+
+        //when
+        int ordered = orderConcurrently(i -> orderService.orderWithConditionalUpdate(email, single(productId)));
+
+        //then
+        int remaining = productRepository.findById(productId).orElseThrow().getStockQuantity();
+        assertEquals(INITIAL_STOCK - ordered, remaining);
+        assertTrue(remaining >= 0);
+        assertTrue(ordered > 0);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE가 0건이면 NotEnoughStock으로 끝나고 재고는 그대로다")
+    void conditionalUpdateNotEnoughStock() {
+        //given
+        Long productId = saveProduct(3);
+
+        //expected
+        assertThrows(NotEnoughStock.class, () -> orderService.orderWithConditionalUpdate(email,
+                OrderCreateRequest.builder()
+                        .productId(productId)
+                        .quantity(5)
+                        .build()));
+        assertEquals(3, productRepository.findById(productId).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("상품 행 재고가 부족해도 분할 재고 상품이면 샤드에서 차감한다")
+    void conditionalUpdateFallbackToShards() {
+        //given
+        Long productId = saveProduct(20);
+        transaction.executeWithoutResult(status ->
+                stockShardService.split(productRepository.findById(productId).orElseThrow(), 4));
+
+        //when
+        orderService.orderWithConditionalUpdate(email, OrderCreateRequest.builder()
+                .productId(productId)
+                .quantity(7)
+                .build());
+
+        //then
+        int remaining = transaction.execute(status ->
+                stockShardService.getTotalStock(productRepository.findById(productId).orElseThrow()));
+        assertEquals(13, remaining);
+    }
+
+    @Test
+    @DisplayName("장바구니에 재고가 부족한 줄이 하나라도 있으면 모든 줄의 차감이 롤백된다")
+    void cartRollsBackEveryLine() {
+        //given
+        Long enoughId = saveProduct(10);
+        Long shortId = saveProduct(1);
+
+        //expected
+        assertThrows(NotEnoughStock.class, () -> orderService.orderCart(email, cart(enoughId, shortId, 2)));
+        assertEquals(10, productRepository.findById(enoughId).orElseThrow().getStockQuantity());
+        assertEquals(1, productRepository.findById(shortId).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("상품 순서가 반대인 장바구니가 동시에 겹쳐도 교착 없이 끝나고, 두 상품의 재고가 같이 줄어든다")
+    void concurrentOppositeCarts() throws InterruptedException {
+        //given
+        Long firstId = saveProduct(INITIAL_STOCK);
+        Long secondId = saveProduct(INITIAL_STOCK);
+
+        //when
+        int ordered = orderConcurrently(i -> orderService.orderCart(email,
+                i % 2 == 0 ? cart(firstId, secondId, 1) : cart(secondId, firstId, 1)));
+
+        //then
+        failures.forEach(e -> assertInstanceOf(NotEnoughStock.class, e));  //교착/잠금 대기 초과 없음
+        assertEquals(INITIAL_STOCK - ordered, productRepository.findById(firstId).orElseThrow().getStockQuantity());
+        assertEquals(INITIAL_STOCK - ordered, productRepository.findById(secondId).orElseThrow().getStockQuantity());
+        assertEquals(INITIAL_STOCK, ordered);
+    }
+
+    @Test
+    @DisplayName("비관적 락 장바구니는 상품 순서가 반대여도 ID 순서로 행을 잠가 교착 없이 끝난다")
+    void concurrentOppositeCartsWithPessimisticLock() throws InterruptedException {
+        //given
+        Long firstId = saveProduct(INITIAL_STOCK);
+        Long secondId = saveProduct(INITIAL_STOCK);
+
+        //when
+        int ordered = orderConcurrently(i -> orderService.orderCartWithPessimisticLock(email,
+                i % 2 == 0 ? cart(firstId, secondId, 1) : cart(secondId, firstId, 1)));
+
+        //then
+        failures.forEach(e -> assertInstanceOf(NotEnoughStock.class, e));
+        assertEquals(0, productRepository.findById(firstId).orElseThrow().getStockQuantity());
+        assertEquals(0, productRepository.findById(secondId).orElseThrow().getStockQuantity());
+        assertEquals(INITIAL_STOCK, ordered);
+    }
+
+    @Test
+    @DisplayName("낙관적 락 장바구니는 한 줄이라도 충돌하면 전체를 재시도해 두 상품의 재고가 같이 줄어든다")
+    void concurrentCartsWithOptimisticLock() throws InterruptedException {
+        //given
+        Long firstId = saveProduct(INITIAL_STOCK);
+        Long secondId = saveProduct(INITIAL_STOCK);
+        OptimisticStockStrategy strategy = new OptimisticStockStrategy(orderService);
+
+        //when
+        int ordered = orderConcurrently(i -> strategy.orderCart(email,
+                i % 2 == 0 ? cart(firstId, secondId, 1) : cart(secondId, firstId, 1)));
+
+        //then
+        int firstRemaining = productRepository.findById(firstId).orElseThrow().getStockQuantity();
+        assertEquals(INITIAL_STOCK - ordered, firstRemaining);
+        assertEquals(firstRemaining, productRepository.findById(secondId).orElseThrow().getStockQuantity());
+        assertTrue(firstRemaining >= 0);
+        assertTrue(ordered > 0);
+    }
+
+    private Long saveProduct(int stockQuantity) {
+        return transaction.execute(status -> productRepository.save(Product.builder()
+                .name("동시 주문 상품")
+                .price(1000)
+                .stockQuantity(stockQuantity)
+                .build()).getId());
+    }
+
+    private static OrderCreateRequest single(Long productId) {
+        return OrderCreateRequest.builder()
+                .productId(productId)
+                .quantity(1)
+                .build();
+    }
+
+    //첫 줄 1개, 둘째 줄 secondQuantity개 (요청에 담긴 상품 순서 그대로)
+    private static CartOrderRequest cart(Long firstId, Long secondId, int secondQuantity) {
+        return CartOrderRequest.builder()
+                .items(List.of(single(firstId), OrderCreateRequest.builder()
+                        .productId(secondId)
+                        .quantity(secondQuantity)
+                        .build()))
+                .build();
+    }
+
+    //요청 순번을 넘겨 동시에 주문하고 성공한 주문 수를 돌려준다. (실패는 failures에 모은다)
+    private int orderConcurrently(IntConsumer order) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(REQUEST_COUNT);
+        AtomicInteger ordered = new AtomicInteger();
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            int index = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    order.accept(index);
+                    ordered.incrementAndGet();
+                } catch (Exception e) {  //재고 부족, 재시도 초과, 잠금 대기 초과 -> 롤백
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        return ordered.get();
+    }
+}
@@ -47,13 +47,17 @@ class PaymentRecoveryServiceTest {
     private Order testOrder;
 
     private PaymentResponse buildResponse() {
+        return buildResponse("DONE");
+    }
+
+    private PaymentResponse buildResponse(String status) {
         return new PaymentResponse(
                 "pay_1234567890",
                 "--MTIz",
                 "테스트주문",
                 "CARD",
                 1000L,
-                "DONE",
+                status,
                 "2025-11-06T00:00:00+09:00"
         );
     }
@@ -100,6 +104,8 @@ class PaymentRecoveryServiceTest {
         PaymentResponse response = buildResponse();
         doReturn(response)
                 .when(tossPaymentsClient).getPaymentByPaymentKey(anyString());
+        doReturn(true)
+                .when(paymentTxService).saveRecoveredPayment(response);
 
         //when
         paymentRecoveryService.schedulePaymentRecovery();
@@ -110,6 +116,59 @@ class PaymentRecoveryServiceTest {
         verify(paymentTxService, times(orderIds.size())).saveRecoveredPayment(eq(response));
     }
 
+    @Test
+    @DisplayName("승인 진행 중인 결제는 반영하지 않고 다음 주기에 다시 확인한다")
+    void recoverMissingPayment_InProgress() {
+        //given
+        doReturn(Optional.of(testOrder))
+                .when(orderRepository).findById(1L);
+        doReturn(buildResponse("IN_PROGRESS"))
+                .when(tossPaymentsClient).getPaymentByPaymentKey(anyString());
+
+        //when
+        paymentRecoveryService.recoverMissingPayment(1L);
+
+        //then
+        verify(paymentTxService, never()).saveRecoveredPayment(any());
+        verify(paymentTxService, never()).compensateOrder(any());
+    }
+
+    @Test
+    @DisplayName("승인되지 않고 끝난 결제의 주문은 취소하고 재고를 돌려놓는다")
+    void recoverMissingPayment_Aborted() {
+        //given
+        doReturn(Optional.of(testOrder))
+                .when(orderRepository).findById(1L);
+        doReturn(buildResponse("ABORTED"))
+                .when(tossPaymentsClient).getPaymentByPaymentKey(anyString());
+
+        //when
+        paymentRecoveryService.recoverMissingPayment(1L);
+
+        //then
+        verify(paymentTxService).compensateOrder(1L);
+        verify(paymentTxService, never()).saveRecoveredPayment(any());
+    }
+
+    @Test
+    @DisplayName("승인된 결제를 반영하지 못하면(그 사이 취소된 주문) 토스 결제를 취소한다")
+    void recoverMissingPayment_Canceled() {
+        //given
+        doReturn(Optional.of(testOrder))
+                .when(orderRepository).findById(1L);
+        PaymentResponse response = buildResponse();
+        doReturn(response)
+                .when(tossPaymentsClient).getPaymentByPaymentKey(anyString());
+        doReturn(false)
+                .when(paymentTxService).saveRecoveredPayment(response);
+
+        //when
+        paymentRecoveryService.recoverMissingPayment(1L);
+
+        //then
+        verify(tossPaymentsClient).cancelPayment(eq("pay_1234567890"), any());
+    }
+
     //@Test
     //@DisplayName("외부 API 호출 실패 시에도 예외 전파 없이 로그만 남김")
     //void recoverMissingPayment_ApiFailure() {
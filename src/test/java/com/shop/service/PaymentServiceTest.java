@@ -3,27 +3,39 @@ package com.shop.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.shop.client.TossPaymentsClient;
+import com.shop.domain.member.Member;
+import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderProduct;
+import com.shop.domain.order.OrderStatus;
+import com.shop.domain.product.Product;
 import com.shop.dto.request.PaymentRequest;
 import com.shop.dto.response.CommonResponse;
 import com.shop.dto.response.PaymentResponse;
 import com.shop.event.OrderEventPublisher;
 import com.shop.exception.CustomFeignException;
-import com.shop.repository.PaymentRepository;
+import com.shop.exception.OrderStatusConflict;
+import com.shop.global.bloom.IdFilter;
 import com.shop.repository.order.OrderRepository;
 import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceTest {
@@ -32,6 +44,12 @@ class PaymentServiceTest {
     private TossPaymentsClient tossPaymentsClient;
     @Mock
     private PaymentTxService paymentTxService;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private IdFilter idFilter;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private PaymentService paymentService;
@@ -56,6 +74,7 @@ class PaymentServiceTest {
         PaymentResponse response = buildResponse();
 
         given(tossPaymentsClient.confirmPayment(any())).willReturn(response);
+        given(paymentTxService.successPayment(response)).willReturn(true);
 
         //when
         CommonResponse<PaymentResponse> result = paymentService.confirmPayment(request);
@@ -63,11 +82,58 @@ class PaymentServiceTest {
         //then
         assertEquals("200", result.getCode());
         assertEquals(response.getPaymentKey(), result.getBody().getPaymentKey());
-        verify(paymentTxService).updateOrderPaymentKey(response);
+        verify(paymentTxService).startPayment(123L, "pay_1234567890");
         verify(paymentTxService).successPayment(response);
         verify(paymentTxService, never()).compensateOrder(any());
     }
 
+    @Test
+    @DisplayName("승인 시작 표시에 실패한 주문(취소/만료/완료)은 토스 승인 API를 호출하지 않는다")
+    void confirmPayment_notPayable() {
+        //given
+        PaymentRequest request = new PaymentRequest("pay_1234567890", "--MTIz", "1000");
+        willThrow(new OrderStatusConflict()).given(paymentTxService).startPayment(123L, "pay_1234567890");
+
+        //when
+        assertThrows(OrderStatusConflict.class, () -> paymentService.confirmPayment(request));
+
+        //then
+        verify(tossPaymentsClient, never()).confirmPayment(any());
+    }
+
+    @Test
+    @DisplayName("승인 후 완료 전이에 실패하면 승인된 결제를 취소하고 OrderStatusConflict")
+    void confirmPayment_lostCompletion() {
+        //given
+        PaymentRequest request = new PaymentRequest("pay_1234567890", "--MTIz", "1000");
+        PaymentResponse response = buildResponse();
+        given(tossPaymentsClient.confirmPayment(any())).willReturn(response);
+        given(paymentTxService.successPayment(response)).willReturn(false);
+
+        //when
+        assertThrows(OrderStatusConflict.class, () -> paymentService.confirmPayment(request));
+
+        //then
+        verify(tossPaymentsClient).cancelPayment(eq("pay_1234567890"), any());
+    }
+
+    @Test
+    @DisplayName("결제창 조회는 주문 상태를 바꾸지 않고, 결제할 수 없는 주문이면 OrderStatusConflict")
+    void getOrderPaymentInfo_readOnly() {
+        //given
+        Order order = new Order(Member.builder().email("test@test.com").name("테스트").build(),
+                List.of(new OrderProduct(Product.builder().name("상품").price(1000).build(), 1)));
+        ReflectionTestUtils.setField(order, "status", OrderStatus.COMPLETED);
+        given(idFilter.mightExist(IdFilter.ORDER, 123L)).willReturn(true);
+        given(orderRepository.findById(123L)).willReturn(Optional.of(order));
+
+        //when
+        assertThrows(OrderStatusConflict.class, () -> paymentService.getOrderPaymentInfo(123L));
+
+        //then
+        verify(orderRepository, never()).compareAndSetStatus(any(), any(), any());
+    }
+
     @Test
     @DisplayName("외부 API 실패 시 주문 보상 및 실패 응답 반환")
     void confirmPayment_apiFailure() {
@@ -86,6 +152,26 @@ class PaymentServiceTest {
         verify(paymentTxService, never()).successPayment(any());
     }
 
+    @Test
+    @DisplayName("토스 승인 API 시간을 성공/실패별로, 전체 처리 시간을 따로 기록")
+    void confirmPayment_metrics() {
+        //given
+        PaymentRequest request = new PaymentRequest("pay_1234567890", "--MTIz", "1000");
+        given(tossPaymentsClient.confirmPayment(any()))
+                .willReturn(buildResponse())
+                .willThrow(new CustomFeignException("500", "외부 API 실패"));
+        given(paymentTxService.successPayment(any())).willReturn(true);
+
+        //when
+        paymentService.confirmPayment(request);
+        paymentService.confirmPayment(request);
+
+        //then
+        assertEquals(1, meterRegistry.get("payment.toss.confirm").tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("payment.toss.confirm").tag("result", "failure").timer().count());
+        assertEquals(2, meterRegistry.get("payment.confirm").timer().count());
+    }
+
     @Test
     @DisplayName("외부 API 성공했으나 DB 저장 실패 시 예외 로그 출력 및 성공 응답 반환")
     void confirmPayment_dbFailure() {
@@ -94,7 +180,6 @@ class PaymentServiceTest {
         PaymentResponse response = buildResponse();
 
         given(tossPaymentsClient.confirmPayment(any())).willReturn(response);
-        willDoNothing().given(paymentTxService).updateOrderPaymentKey(response);
         willThrow(new RuntimeException("DB 저장 실패")).given(paymentTxService).successPayment(response);
 
         //when
@@ -103,8 +188,9 @@ class PaymentServiceTest {
         //then
         assertEquals("200", result.getCode());
         assertEquals(response.getPaymentKey(), result.getBody().getPaymentKey());
-        verify(paymentTxService).updateOrderPaymentKey(response);
+        verify(paymentTxService).startPayment(123L, "pay_1234567890");
         verify(paymentTxService).successPayment(response);
         verify(paymentTxService, never()).compensateOrder(any());
+        verify(tossPaymentsClient, never()).cancelPayment(any(), any());
     }
 }
@@ -0,0 +1,153 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.domain.member.Member;
+import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderProduct;
+import com.shop.domain.order.OrderStatus;
+import com.shop.domain.payment.Payment;
+import com.shop.domain.product.Product;
+import com.shop.dto.response.PaymentResponse;
+import com.shop.event.OrderEventPublisher;
+import com.shop.exception.OrderStatusConflict;
+import com.shop.repository.PaymentRepository;
+import com.shop.repository.order.OrderRepository;
+import com.shop.repository.product.ProductRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentTxServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+
+    @InjectMocks
+    private PaymentTxService paymentTxService;
+
+    private Order order;
+
+    //"--MTIz" -> 주문 ID 123
+    private PaymentResponse buildResponse() {
+        return new PaymentResponse(
+                "pay_1234567890",
+                "--MTIz",
+                "테스트주문",
+                "CARD",
+                1000L,
+                "DONE",
+                "2025-11-06T00:00:00+09:00"
+        );
+    }
+
+    @BeforeEach
+    void setUp() {
+        Member member = Member.builder()
+                .email("test@test.com")
+                .name("테스트")
+                .build();
+        Product product = Product.builder().build();
+        ReflectionTestUtils.setField(product, "id", 1L);
+        List<OrderProduct> orderProducts = new ArrayList<>();
+        orderProducts.add(new OrderProduct(product, 2));
+        orderProducts.add(new OrderProduct(product, 3));
+        order = new Order(member, orderProducts);
+        ReflectionTestUtils.setField(order, "id", 123L);
+    }
+
+    @Test
+    @DisplayName("결제 완료 전이에 성공하면 결제 내역을 저장하고 완료 이벤트를 발행한다")
+    void successPayment_winner() {
+        //given
+        given(orderRepository.completePayment(123L, "pay_1234567890", OrderStatus.UNPAID)).willReturn(1);
+        given(orderRepository.findById(123L)).willReturn(Optional.of(order));
+
+        //when
+        boolean completed = paymentTxService.successPayment(buildResponse());
+
+        //then
+        assertTrue(completed);
+        verify(paymentRepository).save(any(Payment.class));
+        verify(orderEventPublisher).publishOrderCompleted(order);
+    }
+
+    @Test
+    @DisplayName("그 사이 취소된 주문이면 결제 내역을 저장하지 않는다")
+    void successPayment_loser() {
+        //given
+        given(orderRepository.completePayment(123L, "pay_1234567890", OrderStatus.UNPAID)).willReturn(0);
+
+        //when
+        boolean completed = paymentTxService.successPayment(buildResponse());
+
+        //then
+        assertFalse(completed);
+        verify(orderRepository, never()).findById(anyLong());
+        verify(paymentRepository, never()).save(any());
+        verify(orderEventPublisher, never()).publishOrderCompleted(any());
+    }
+
+    @Test
+    @DisplayName("결제할 수 없는 주문(취소/만료/완료, 다른 결제 진행 중)은 승인 시작 표시에 실패한다")
+    void startPayment_conflict() {
+        //given
+        given(orderRepository.startPayment(123L, "pay_1234567890", OrderStatus.UNPAID)).willReturn(0);
+
+        //when, then
+        assertThrows(OrderStatusConflict.class, () -> paymentTxService.startPayment(123L, "pay_1234567890"));
+    }
+
+    @Test
+    @DisplayName("취소 전이에 성공한 요청만 상품별로 합산한 재고를 복구한다")
+    void compensateOrder_winner() {
+        //given
+        given(orderRepository.findById(123L)).willReturn(Optional.of(order));
+        given(orderRepository.compareAndSetStatus(123L, OrderStatus.UNPAID, OrderStatus.CANCELED)).willReturn(1);
+
+        //when
+        paymentTxService.compensateOrder(123L);
+
+        //then
+        verify(productRepository).increaseStock(1L, 5);
+        verify(orderEventPublisher).publishOrderCanceled(order);
+    }
+
+    @Test
+    @DisplayName("이미 완료/취소된 주문은 재고를 다시 복구하지 않는다")
+    void compensateOrder_loser() {
+        //given
+        given(orderRepository.findById(123L)).willReturn(Optional.of(order));
+        given(orderRepository.compareAndSetStatus(123L, OrderStatus.UNPAID, OrderStatus.CANCELED)).willReturn(0);
+
+        //when
+        paymentTxService.compensateOrder(123L);
+
+        //then
+        verify(productRepository, never()).increaseStock(anyLong(), anyInt());
+        verify(orderEventPublisher, never()).publishOrderCanceled(any());
+    }
+}
@@ -0,0 +1,117 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.domain.product.Product;
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import com.shop.global.redis.RedisHealthMonitor;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private StockShardService stockShardService;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private OrderProperties orderProperties;
+    @Mock
+    private RedisHealthMonitor redisHealthMonitor;
+
+    private ProductStockCache productStockCache;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productStockCache = new ProductStockCache(productRepository, stockShardService, stockReservationService,
+                orderProperties, redisHealthMonitor, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+        product = Product.builder()
+                .stockQuantity(100)
+                .build();
+    }
+
+    @Test
+    @DisplayName("TTL 안에서는 DB를 다시 읽지 않고 커밋된 주문/취소 수량만큼 고친 재고를 돌려준다")
+    void adjustCachedStock() {
+        //given
+        given(orderProperties.getStockMode()).willReturn(StockMode.REDISSON);
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(stockShardService.getTotalStock(product)).willReturn(100);
+        productStockCache.get(1L);
+
+        //when
+        productStockCache.adjust(1L, -3);
+        productStockCache.adjust(1L, 1);
+
+        //then
+        assertEquals(98, productStockCache.get(1L));
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 상품의 재고 변경은 무시하고 다음 조회 때 DB에서 읽는다")
+    void ignoreAdjustWhenAbsent() {
+        //given
+        given(orderProperties.getStockMode()).willReturn(StockMode.REDISSON);
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(stockShardService.getTotalStock(product)).willReturn(100);
+
+        //when
+        productStockCache.adjust(1L, -3);
+
+        //then
+        assertEquals(100, productStockCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Redis 재고 선점 모드에서는 Redis 카운터를 읽는다")
+    void readRedisCounter() {
+        //given
+        given(orderProperties.getStockMode()).willReturn(StockMode.REDIS_RESERVATION);
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(stockReservationService.getStock(1L)).willReturn(42);
+
+        //when
+        int stock = productStockCache.get(1L);
+
+        //then
+        assertEquals(42, stock);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Redis 카운터를 읽지 못하면 DB 재고를 돌려준다")
+    void fallbackToDatabase() {
+        //given
+        given(orderProperties.getStockMode()).willReturn(StockMode.REDIS_RESERVATION);
+        given(redisHealthMonitor.isAvailable()).willReturn(true);
+        given(stockReservationService.getStock(1L)).willThrow(new RedisConnectionFailureException("연결 실패"));
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(stockShardService.getTotalStock(product)).willReturn(100);
+
+        //when
+        int stock = productStockCache.get(1L);
+
+        //then
+        assertEquals(100, stock);
+    }
+}
@@ -0,0 +1,61 @@
+package com.shop.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.config.OrderProperties;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryServiceTest {
+
+    @Mock
+    private ReservationExpiryTxService reservationExpiryTxService;
+
+    private ReservationExpiryService reservationExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.getReservation().setSweepPageSize(2);
+        reservationExpiryService = new ReservationExpiryService(reservationExpiryTxService, orderProperties);
+    }
+
+    @Test
+    @DisplayName("페이지가 가득 차 있으면 다음 페이지를 이어서 정리하고, 덜 찬 페이지에서 멈춘다")
+    void sweepUntilPartialPage() {
+        //given
+        given(reservationExpiryTxService.expirePage(any(LocalDateTime.class), eq(2))).willReturn(2, 2, 1);
+
+        //when
+        reservationExpiryService.sweep();
+
+        //then
+        verify(reservationExpiryTxService, times(3)).expirePage(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    @DisplayName("한 페이지가 실패하면 이번 주기는 멈추고 다음 주기에 이어서 정리한다")
+    void stopOnFailure() {
+        //given
+        given(reservationExpiryTxService.expirePage(any(LocalDateTime.class), eq(2)))
+                .willReturn(2)
+                .willThrow(new QueryTimeoutException("DB 지연"));
+
+        //when
+        reservationExpiryService.sweep();
+
+        //then
+        verify(reservationExpiryTxService, times(2)).expirePage(any(LocalDateTime.class), eq(2));
+    }
+}
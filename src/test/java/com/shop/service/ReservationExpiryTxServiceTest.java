@@ -0,0 +1,188 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.shop.domain.member.Member;
+import com.shop.domain.order.Order;
+import com.shop.domain.order.OrderProduct;
+import com.shop.domain.order.OrderStatus;
+import com.shop.domain.product.Product;
+import com.shop.event.OrderEventPublisher;
+import com.shop.global.config.QuerydslConfig;
+import com.shop.global.count.ListCountCache;
+import com.shop.global.count.ListCountConfig;
+import com.shop.repository.member.MemberRepository;
+import com.shop.repository.order.OrderRepository;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 재고 선점 만료 정리 (H2, 페이지마다 별도 트랜잭션)
+ */
+@DataJpaTest
+@Import({ReservationExpiryTxService.class, OrderEventPublisher.class, QuerydslConfig.class, ListCountConfig.class,
+        ListCountCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationExpiryTxServiceTest {
+
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private ReservationExpiryTxService reservationExpiryTxService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Member member;
+    private Product product;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        now = LocalDateTime.now();
+        transaction.executeWithoutResult(status -> {
+            //이전 테스트의 주문은 정리 대상에서 뺀다.
+            orderRepository.updateStatus(orderRepository.findAll().stream().map(Order::getId).toList(),
+                    OrderStatus.CANCELED);
+            member = memberRepository.save(Member.builder()
+                    .email("user" + System.nanoTime() + "@example.com")
+                    .name("사용자")
+                    .build());
+            product = productRepository.save(Product.builder()
+                    .name("선점 상품")
+                    .price(1000)
+                    .stockQuantity(INITIAL_STOCK)
+                    .build());
+        });
+    }
+
+    @Test
+    @DisplayName("만료된 미결제 주문만 취소하고 주문 수량만큼 재고를 돌려놓는다")
+    void expireOnlyUnpaidExpiredOrders() {
+        //given
+        Long expiredNew = saveOrder(OrderStatus.NEW, now.minusMinutes(1), null, 2);
+        Long expiredPending = saveOrder(OrderStatus.PAYMENT_PENDING, now.minusMinutes(2), null, 3);
+        Long notExpired = saveOrder(OrderStatus.NEW, now.plusMinutes(5), null, 4);
+        Long completed = saveOrder(OrderStatus.COMPLETED, now.minusMinutes(3), null, 5);
+        Long confirming = saveOrder(OrderStatus.PAYMENT_PENDING, now.minusMinutes(4), "payment-key", 6);
+
+        //when
+        int expired = reservationExpiryTxService.expirePage(now, 10);
+
+        //then
+        assertEquals(2, expired);
+        assertEquals(OrderStatus.CANCELED, statusOf(expiredNew));
+        assertEquals(OrderStatus.CANCELED, statusOf(expiredPending));
+        assertEquals(OrderStatus.NEW, statusOf(notExpired));
+        assertEquals(OrderStatus.COMPLETED, statusOf(completed));
+        assertEquals(OrderStatus.PAYMENT_PENDING, statusOf(confirming));
+        assertEquals(INITIAL_STOCK + 5, stock());
+    }
+
+    @Test
+    @DisplayName("페이지 크기만큼씩 오래된 순으로 정리하고, 마지막 페이지는 페이지 크기보다 작다")
+    void expireByPage() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            saveOrder(OrderStatus.NEW, now.minusMinutes(10 - i), null, 1);
+        }
+
+        //when
+        int first = reservationExpiryTxService.expirePage(now, 2);
+        int second = reservationExpiryTxService.expirePage(now, 2);
+        int third = reservationExpiryTxService.expirePage(now, 2);
+        int fourth = reservationExpiryTxService.expirePage(now, 2);
+
+        //then
+        assertEquals(List.of(2, 2, 1, 0), List.of(first, second, third, fourth));
+        assertEquals(INITIAL_STOCK + 5, stock());
+    }
+
+    @Test
+    @DisplayName("후보 조회 후 결제 승인(또는 취소)이 먼저 잠근 주문은 잠금 후 다시 확인해 취소하지 않는다")
+    void skipOrderPaidConcurrently() throws Exception {
+        //given
+        Long paid = saveOrder(OrderStatus.PAYMENT_PENDING, now.minusMinutes(1), null, 2);
+        Long canceled = saveOrder(OrderStatus.NEW, now.minusMinutes(1), null, 3);
+        Long expired = saveOrder(OrderStatus.NEW, now.minusMinutes(1), null, 4);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        //when
+        Future<?> payment = executor.submit(() -> transaction.executeWithoutResult(status -> {
+            //결제 승인, 사용자 취소 트랜잭션이 주문 행을 먼저 잠그고 상태를 바꾼다.
+            orderRepository.findAllByIdInForUpdate(List.of(paid, canceled), OrderStatus.UNPAID);
+            orderRepository.updateStatus(List.of(paid), OrderStatus.COMPLETED);
+            orderRepository.updateStatus(List.of(canceled), OrderStatus.CANCELED);
+            locked.countDown();
+            await(commit);
+        }));
+        await(locked);
+        Future<Integer> sweep = Executors.newSingleThreadExecutor()
+                .submit(() -> reservationExpiryTxService.expirePage(now, 10));
+        Thread.sleep(200);  //정리 트랜잭션이 후보를 조회하고 행 잠금을 기다리는 중
+        commit.countDown();
+        payment.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertEquals(3, sweep.get(5, TimeUnit.SECONDS));
+        assertEquals(OrderStatus.COMPLETED, statusOf(paid));
+        assertEquals(OrderStatus.CANCELED, statusOf(canceled));
+        assertEquals(OrderStatus.CANCELED, statusOf(expired));
+        assertEquals(INITIAL_STOCK + 4, stock());
+    }
+
+    private Long saveOrder(OrderStatus status, LocalDateTime reservedUntil, String paymentKey, int quantity) {
+        Long orderId = transaction.execute(tx -> {
+            Order order = new Order(member, List.of(new OrderProduct(product, quantity)));
+            order.reserveStockUntil(reservedUntil);
+            order.setPaymentKey(paymentKey);
+            return orderRepository.save(order).getId();
+        });
+        transaction.executeWithoutResult(tx -> orderRepository.updateStatus(List.of(orderId), status));
+        return orderId;
+    }
+
+    private OrderStatus statusOf(Long orderId) {
+        return orderRepository.findById(orderId).orElseThrow().getStatus();
+    }
+
+    private int stock() {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
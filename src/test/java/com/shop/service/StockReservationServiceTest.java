@@ -0,0 +1,292 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.domain.product.Product;
+import com.shop.exception.NotEnoughStock;
+import com.shop.facade.StockMode;
+import com.shop.global.config.OrderProperties;
+import com.shop.repository.product.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * 재고 선점 Lua 스크립트 (RESERVE, RELEASE, LOAD, DRAIN, RESTORE)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final String STOCK_KEY = "stock:product:1";
+    private static final String PENDING_KEY = "stock:pending";
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    static LettuceConnectionFactory connectionFactory;
+    static StringRedisTemplate redisTemplate;
+    static RedissonClient redissonClient;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private StockShardService stockShardService;
+
+    private StockReservationService stockReservationService;
+    private Product product;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        redissonClient.shutdown();
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.setStockMode(StockMode.REDIS_RESERVATION);
+        stockReservationService = new StockReservationService(redisTemplate, redissonClient, productRepository,
+                orderProperties, stockShardService, new SimpleMeterRegistry());
+        product = Product.builder()
+                .stockQuantity(10)
+                .build();
+    }
+
+    @Test
+    @DisplayName("카운터가 없으면 DB 재고에서 미반영 차감분을 빼고 적재한 뒤 차감한다")
+    void reserveLoadsCounter() {
+        //given
+        givenDatabaseStock(10);
+        redisTemplate.opsForHash().put(PENDING_KEY, "1", "3");  //DB에 아직 반영되지 않은 차감분
+
+        //when
+        stockReservationService.reserve(PRODUCT_ID, 2);
+
+        //then
+        assertEquals("5", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("5", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+    }
+
+    @Test
+    @DisplayName("재고가 부족하면 카운터와 미반영 차감분을 바꾸지 않고 거절한다")
+    void reserveNotEnough() {
+        //given
+        givenDatabaseStock(3);
+        stockReservationService.reserve(PRODUCT_ID, 2);
+
+        //when, then
+        assertThrows(NotEnoughStock.class, () -> stockReservationService.reserve(PRODUCT_ID, 2));
+        assertEquals("1", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("2", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+    }
+
+    @Test
+    @DisplayName("장바구니 선점은 한 상품이라도 부족하면 어떤 카운터도 차감하지 않는다")
+    void reserveAllOrNothing() {
+        //given
+        Product other = Product.builder()
+                .stockQuantity(1)
+                .build();
+        givenDatabaseStock(10);
+        given(productRepository.findById(2L)).willReturn(Optional.of(other));
+        given(stockShardService.getTotalStock(other)).willReturn(1);
+
+        //when
+        NotEnoughStock exception = assertThrows(NotEnoughStock.class,
+                () -> stockReservationService.reserveAll(Map.of(1L, 3, 2L, 2)));
+
+        //then
+        assertTrue(exception.getValidation().has("2"));
+        assertEquals("10", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("1", redisTemplate.opsForValue().get("stock:product:2"));
+        assertNull(redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+
+        //when
+        stockReservationService.reserveAll(Map.of(1L, 3, 2L, 1));
+
+        //then
+        assertEquals("7", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("0", redisTemplate.opsForValue().get("stock:product:2"));
+        assertEquals("3", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+        assertEquals("1", redisTemplate.opsForHash().get(PENDING_KEY, "2"));
+    }
+
+    @Test
+    @DisplayName("선점 취소는 카운터를 되돌리고 미반영 차감분도 줄인다")
+    void release() {
+        //given
+        givenDatabaseStock(10);
+        stockReservationService.reserve(PRODUCT_ID, 4);
+
+        //when
+        stockReservationService.release(PRODUCT_ID, 3);
+
+        //then
+        assertEquals("9", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("1", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+    }
+
+    @Test
+    @DisplayName("후반영은 미반영 차감분을 꺼내 DB에서 빼고, 실패하면 다시 쌓는다")
+    void reconcile() {
+        //given
+        givenDatabaseStock(10);
+        stockReservationService.reserve(PRODUCT_ID, 4);
+        given(productRepository.decreaseStock(PRODUCT_ID, 4))
+                .willThrow(new QueryTimeoutException("DB 지연"))
+                .willReturn(1);
+
+        //when
+        stockReservationService.reconcile();
+
+        //then
+        assertEquals("4", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+
+        //when
+        stockReservationService.reconcile();
+
+        //then
+        verify(productRepository, times(2)).decreaseStock(PRODUCT_ID, 4);
+        assertNull(redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+        assertEquals("6", redisTemplate.opsForValue().get(STOCK_KEY));
+    }
+
+    @Test
+    @DisplayName("후반영 중에 카운터를 적재하면 DB 반영이 끝난 뒤의 재고로 적재한다")
+    void loadWaitsForDrain() throws Exception {
+        //given
+        AtomicInteger databaseStock = new AtomicInteger(10);
+        given(productRepository.findById(PRODUCT_ID)).willReturn(Optional.of(product));
+        given(stockShardService.getTotalStock(product)).willAnswer(invocation -> databaseStock.get());
+        stockReservationService.reserve(PRODUCT_ID, 4);
+        redisTemplate.delete(STOCK_KEY);  //카운터 유실
+
+        CountDownLatch draining = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        given(productRepository.decreaseStock(PRODUCT_ID, 4)).willAnswer(invocation -> {
+            draining.countDown();
+            commit.await(5, TimeUnit.SECONDS);
+            databaseStock.addAndGet(-4);
+            return 1;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<?> reconcile = executor.submit(stockReservationService::reconcile);
+        draining.await(5, TimeUnit.SECONDS);  //미반영분을 꺼냈고 DB 커밋 전
+        Future<Integer> stock = executor.submit(() -> stockReservationService.getStock(PRODUCT_ID));
+        Thread.sleep(200);
+        commit.countDown();
+        reconcile.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertEquals(6, stock.get(5, TimeUnit.SECONDS));
+        assertEquals("6", redisTemplate.opsForValue().get(STOCK_KEY));
+    }
+
+    @Test
+    @DisplayName("DB 재고 복구분은 카운터가 있을 때만 더하고, 없으면 다음 적재 때 DB에서 읽는다")
+    void restore() {
+        //when
+        stockReservationService.restore(PRODUCT_ID, 3);
+
+        //then
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(STOCK_KEY)));
+
+        //given
+        givenDatabaseStock(10);
+        stockReservationService.reserve(PRODUCT_ID, 4);
+
+        //when
+        stockReservationService.restore(PRODUCT_ID, 3);
+
+        //then
+        assertEquals("9", redisTemplate.opsForValue().get(STOCK_KEY));
+    }
+
+    @Test
+    @DisplayName("동시 선점은 재고를 넘지 않고, 카운터와 미반영 차감분의 합이 DB 재고와 같다")
+    void concurrentReserve() throws InterruptedException {
+        //given
+        givenDatabaseStock(50);
+        int threadCount = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger reserved = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    stockReservationService.reserve(PRODUCT_ID, 1);
+                    reserved.incrementAndGet();
+                } catch (NotEnoughStock ignore) {
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertEquals(50, reserved.get());
+        assertEquals("0", redisTemplate.opsForValue().get(STOCK_KEY));
+        assertEquals("50", redisTemplate.opsForHash().get(PENDING_KEY, "1"));
+    }
+
+    private void givenDatabaseStock(int stock) {
+        given(productRepository.findById(PRODUCT_ID)).willReturn(Optional.of(product));
+        given(stockShardService.getTotalStock(product)).willReturn(stock);
+    }
+}
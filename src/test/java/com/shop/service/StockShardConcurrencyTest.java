@@ -0,0 +1,127 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.shop.domain.product.Product;
+import com.shop.domain.product.ProductStockShard;
+import com.shop.global.config.QuerydslConfig;
+import com.shop.global.count.ListCountCache;
+import com.shop.global.count.ListCountConfig;
+import com.shop.repository.product.ProductRepository;
+import com.shop.repository.product.ProductStockShardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 분할 재고 동시 차감 (H2, 요청마다 별도 트랜잭션)
+ */
+@DataJpaTest
+@Import({StockShardService.class, QuerydslConfig.class, ListCountConfig.class, ListCountCache.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockShardConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private StockShardService stockShardService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductStockShardRepository productStockShardRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("동시 차감은 어떤 샤드도 음수로 만들지 않고, 성공한 수량만큼만 전체 재고가 줄어든다")
+    void concurrentRemoveStock() throws InterruptedException {
+        //given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long productId = transaction.execute(status -> {
+            Product product = productRepository.save(Product.builder()
+                    .name("분할 상품")
+                    .price(1000)
+                    .stockQuantity(INITIAL_STOCK)
+                    .build());
+            stockShardService.split(product, 4);
+            return product.getId();
+        });
+
+        int requestCount = 120;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(requestCount);
+        AtomicInteger removed = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < requestCount; i++) {
+            int quantity = i % 3 + 1;  //1~3개, 샤드 하나로 부족해지면 여러 샤드에서 나눠 차감
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transaction.executeWithoutResult(status -> {
+                        Product product = productRepository.findById(productId).orElseThrow();
+                        stockShardService.removeStock(product, quantity);
+                    });
+                    removed.addAndGet(quantity);
+                } catch (Exception ignore) {  //재고 부족, 잠금 대기 초과 -> 롤백
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        Product product = productRepository.findById(productId).orElseThrow();
+        int remaining = stockShardService.getTotalStock(product);
+        assertEquals(INITIAL_STOCK - removed.get(), remaining);
+        assertTrue(product.getStockQuantity() >= 0);
+        productStockShardRepository.findAll().stream()
+                .map(ProductStockShard::getStockQuantity)
+                .forEach(stock -> assertTrue(stock >= 0));
+        assertTrue(removed.get() > 0);
+    }
+
+    @Test
+    @DisplayName("분할 후 병합하면 전체 재고가 그대로 상품 행으로 돌아온다")
+    void splitAndMerge() {
+        //given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long productId = transaction.execute(status -> productRepository.save(Product.builder()
+                .name("병합 상품")
+                .price(1000)
+                .stockQuantity(37)
+                .build()).getId());
+
+        //when
+        transaction.executeWithoutResult(status ->
+                stockShardService.split(productRepository.findById(productId).orElseThrow(), 5));
+        int splitTotal = transaction.execute(status ->
+                stockShardService.getTotalStock(productRepository.findById(productId).orElseThrow()));
+        transaction.executeWithoutResult(status ->
+                stockShardService.merge(productRepository.findById(productId).orElseThrow()));
+
+        //then
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(37, splitTotal);
+        assertEquals(37, product.getStockQuantity());
+        assertEquals(0, productStockShardRepository.sumStockQuantity(productId));
+    }
+}
@@ -0,0 +1,172 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.shop.domain.product.Product;
+import com.shop.domain.product.ProductStockShard;
+import com.shop.exception.NotEnoughStock;
+import com.shop.repository.product.ProductRepository;
+import com.shop.repository.product.ProductStockShardRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StockShardServiceTest {
+
+    @Mock
+    private ProductStockShardRepository productStockShardRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private StockShardService stockShardService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .stockQuantity(0)
+                .build();
+        ReflectionTestUtils.setField(product, "id", 1L);
+        product.splitInventory(4);
+    }
+
+    @Test
+    @DisplayName("주문마다 다음 샤드부터 차감을 시도한다")
+    void roundRobinShard() {
+        //given
+        given(productStockShardRepository.decreaseStockIfEnough(eq(1L), anyInt(), eq(1))).willReturn(1);
+
+        //when
+        stockShardService.removeStock(product, 1);
+        stockShardService.removeStock(product, 1);
+
+        //then
+        InOrder order = inOrder(productStockShardRepository);
+        order.verify(productStockShardRepository).decreaseStockIfEnough(1L, 0, 1);
+        order.verify(productStockShardRepository).decreaseStockIfEnough(1L, 1, 1);
+        verify(productRepository, never()).decreaseStockIfEnough(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("고른 샤드가 부족하면 이웃 샤드로 넘어간다")
+    void neighbourShard() {
+        //given
+        given(productStockShardRepository.decreaseStockIfEnough(1L, 0, 2)).willReturn(0);
+        given(productStockShardRepository.decreaseStockIfEnough(1L, 1, 2)).willReturn(1);
+
+        //when
+        stockShardService.removeStock(product, 2);
+
+        //then
+        verify(productStockShardRepository, never()).decreaseStockIfEnough(1L, 2, 2);
+        verify(productRepository, never()).decreaseStockIfEnough(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("모든 샤드가 부족하면 상품 행(보조 샤드)에서 차감한다")
+    void productRow() {
+        //given
+        given(productStockShardRepository.decreaseStockIfEnough(eq(1L), anyInt(), eq(2))).willReturn(0);
+        given(productRepository.decreaseStockIfEnough(1L, 2)).willReturn(1);
+
+        //when
+        stockShardService.removeStock(product, 2);
+
+        //then
+        verify(productStockShardRepository, times(4)).decreaseStockIfEnough(eq(1L), anyInt(), eq(2));
+        verify(productStockShardRepository, never()).findAllByProductIdForUpdate(any());
+    }
+
+    @Test
+    @DisplayName("한 행으로 부족하면 샤드를 모두 잠그고 나눠 차감한 뒤 나머지를 상품 행에서 뺀다")
+    void sweepAllShards() {
+        //given
+        List<ProductStockShard> shards = shards(2, 1, 0, 2);
+        given(productStockShardRepository.decreaseStockIfEnough(eq(1L), anyInt(), eq(6))).willReturn(0);
+        given(productRepository.decreaseStockIfEnough(1L, 6)).willReturn(0);
+        given(productStockShardRepository.findAllByProductIdForUpdate(1L)).willReturn(shards);
+        given(productRepository.decreaseStockIfEnough(1L, 1)).willReturn(1);
+
+        //when
+        stockShardService.removeStock(product, 6);
+
+        //then
+        shards.forEach(shard -> assertEquals(0, shard.getStockQuantity()));
+        verify(productRepository).decreaseStockIfEnough(1L, 1);
+    }
+
+    @Test
+    @DisplayName("샤드와 상품 행을 모두 합쳐도 부족하면 재고 부족 (트랜잭션 롤백으로 샤드 차감 취소)")
+    void sweepNotEnough() {
+        //given
+        given(productStockShardRepository.decreaseStockIfEnough(eq(1L), anyInt(), eq(6))).willReturn(0);
+        given(productRepository.decreaseStockIfEnough(1L, 6)).willReturn(0);
+        given(productStockShardRepository.findAllByProductIdForUpdate(1L)).willReturn(shards(1, 1, 1, 1));
+        given(productRepository.decreaseStockIfEnough(1L, 2)).willReturn(0);
+
+        //when, then
+        assertThrows(NotEnoughStock.class, () -> stockShardService.removeStock(product, 6));
+    }
+
+    @Test
+    @DisplayName("분할은 전체 재고를 샤드에 고르게 나누고, 병합은 샤드 재고를 상품 행에 모두 돌려놓는다")
+    void splitAndMergePreserveTotal() {
+        //given
+        Product single = Product.builder()
+                .stockQuantity(10)
+                .build();
+        ReflectionTestUtils.setField(single, "id", 1L);
+        ArgumentCaptor<ProductStockShard> saved = ArgumentCaptor.forClass(ProductStockShard.class);
+
+        //when
+        stockShardService.split(single, 3);
+
+        //then
+        verify(productStockShardRepository, times(3)).save(saved.capture());
+        List<Integer> stocks = saved.getAllValues().stream()
+                .map(ProductStockShard::getStockQuantity)
+                .toList();
+        assertEquals(List.of(4, 3, 3), stocks);
+        assertEquals(0, single.getStockQuantity());
+
+        //given
+        single.addStock(2);  //분할 중 취소로 상품 행에 돌아온 재고
+        given(productStockShardRepository.findAllByProductIdForUpdate(1L)).willReturn(saved.getAllValues());
+
+        //when
+        stockShardService.merge(single);
+
+        //then
+        assertEquals(12, single.getStockQuantity());
+        verify(productStockShardRepository).deleteAllByProductId(1L);
+    }
+
+    private List<ProductStockShard> shards(int... stocks) {
+        List<ProductStockShard> shards = new ArrayList<>();
+        for (int shardNo = 0; shardNo < stocks.length; shardNo++) {
+            shards.add(new ProductStockShard(1L, shardNo, stocks[shardNo]));
+        }
+        return shards;
+    }
+}
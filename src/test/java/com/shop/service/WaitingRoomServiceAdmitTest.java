@@ -0,0 +1,84 @@
+package com.shop.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.shop.global.config.OrderProperties;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * 대기열이 빈 상품을 입장 처리 대상에서 뺄 때 동시에 줄을 선 회원을 놓치지 않는지
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitingRoomServiceAdmitTest {
+
+    private static final String ACTIVE_PRODUCTS_KEY = "waiting:products";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private SetOperations<String, String> setOperations;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private WaitingRoomService waitingRoomService;
+
+    @BeforeEach
+    void setUp() {
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.getWaitingRoom().setEnabled(true);
+        waitingRoomService = new WaitingRoomService(redisTemplate, orderProperties);
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members(ACTIVE_PRODUCTS_KEY)).willReturn(Set.of("1"));
+        given(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class)))
+                .willReturn(0L);
+    }
+
+    @Test
+    @DisplayName("대기열이 비어 대상에서 뺀 직후 누군가 줄을 섰으면 다시 등록한다")
+    void reAddWhenEnteredDuringRemoval() {
+        //given
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.zCard("waiting:product:{1}")).willReturn(1L);
+
+        //when
+        waitingRoomService.admit();
+
+        //then
+        InOrder order = inOrder(setOperations, zSetOperations);
+        order.verify(setOperations).remove(ACTIVE_PRODUCTS_KEY, "1");
+        order.verify(zSetOperations).zCard("waiting:product:{1}");
+        order.verify(setOperations).add(ACTIVE_PRODUCTS_KEY, "1");
+    }
+
+    @Test
+    @DisplayName("대기열이 계속 비어 있으면 대상에서 뺀다")
+    void removeWhenStillEmpty() {
+        //given
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.zCard("waiting:product:{1}")).willReturn(0L);
+
+        //when
+        waitingRoomService.admit();
+
+        //then
+        verify(setOperations).remove(ACTIVE_PRODUCTS_KEY, "1");
+        verify(setOperations, never()).add(ACTIVE_PRODUCTS_KEY, "1");
+    }
+}
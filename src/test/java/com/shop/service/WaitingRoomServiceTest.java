@@ -0,0 +1,176 @@
+package com.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.shop.dto.response.WaitingRoomResponse;
+import com.shop.dto.response.WaitingRoomResponse.Status;
+import com.shop.exception.AdmissionRequired;
+import com.shop.exception.NotEnoughStock;
+import com.shop.global.config.OrderProperties;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * 주문 대기열 Lua 스크립트 (ADMIT, CONSUME, RESTORE)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class WaitingRoomServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    static LettuceConnectionFactory connectionFactory;
+    static StringRedisTemplate redisTemplate;
+
+    private WaitingRoomService waitingRoomService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.getWaitingRoom().setEnabled(true);
+        orderProperties.getWaitingRoom().setAdmitIntervalMs(1_000);
+        orderProperties.getWaitingRoom().setRatePerSecond(1);
+        waitingRoomService = new WaitingRoomService(redisTemplate, orderProperties);
+    }
+
+    @Test
+    @DisplayName("줄을 서지 않은 회원은 순번 0이 아니라 대기열에 없음 상태를 받는다")
+    void notQueued() {
+        //when
+        WaitingRoomResponse response = waitingRoomService.getStatus(EMAIL, 1L).getBody();
+
+        //then
+        assertEquals(Status.NOT_QUEUED, response.getStatus());
+        assertFalse(response.isAdmitted());
+    }
+
+    @Test
+    @DisplayName("입장 주기마다 도착 순서대로 설정된 인원만 입장권을 받는다")
+    void admitInArrivalOrder() {
+        //given
+        waitingRoomService.enter(EMAIL, 1L);
+        waitingRoomService.enter("other@example.com", 1L);
+
+        //when
+        waitingRoomService.admit();
+        waitingRoomService.admit();  //같은 주기 안의 두 번째 실행은 무시
+
+        //then
+        assertEquals(Status.ADMITTED, waitingRoomService.getStatus(EMAIL, 1L).getBody().getStatus());
+        WaitingRoomResponse waiting = waitingRoomService.getStatus("other@example.com", 1L).getBody();
+        assertEquals(Status.WAITING, waiting.getStatus());
+        assertEquals(1, waiting.getPosition());
+        assertTrue(redisTemplate.getExpire("admission:product:{1}") > 0);
+    }
+
+    @Test
+    @DisplayName("입장권이 없으면 주문하지 않고, 입장권은 한 번만 사용할 수 있다")
+    void consumeOnce() {
+        //given
+        admit(1L);
+
+        //when
+        waitingRoomService.consume(EMAIL, List.of(1L));
+
+        //then
+        assertThrows(AdmissionRequired.class, () -> waitingRoomService.consume(EMAIL, List.of(1L)));
+        assertEquals(Status.NOT_QUEUED, waitingRoomService.getStatus(EMAIL, 1L).getBody().getStatus());
+    }
+
+    @Test
+    @DisplayName("장바구니 주문은 모든 상품의 입장권이 있을 때만 사용하고, 하나라도 없으면 아무것도 사용하지 않는다")
+    void consumeAllOrNothing() {
+        //given
+        admit(1L);
+
+        //when, then
+        assertThrows(AdmissionRequired.class, () -> waitingRoomService.consume(EMAIL, List.of(1L, 2L)));
+        assertEquals(Status.ADMITTED, waitingRoomService.getStatus(EMAIL, 1L).getBody().getStatus());
+    }
+
+    @Test
+    @DisplayName("주문이 실패하면 입장권을 원래 만료 시각으로 되돌려 다시 주문할 수 있다")
+    void restoreOnFailure() {
+        //given
+        admit(1L);
+        long expiresInMs = waitingRoomService.getStatus(EMAIL, 1L).getBody().getAdmissionExpiresInMs();
+
+        //when
+        CompletableFuture<Object> result = waitingRoomService.admitted(EMAIL, List.of(1L),
+                () -> CompletableFuture.failedFuture(new NotEnoughStock()));
+
+        //then
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof NotEnoughStock);
+        WaitingRoomResponse response = waitingRoomService.getStatus(EMAIL, 1L).getBody();
+        assertEquals(Status.ADMITTED, response.getStatus());
+        assertTrue(response.getAdmissionExpiresInMs() <= expiresInMs);
+    }
+
+    @Test
+    @DisplayName("주문이 성공하면 입장권을 되돌리지 않는다")
+    void keepConsumedOnSuccess() {
+        //given
+        admit(1L);
+
+        //when
+        waitingRoomService.admitted(EMAIL, List.of(1L), () -> CompletableFuture.completedFuture("주문 완료")).join();
+
+        //then
+        assertEquals(Status.NOT_QUEUED, waitingRoomService.getStatus(EMAIL, 1L).getBody().getStatus());
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 입장권은 복구하지 않는다")
+    void skipExpiredRestore() {
+        //given
+        admit(1L);
+        WaitingRoomService.Admission admission = waitingRoomService.consume(EMAIL, List.of(1L));
+
+        //when
+        waitingRoomService.restore(new WaitingRoomService.Admission(EMAIL, admission.keys(),
+                List.of(String.valueOf(System.currentTimeMillis() - 1_000))));
+
+        //then
+        assertEquals(Status.NOT_QUEUED, waitingRoomService.getStatus(EMAIL, 1L).getBody().getStatus());
+    }
+
+    private void admit(Long productId) {
+        waitingRoomService.enter(EMAIL, productId);
+        waitingRoomService.admit();
+    }
+}